@@ -0,0 +1,460 @@
+package com.tsb.noise.benchmark;
+
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.BatchProcessingService;
+import com.tsb.noise.service.ProcessingConfig;
+import com.tsb.noise.service.ProcessingResult;
+import com.tsb.noise.service.metrics.FileMetrics;
+import com.tsb.noise.service.metrics.RunMetrics;
+import com.tsb.noise.service.operations.export.RtListCreator;
+import com.tsb.noise.service.operations.export.SummaryTableCreator;
+import com.tsb.noise.service.utils.ExcelProcessor;
+import com.tsb.noise.service.utils.JsonWriter;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Макро-бенчмарк пакетной обработки: тот же запуск BatchProcessingService, что выполняет задача
+ * TaskBasedProcessingHandler в интерфейсе ({@link ProcessingConfig#of}), но без JavaFX - все операции,
+ * перечень РТ и сводная таблица по синтетической папке проекта ({@link SyntheticProject}).
+ * <p>
+ * Итог - медиана по запускам: файлов/с, строк/с, p50/p95/max времени обработки файла, пик кучи, время GC
+ * (медиана устойчива к единичным паузам машины, которые в сводном перцентиле по всем запускам дают разброс).
+ * Итог сравнивается с базой этой машины (src/jmh/baselines/batch-&lt;машина&gt;.json): при ухудшении любого показателя
+ * больше порога бенчмарк завершается с кодом 1.
+ * Нагрузка базы включает число потоков обработки и процессоров машины: база, снятая с другим числом потоков
+ * или на машине с другим числом процессоров, не сравнивается. По умолчанию файлы обрабатываются в один поток,
+ * чтобы итог меньше зависел от машины.
+ * <p>
+ * Базу записывают один раз на машине, где бенчмарк работает проверкой (сборочный сервер), и добавляют в репозиторий.
+ * У сборочных агентов имя машины меняется - им задают постоянное имя параметром --host.
+ * <p>
+ * Запуск: mvn -Pjmh test-compile exec:exec -Dbench.main=com.tsb.noise.benchmark.BatchBenchmark -Djmh.args="--host=ci --threshold=15"
+ * Обновление базы после осознанного изменения производительности: -Djmh.args="--host=ci --save-baseline"
+ */
+public final class BatchBenchmark {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_REGRESSION = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_FAILED = 4;
+
+    static final String BASELINE_DIRECTORY = "src/jmh/baselines";
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Использование: BatchBenchmark [параметры]",
+            "  --project=<папка>      папка проекта (по умолчанию создается синтетическая во временной папке)",
+            "  --shk=<N>              ШК в синтетической папке (по умолчанию 5)",
+            "  --rt=<N>               РТ в файле (по умолчанию 200)",
+            "  --rows-per-rt=<N>      строк в блоке РТ, не меньше " + SyntheticSheet.MIN_ROWS_PER_RT
+                    + " (по умолчанию 40)",
+            "  --warmup=<N>           прогревочных запусков (по умолчанию 2)",
+            "  --runs=<N>             замеряемых запусков (по умолчанию 5)",
+            "  --threads=<N>          файлов, обрабатываемых одновременно (по умолчанию 1)",
+            "  --host=<имя>           имя машины в имени файла базы (по умолчанию - имя этой машины)",
+            "  --baseline=<файл>      база для сравнения (по умолчанию " + BASELINE_DIRECTORY + "/batch-<машина>.json)",
+            "  --threshold=<%>        допустимое ухудшение показателя (по умолчанию 10)",
+            "  --save-baseline        записать итог как новую базу вместо сравнения",
+            "Коды завершения: 0 - без ухудшений, 1 - ухудшение больше порога, 2 - неверные аргументы,",
+            "                 база не найдена или снята на другой нагрузке, 4 - обработка завершилась с ошибками");
+
+    private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"[^\"]*\"|-?[0-9.eE+-]+)");
+
+    /**
+     * Показатели бенчмарка. Различия меньше noiseFloor (в единицах показателя) не считаются ухудшением:
+     * у малых значений (время GC, короткие файлы) относительный разброс между запусками велик
+     */
+    enum Metric {
+        FILES_PER_SECOND("filesPerSecond", "файлов/с", true, 0),
+        ROWS_PER_SECOND("rowsPerSecond", "строк/с", true, 0),
+        FILE_P50_MILLIS("fileP50Millis", "файл p50, мс", false, 5),
+        FILE_P95_MILLIS("fileP95Millis", "файл p95, мс", false, 5),
+        FILE_MAX_MILLIS("fileMaxMillis", "файл max, мс", false, 10),
+        PEAK_HEAP_MB("peakHeapMb", "пик кучи, МБ", false, 32),
+        GC_MILLIS("gcMillis", "время GC, мс", false, 20);
+
+        private final String key;
+        private final String displayName;
+        private final boolean higherIsBetter;
+        private final double noiseFloor;
+
+        Metric(String key, String displayName, boolean higherIsBetter, double noiseFloor) {
+            this.key = key;
+            this.displayName = displayName;
+            this.higherIsBetter = higherIsBetter;
+            this.noiseFloor = noiseFloor;
+        }
+
+        /**
+         * Изменение показателя относительно базы в процентах
+         */
+        static double changePercent(double baseline, double current) {
+            return baseline > 0 ? (current - baseline) / baseline * 100 : 0;
+        }
+
+        /**
+         * Ухудшение относительно базы в процентах (отрицательное - улучшение)
+         */
+        double degradationPercent(double baseline, double current) {
+            double change = changePercent(baseline, current);
+            return higherIsBetter ? -change : change;
+        }
+
+        boolean isRegression(double baseline, double current, double thresholdPercent) {
+            return Math.abs(current - baseline) > noiseFloor
+                    && degradationPercent(baseline, current) > thresholdPercent;
+        }
+    }
+
+    /**
+     * Замеры одного запуска
+     */
+    private record RunSample(double filesPerSecond, double rowsPerSecond, double fileP50Millis,
+                             double fileP95Millis, double fileMaxMillis, double peakHeapMb, double gcMillis) {
+    }
+
+    private BatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        // Журнал обработки - в stderr и файл, как у консольного запуска: в stdout только итог бенчмарка
+        if (System.getProperty("logback.configurationFile") == null) {
+            System.setProperty("logback.configurationFile", "logback-cli.xml");
+        }
+        // Каждый запуск разбирает листы заново, иначе замеряется кэш, а не обработка
+        if (System.getProperty("noise.sheet.cache") == null) {
+            System.setProperty("noise.sheet.cache", "false");
+        }
+
+        Path project = null;
+        int shkCount = 5;
+        int rtPerFile = 200;
+        int rowsPerRt = 40;
+        int warmupRuns = 2;
+        int measuredRuns = 5;
+        int threads = 1;
+        String host = null;
+        Path baselineFile = null;
+        double thresholdPercent = 10;
+        boolean saveBaseline = false;
+
+        try {
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                String name = separator >= 0 ? arg.substring(0, separator) : arg;
+                String value = separator >= 0 ? arg.substring(separator + 1) : "";
+                switch (name) {
+                    case "--project" -> project = Path.of(value);
+                    case "--shk" -> shkCount = positive(name, value);
+                    case "--rt" -> rtPerFile = positive(name, value);
+                    case "--rows-per-rt" -> rowsPerRt =
+                            SyntheticProject.atLeast(name, value, SyntheticSheet.MIN_ROWS_PER_RT);
+                    case "--warmup" -> warmupRuns = Integer.parseInt(value);
+                    case "--runs" -> measuredRuns = positive(name, value);
+                    case "--threads" -> threads = positive(name, value);
+                    case "--host" -> host = hostName(value);
+                    case "--baseline" -> baselineFile = Path.of(value);
+                    case "--threshold" -> thresholdPercent = Double.parseDouble(value.replace(',', '.'));
+                    case "--save-baseline" -> saveBaseline = true;
+                    default -> throw new IllegalArgumentException("Неизвестный параметр: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (baselineFile == null) {
+            baselineFile = Path.of(BASELINE_DIRECTORY, "batch-" + (host != null ? host : localHostName()) + ".json");
+        }
+
+        String workload = (project != null
+                ? "project=" + project.toAbsolutePath().normalize()
+                : String.format(Locale.ROOT, "shk=%d types=%d rt=%d rows-per-rt=%d",
+                shkCount, FileType.values().length, rtPerFile, rowsPerRt))
+                + String.format(Locale.ROOT, " threads=%d processors=%d",
+                threads, Runtime.getRuntime().availableProcessors());
+        ProcessingConfig config = ProcessingConfig.of(
+                Arrays.asList(FileType.values()), true, true, 2.5, true, true);
+
+        // База проверяется до замеров: без подходящей базы сравнивать не с чем
+        Map<Metric, Double> baselineValues = null;
+        if (!saveBaseline) {
+            if (!Files.isRegularFile(baselineFile)) {
+                System.err.println("❌ База не найдена: " + baselineFile.toAbsolutePath()
+                        + " (запишите ее на этой машине параметром --save-baseline)");
+                return EXIT_USAGE;
+            }
+            try {
+                baselineValues = readBaseline(baselineFile, workload);
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("❌ Не удалось прочитать базу " + baselineFile.toAbsolutePath() + ": " + e.getMessage());
+                return EXIT_USAGE;
+            }
+            if (baselineValues == null) {
+                return EXIT_USAGE;
+            }
+        }
+
+        Path generated = null;
+        try {
+            if (project == null) {
+                generated = Files.createTempDirectory("noise-batch-bench");
+                project = generated;
+                new SyntheticProject(generated, shkCount, Arrays.asList(FileType.values()), rtPerFile, rowsPerRt,
+                        SyntheticSheet.CoordinateFormat.MIXED, false)
+                        .generate(Runtime.getRuntime().availableProcessors());
+            }
+
+            System.out.printf(Locale.ROOT, "🏁 %s: прогрев %d, замеров %d%n", workload, warmupRuns, measuredRuns);
+            for (int i = 0; i < warmupRuns; i++) {
+                runOnce(project, config, threads);
+            }
+            List<RunSample> samples = new ArrayList<>();
+            for (int i = 0; i < measuredRuns; i++) {
+                RunSample sample = runOnce(project, config, threads);
+                System.out.printf(Locale.ROOT, "  запуск %d: %.1f файлов/с, %.0f строк/с%n",
+                        i + 1, sample.filesPerSecond(), sample.rowsPerSecond());
+                samples.add(sample);
+            }
+            Map<Metric, Double> results = summarize(samples);
+
+            if (saveBaseline) {
+                writeBaseline(baselineFile, workload, results);
+                printResults(results, null, thresholdPercent);
+                System.out.println("💾 База записана: " + baselineFile.toAbsolutePath());
+                return EXIT_OK;
+            }
+            return printResults(results, baselineValues, thresholdPercent) ? EXIT_REGRESSION : EXIT_OK;
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("💥 Бенчмарк прерван: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("💥 Бенчмарк прерван");
+            return EXIT_FAILED;
+        } finally {
+            if (generated != null) {
+                deleteRecursively(generated);
+            }
+        }
+    }
+
+    /**
+     * Один полный запуск обработки папки; пик кучи и время GC снимаются по MXBean за время запуска
+     */
+    private static RunSample runOnce(Path project, ProcessingConfig config, int threads) throws IOException {
+        BatchProcessingService service = new BatchProcessingService(
+                new ExcelProcessor(), new RtListCreator(), new SummaryTableCreator());
+        service.setParallelism(threads);
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcMillisBefore = totalGcMillis();
+
+        ProcessingResult result = service.process(project.toString(), config, new BatchProcessingService.Listener() {
+        });
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("обработка завершилась с ошибками: " + result.getErrorMessages());
+        }
+
+        long gcMillis = totalGcMillis() - gcMillisBefore;
+        long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        RunMetrics metrics = result.getMetrics();
+        List<FileMetrics> files = metrics.getFiles();
+        double seconds = metrics.getDurationNanos() / 1e9;
+        long rows = files.stream().mapToLong(FileMetrics::getRowsIn).sum();
+        long[] fileNanos = files.stream().mapToLong(FileMetrics::getWallNanos).sorted().toArray();
+        return new RunSample(files.size() / seconds, rows / seconds,
+                percentile(fileNanos, 50) / 1e6, percentile(fileNanos, 95) / 1e6, percentile(fileNanos, 100) / 1e6,
+                peakHeapBytes / (1024.0 * 1024), gcMillis);
+    }
+
+    private static long totalGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    private static Map<Metric, Double> summarize(List<RunSample> samples) {
+        Map<Metric, Double> results = new EnumMap<>(Metric.class);
+        results.put(Metric.FILES_PER_SECOND, median(samples, RunSample::filesPerSecond));
+        results.put(Metric.ROWS_PER_SECOND, median(samples, RunSample::rowsPerSecond));
+        results.put(Metric.FILE_P50_MILLIS, median(samples, RunSample::fileP50Millis));
+        results.put(Metric.FILE_P95_MILLIS, median(samples, RunSample::fileP95Millis));
+        results.put(Metric.FILE_MAX_MILLIS, median(samples, RunSample::fileMaxMillis));
+        results.put(Metric.PEAK_HEAP_MB, median(samples, RunSample::peakHeapMb));
+        results.put(Metric.GC_MILLIS, median(samples, RunSample::gcMillis));
+        return results;
+    }
+
+    private static double median(List<RunSample> samples, ToDoubleFunction<RunSample> metric) {
+        double[] sorted = samples.stream().mapToDouble(metric).sorted().toArray();
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Перцентиль по ближайшему рангу для отсортированных значений
+     */
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Печатает итог и сравнение с базой
+     * @return true, если хотя бы один показатель ухудшился больше порога
+     */
+    private static boolean printResults(Map<Metric, Double> results, Map<Metric, Double> baseline,
+                                        double thresholdPercent) {
+        boolean regression = false;
+        System.out.println("📊 Итог:");
+        for (Metric metric : Metric.values()) {
+            double value = results.get(metric);
+            Double baselineValue = baseline != null ? baseline.get(metric) : null;
+            if (baselineValue == null) {
+                System.out.printf(Locale.ROOT, "  %-16s %12.1f%n", metric.displayName, value);
+                continue;
+            }
+            boolean metricRegressed = metric.isRegression(baselineValue, value, thresholdPercent);
+            regression |= metricRegressed;
+            System.out.printf(Locale.ROOT, "  %-16s %12.1f   база %12.1f   %+6.1f%%  %s%n",
+                    metric.displayName, value, baselineValue, Metric.changePercent(baselineValue, value),
+                    metricRegressed ? "❌" : "✅");
+        }
+        if (baseline != null) {
+            System.out.println(regression
+                    ? String.format(Locale.ROOT, "❌ Производительность ухудшилась больше чем на %.0f%%", thresholdPercent)
+                    : "✅ Без ухудшений относительно базы");
+        }
+        return regression;
+    }
+
+    private static void writeBaseline(Path file, String workload, Map<Metric, Double> results) throws IOException {
+        JsonWriter json = new JsonWriter().beginObject()
+                .name("workload").value(workload)
+                .name("javaVersion").value(System.getProperty("java.version"));
+        results.forEach((metric, value) -> json.name(metric.key).value(value));
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, json.endObject() + System.lineSeparator(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Показатели базы, снятой на той же нагрузке
+     * @return null, если база снята на другой нагрузке (причина печатается в stderr)
+     */
+    private static Map<Metric, Double> readBaseline(Path file, String workload) throws IOException {
+        Map<String, String> baseline = readFields(file);
+        String baselineWorkload = unquote(baseline.get("workload"));
+        if (!workload.equals(baselineWorkload)) {
+            System.err.println("❌ База снята на другой нагрузке: " + baselineWorkload + ", сейчас: " + workload);
+            return null;
+        }
+        Map<Metric, Double> values = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            String value = baseline.get(metric.key);
+            if (value != null) {
+                values.put(metric, Double.parseDouble(value));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Поля базы верхнего уровня: строки (в кавычках) и числа. База пишется {@link #writeBaseline} плоским объектом
+     */
+    private static Map<String, String> readFields(Path file) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        Matcher matcher = JSON_FIELD.matcher(Files.readString(file, StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            fields.put(matcher.group(1), matcher.group(2));
+        }
+        return fields;
+    }
+
+    private static String unquote(String value) {
+        return value != null && value.length() >= 2 && value.startsWith("\"")
+                ? value.substring(1, value.length() - 1) : value;
+    }
+
+    private static void deleteRecursively(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("⚠️ Не удалось удалить " + root + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Имя этой машины из окружения; если оно не задано - "local"
+     */
+    private static String localHostName() {
+        String name = System.getenv("HOSTNAME");
+        if (name == null || name.isBlank()) {
+            name = System.getenv("COMPUTERNAME");
+        }
+        if (name == null || name.isBlank()) {
+            try {
+                name = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                name = "local";
+            }
+        }
+        return hostName(name);
+    }
+
+    /**
+     * Имя машины, пригодное для имени файла: буквы, цифры, точка, дефис и подчеркивание
+     */
+    private static String hostName(String name) {
+        String safe = name.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+        if (safe.isEmpty()) {
+            throw new IllegalArgumentException("--host: не указано имя машины");
+        }
+        return safe;
+    }
+
+    private static int positive(String name, String value) {
+        int number = Integer.parseInt(value);
+        if (number < 1) {
+            throw new IllegalArgumentException(name + ": ожидается целое число не меньше 1");
+        }
+        return number;
+    }
+}
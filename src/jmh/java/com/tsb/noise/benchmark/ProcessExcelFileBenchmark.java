@@ -0,0 +1,67 @@
+package com.tsb.noise.benchmark;
+
+import com.tsb.noise.service.utils.ExcelProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полная обработка файла ЛИСТ2 через ExcelProcessor.processExcelFile: чтение, операции, запись
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ProcessExcelFileBenchmark {
+
+    /**
+     * Размер листа "строкиxРТ"
+     */
+    @Param({"1000x50", "10000x500", "100000x5000"})
+    private String size;
+
+    /**
+     * Включены все операции (удаление, перемещение, поправка) или только копирование
+     */
+    @Param({"false", "true"})
+    private boolean allOperations;
+
+    private Path workDir;
+    private File inputFile;
+    private File outputFile;
+    private ExcelProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int[] dimensions = SyntheticSheet.parseSize(size);
+        workDir = Files.createTempDirectory("noise-jmh");
+        inputFile = SyntheticSheet.write(workDir.resolve("ШК1_УЗД в РТ ОВ день_FINAL.xlsx").toFile(),
+                dimensions[0], dimensions[1]);
+        outputFile = workDir.resolve("В записку_УЗД в РТ ОВ день_FINAL.xlsx").toFile();
+        processor = new ExcelProcessor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile.toPath());
+        Files.deleteIfExists(inputFile.toPath());
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    public boolean processExcelFile() {
+        boolean processed = allOperations
+                ? processor.processExcelFile(inputFile, outputFile, true, true, 2.5)
+                : processor.processExcelFile(inputFile, outputFile, false, false, null);
+        if (!processed) {
+            throw new IllegalStateException("Файл не обработан: " + inputFile);
+        }
+        return processed;
+    }
+}
@@ -0,0 +1,126 @@
+package com.tsb.noise.benchmark;
+
+import com.tsb.noise.model.RtData;
+import com.tsb.noise.service.operations.core.RowOperation;
+import com.tsb.noise.service.operations.core.RowPipeline;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import com.tsb.noise.service.operations.row.BarrierRowMover;
+import com.tsb.noise.service.operations.row.CorrectionOperation;
+import com.tsb.noise.service.operations.row.EmptyRowCleaner;
+import com.tsb.noise.service.operations.row.SoundIsolationRemover;
+import com.tsb.noise.service.operations.table.DataCopier;
+import com.tsb.noise.service.reader.NoiseTable;
+import com.tsb.noise.service.reader.SheetRow;
+import com.tsb.noise.service.reader.SheetRowHandler;
+import com.tsb.noise.service.reader.StreamingSheetReader;
+import com.tsb.noise.service.utils.RtDataProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отдельные операции над планом строк. Лист читается один раз; перед каждым вызовом
+ * план собирается заново из прочитанных строк, т.к. операции его изменяют
+ * (сборка плана в замер не входит).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class RowOperationBenchmark {
+
+    @Param({"1000x50", "10000x500", "100000x5000"})
+    private String size;
+
+    private final List<SheetRow> sourceRows = new ArrayList<>();
+    private List<RtData> rtDataList;
+    private final RtDataProcessor rtDataProcessor = new RtDataProcessor();
+    private final RowOperation soundIsolationRemover = new SoundIsolationRemover();
+    private final RowOperation barrierRowMover = new BarrierRowMover();
+    private final RowOperation correctionOperation = new CorrectionOperation(2.5);
+    private final EmptyRowCleaner emptyRowCleaner = new EmptyRowCleaner();
+    private final RowPipeline fusedPipeline = RowPipeline.of(List.of(
+            soundIsolationRemover, barrierRowMover, correctionOperation, emptyRowCleaner));
+
+    /**
+     * План исходных строк без заголовков РТ - вход для processRtData
+     */
+    private RowPlan copiedPlan;
+
+    /**
+     * План с заголовками РТ - вход для остальных операций, как в ExcelProcessor
+     */
+    private RowPlan preparedPlan;
+
+    @Setup(Level.Trial)
+    public void readSheet() throws IOException {
+        int[] dimensions = SyntheticSheet.parseSize(size);
+        File inputFile = Files.createTempFile("noise-jmh", ".xlsx").toFile();
+        try {
+            SyntheticSheet.write(inputFile, dimensions[0], dimensions[1]);
+            NoiseTable.Builder tableBuilder = NoiseTable.builder();
+            SheetRowHandler rowCollector = sourceRows::add;
+            new StreamingSheetReader().readSheet(inputFile, "ЛИСТ2", rowCollector.andThen(tableBuilder));
+            rtDataList = rtDataProcessor.findRtData(tableBuilder.build());
+        } finally {
+            Files.deleteIfExists(inputFile.toPath());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void buildPlans() {
+        copiedPlan = copySourceRows();
+        preparedPlan = copySourceRows();
+        rtDataProcessor.processRtData(rtDataList, preparedPlan);
+    }
+
+    private RowPlan copySourceRows() {
+        RowPlan plan = new RowPlan();
+        plan.addRow(PlanRow.empty()); // Пустая строка после шапки
+        DataCopier.RowCopier copier = new DataCopier().createRowCopier(plan);
+        sourceRows.forEach(copier::handleRow);
+        return plan;
+    }
+
+    @Benchmark
+    public RowPlan processRtData() {
+        rtDataProcessor.processRtData(rtDataList, copiedPlan);
+        return copiedPlan;
+    }
+
+    @Benchmark
+    public int soundIsolationRemover() {
+        return soundIsolationRemover.execute(preparedPlan);
+    }
+
+    @Benchmark
+    public int barrierRowMover() {
+        return barrierRowMover.execute(preparedPlan);
+    }
+
+    @Benchmark
+    public int correctionOperation() {
+        return correctionOperation.execute(preparedPlan);
+    }
+
+    @Benchmark
+    public int emptyRowCleaner() {
+        return emptyRowCleaner.removeEmptyRows(preparedPlan);
+    }
+
+    /**
+     * Все операции за один проход - как в ExcelProcessor
+     */
+    @Benchmark
+    public int[] fusedPipeline() {
+        return fusedPipeline.run(preparedPlan);
+    }
+}
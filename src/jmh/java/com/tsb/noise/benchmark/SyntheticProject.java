@@ -0,0 +1,182 @@
+package com.tsb.noise.benchmark;
+
+import com.tsb.noise.model.FileType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Генератор синтетической папки проекта для нагрузочных замеров: ШК × типы файлов,
+ * в каждом файле - rtPerFile блоков РТ по rowsPerRt строк. Файлы пишутся параллельно и потоково,
+ * поэтому корпус в десятки гигабайт создается со скоростью диска.
+ * <p>
+ * Запуск: mvn -Pjmh test-compile exec:exec -Dbench.main=com.tsb.noise.benchmark.SyntheticProject
+ * -Djmh.args="--out=/tmp/noise-corpus --shk=20 --rt=500 --rows-per-rt=40"
+ */
+public final class SyntheticProject {
+
+    /**
+     * Средний размер строки ЛИСТ2 в сжатом xlsx - для пересчета --file-size в число строк
+     */
+    static final int BYTES_PER_ROW = 44;
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Использование: SyntheticProject --out=<папка> [параметры]",
+            "  --shk=<N>                     число ШК (по умолчанию 3)",
+            "  --types=TX_DAY,OV_NIGHT,...   типы файлов (по умолчанию все)",
+            "  --rt=<N>                      РТ в файле (по умолчанию 50)",
+            "  --rows-per-rt=<N>             строк в блоке РТ, не меньше " + SyntheticSheet.MIN_ROWS_PER_RT
+                    + " (по умолчанию 20)",
+            "  --file-size=<МБ>              примерный размер файла; задает --rows-per-rt",
+            "  --coordinates=described|plain|labeled|negative|mixed  запись координат (по умолчанию mixed)",
+            "  --subfolders                  файлы каждого ШК в своей папке (по умолчанию все в корне)",
+            "  --threads=<N>                 файлов, создаваемых одновременно (по умолчанию - число ядер)");
+
+    private final Path root;
+    private final int shkCount;
+    private final List<FileType> fileTypes;
+    private final int rtPerFile;
+    private final int rowsPerRt;
+    private final SyntheticSheet.CoordinateFormat coordinateFormat;
+    private final boolean subfolders;
+
+    SyntheticProject(Path root, int shkCount, List<FileType> fileTypes, int rtPerFile, int rowsPerRt,
+                     SyntheticSheet.CoordinateFormat coordinateFormat, boolean subfolders) {
+        this.root = root;
+        this.shkCount = shkCount;
+        this.fileTypes = List.copyOf(fileTypes);
+        this.rtPerFile = rtPerFile;
+        this.rowsPerRt = rowsPerRt;
+        this.coordinateFormat = coordinateFormat;
+        this.subfolders = subfolders;
+    }
+
+    /**
+     * Число строк в блоке РТ, при котором файл из rtPerFile блоков имеет размер около fileSizeMb
+     */
+    static int rowsPerRtForSize(double fileSizeMb, int rtPerFile) {
+        long rows = (long) (fileSizeMb * 1024 * 1024 / BYTES_PER_ROW);
+        return (int) Math.max(SyntheticSheet.MIN_ROWS_PER_RT, Math.min(Integer.MAX_VALUE, rows / rtPerFile));
+    }
+
+    /**
+     * Создает все файлы папки проекта на пуле из threads потоков
+     * @return созданные файлы в порядке ШК и типов
+     */
+    List<File> generate(int threads) throws IOException, InterruptedException {
+        Files.createDirectories(root);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<File>> futures = new ArrayList<>();
+            for (int shk = 1; shk <= shkCount; shk++) {
+                Path folder = subfolders ? root.resolve("ШК" + shk) : root;
+                Files.createDirectories(folder);
+                for (FileType fileType : fileTypes) {
+                    File file = folder.resolve("ШК" + shk + "_" + fileType.getInputPattern() + ".xlsx").toFile();
+                    futures.add(executor.submit(() -> writeFile(file, fileType)));
+                }
+            }
+
+            List<File> files = new ArrayList<>(futures.size());
+            for (Future<File> future : futures) {
+                try {
+                    files.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IOException("Не удалось создать файл: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return files;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private File writeFile(File file, FileType fileType) throws IOException {
+        long start = System.nanoTime();
+        SyntheticSheet.write(file, fileType, rtPerFile, rowsPerRt, coordinateFormat);
+        System.out.printf(Locale.ROOT, "  %s: %.1f МБ за %.1f с%n", file.getName(),
+                file.length() / (1024.0 * 1024), (System.nanoTime() - start) / 1e9);
+        return file;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = null;
+        int shkCount = 3;
+        List<FileType> fileTypes = Arrays.asList(FileType.values());
+        int rtPerFile = 50;
+        int rowsPerRt = 20;
+        Double fileSizeMb = null;
+        SyntheticSheet.CoordinateFormat coordinateFormat = SyntheticSheet.CoordinateFormat.MIXED;
+        boolean subfolders = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                String name = separator >= 0 ? arg.substring(0, separator) : arg;
+                String value = separator >= 0 ? arg.substring(separator + 1) : "";
+                switch (name) {
+                    case "--out" -> root = Path.of(value);
+                    case "--shk" -> shkCount = positive(name, value);
+                    case "--types" -> fileTypes = Arrays.stream(value.split(","))
+                            .map(type -> FileType.valueOf(type.trim().toUpperCase(Locale.ROOT)))
+                            .toList();
+                    case "--rt" -> rtPerFile = positive(name, value);
+                    case "--rows-per-rt" -> rowsPerRt = atLeast(name, value, SyntheticSheet.MIN_ROWS_PER_RT);
+                    case "--file-size" -> fileSizeMb = Double.parseDouble(value.replace(',', '.'));
+                    case "--coordinates" -> coordinateFormat =
+                            SyntheticSheet.CoordinateFormat.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--subfolders" -> subfolders = true;
+                    case "--threads" -> threads = positive(name, value);
+                    default -> throw new IllegalArgumentException("Неизвестный параметр: " + arg);
+                }
+            }
+            if (root == null) {
+                throw new IllegalArgumentException("Не указана папка --out");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if (fileSizeMb != null) {
+            rowsPerRt = rowsPerRtForSize(fileSizeMb, rtPerFile);
+        }
+
+        SyntheticProject project = new SyntheticProject(root, shkCount, fileTypes, rtPerFile, rowsPerRt,
+                coordinateFormat, subfolders);
+        System.out.printf(Locale.ROOT, "🏗️ %s: ШК %d × типов %d, РТ в файле %d, строк в блоке РТ %d, потоков %d%n",
+                root.toAbsolutePath(), shkCount, fileTypes.size(), rtPerFile, rowsPerRt, threads);
+
+        long start = System.nanoTime();
+        List<File> files = project.generate(threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double totalMb = files.stream().mapToLong(File::length).sum() / (1024.0 * 1024);
+        System.out.printf(Locale.ROOT, "✅ Создано файлов: %d, %.1f МБ за %.1f с (%.1f МБ/с)%n",
+                files.size(), totalMb, seconds, totalMb / seconds);
+    }
+
+    private static int positive(String name, String value) {
+        return atLeast(name, value, 1);
+    }
+
+    static int atLeast(String name, String value, int min) {
+        int number = Integer.parseInt(value);
+        if (number < min) {
+            throw new IllegalArgumentException(name + ": ожидается целое число не меньше " + min);
+        }
+        return number;
+    }
+}
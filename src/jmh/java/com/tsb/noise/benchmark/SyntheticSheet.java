@@ -0,0 +1,123 @@
+package com.tsb.noise.benchmark;
+
+import com.tsb.noise.model.FileType;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Генератор синтетического исходного файла УЗД с листом ЛИСТ2 заданного размера.
+ * Структура блока РТ повторяет реальные файлы: строка РТ с координатами и описанием,
+ * строки УЗД, ПДУ, превышения, звукоизоляции и уровней по источникам, пустой разделитель.
+ * Пишется потоково ({@link XlsxStreamWriter}): строки сразу уходят в zip, поэтому размер файла ограничен только диском.
+ */
+final class SyntheticSheet {
+
+    private static final String[] DAY_BLOCK_LABELS = {
+            "УЗД днём", "ПДУ", "превышение", "Требуемая звукоизоляция", "Звукоизоляция преградой"
+    };
+    private static final String[] NIGHT_BLOCK_LABELS = {
+            "УЗД ночью", "ПДУ", "превышение", "Требуемая звукоизоляция", "Звукоизоляция преградой"
+    };
+    private static final String SOURCE_LABEL = "Lф"; // Строки уровней по источникам заполняют блок до нужного размера
+    /**
+     * Наименьший блок РТ: строка наименования и строки показателей
+     */
+    static final int MIN_ROWS_PER_RT = DAY_BLOCK_LABELS.length + 1;
+
+    /**
+     * Запись координат РТ в столбце N. Все варианты разбираются RtDataProcessor.COORDINATES_PATTERN:
+     * высота - между вторым двоеточием и запятой (или концом строки)
+     */
+    enum CoordinateFormat {
+        /** "100.5:200.25:3.5, на высоте" - как в выгрузках по умолчанию */
+        DESCRIBED,
+        /** "100.5:200.25:3.5" - без описания */
+        PLAIN,
+        /** "X=100.5:Y=200.25:3.5 м, над поверхностью земли" - с подписями осей и единицами */
+        LABELED,
+        /** "100:200:-1.5, подвал" - целые координаты и отрицательная высота */
+        NEGATIVE,
+        /** Варианты по очереди для разных РТ */
+        MIXED;
+
+        String format(int rt) {
+            CoordinateFormat format = this == MIXED ? values()[rt % (values().length - 1)] : this;
+            double elevation = 1.5 + rt % 40;
+            return switch (format) {
+                case DESCRIBED -> "100.5:200.25:" + elevation + ", на высоте";
+                case PLAIN -> String.format(Locale.ROOT, "%.2f:%.2f:%s", 100.5 + rt, 200.25 + rt, elevation);
+                case LABELED -> String.format(Locale.ROOT, "X=%.1f:Y=%.1f:%s м, над поверхностью земли",
+                        100.5 + rt, 200.25 + rt, elevation);
+                case NEGATIVE -> (100 + rt) + ":" + (200 + rt) + ":-" + elevation + ", подвал";
+                case MIXED -> throw new IllegalStateException();
+            };
+        }
+    }
+
+    private SyntheticSheet() {
+    }
+
+    /**
+     * Размер листа в формате "строкиxРТ", например "10000x500"
+     */
+    static int[] parseSize(String size) {
+        String[] parts = size.split("x");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+
+    /**
+     * Записывает файл ОВ день с листами ЛИСТ1 и ЛИСТ2; строк в ЛИСТ2 - не меньше rowCount
+     */
+    static File write(File file, int rowCount, int rtCount) throws IOException {
+        return write(file, FileType.OV_DAY, rtCount, rowCount / rtCount, CoordinateFormat.DESCRIBED);
+    }
+
+    /**
+     * Записывает файл типа fileType: rtCount блоков РТ по rowsPerRt строк (вместе с разделителем)
+     */
+    static File write(File file, FileType fileType, int rtCount, int rowsPerRt,
+                      CoordinateFormat coordinateFormat) throws IOException {
+        int blockRows = Math.max(MIN_ROWS_PER_RT, rowsPerRt);
+        String[] blockLabels = fileType.name().endsWith("NIGHT") ? NIGHT_BLOCK_LABELS : DAY_BLOCK_LABELS;
+
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            writer.beginSheet("ЛИСТ1");
+            writer.beginSheet(fileType.getSheetName());
+
+            writer.beginRow();
+            writer.stringCell(0, "РТ");
+            writer.stringCell(1, "Наименование");
+
+            for (int rt = 1; rt <= rtCount; rt++) {
+                writer.beginRow(); // Пустой разделитель блоков
+
+                for (int line = 0; line < blockRows - 1; line++) {
+                    writer.beginRow();
+                    String label = line < blockLabels.length ? blockLabels[line] : SOURCE_LABEL;
+
+                    if (line == 0) {
+                        writer.stringCell(0, "РТ-" + rt);
+                    }
+                    writer.stringCell(1, label);
+
+                    for (int column = 2; column <= 12; column++) {
+                        if ((rt + column + line) % 11 == 0) continue; // Пропуски, как в реальных выгрузках
+                        double value = line == 2 ? (column + rt) % 9 - 4 : 30 + column * 1.5 + rt % 10;
+                        writer.numberCell(column, value);
+                    }
+
+                    if (line == 0) {
+                        writer.stringCell(13, coordinateFormat.format(rt));
+                        writer.stringCell(14, "жилой дом №" + rt);
+                    }
+                }
+            }
+        }
+        return file;
+    }
+}
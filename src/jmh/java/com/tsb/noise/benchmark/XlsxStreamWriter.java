@@ -0,0 +1,196 @@
+package com.tsb.noise.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Минимальная потоковая запись xlsx для генерации тестовых данных: листы, строки и ячейки
+ * пишутся сразу в zip без модели книги и временных файлов (в отличие от SXSSF).
+ * Строки - inline, как в SXSSF без общей таблицы строк; стили не используются.
+ * Листы и строки пишутся строго по порядку.
+ */
+final class XlsxStreamWriter implements Closeable {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final StringBuilder cellRef = new StringBuilder(8);
+
+    private boolean inSheet;
+    private boolean inRow;
+    private int rowNumber;
+
+    XlsxStreamWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Тестовые данные сильно повторяются: быстрое сжатие почти не уступает обычному по размеру
+        zip.setLevel(Deflater.BEST_SPEED);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Начинает новый лист; предыдущий лист завершается
+     */
+    void beginSheet(String name) throws IOException {
+        endSheet();
+        sheetNames.add(name);
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        inSheet = true;
+        rowNumber = 0;
+    }
+
+    /**
+     * Начинает следующую строку листа (строки нумеруются подряд с 1)
+     */
+    void beginRow() throws IOException {
+        endRow();
+        rowNumber++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowNumber));
+        writer.write("\">");
+        inRow = true;
+    }
+
+    /**
+     * Строковая ячейка текущей строки; столбцы пишутся по возрастанию (0 - A)
+     */
+    void stringCell(int column, String value) throws IOException {
+        writer.write("<c r=\"");
+        writeCellRef(column);
+        writer.write("\" t=\"inlineStr\"><is><t>");
+        writeEscaped(value);
+        writer.write("</t></is></c>");
+    }
+
+    void numberCell(int column, double value) throws IOException {
+        writer.write("<c r=\"");
+        writeCellRef(column);
+        writer.write("\"><v>");
+        long integral = (long) value;
+        writer.write(integral == value ? Long.toString(integral) : Double.toString(value));
+        writer.write("</v></c>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        endSheet();
+        writeEntry("xl/workbook.xml", workbookXml());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRelsXml());
+        writeEntry("xl/styles.xml", XML_HEADER + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+                + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"1\"><fill><patternFill patternType=\"none\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+                + "</styleSheet>");
+        writeEntry("_rels/.rels", XML_HEADER + "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        writeEntry("[Content_Types].xml", contentTypesXml());
+        writer.flush();
+        zip.close();
+    }
+
+    private void endRow() throws IOException {
+        if (inRow) {
+            writer.write("</row>");
+            inRow = false;
+        }
+    }
+
+    private void endSheet() throws IOException {
+        if (!inSheet) {
+            return;
+        }
+        endRow();
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        inSheet = false;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private String workbookXml() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+        for (int index = 0; index < sheetNames.size(); index++) {
+            xml.append("<sheet name=\"").append(escape(sheetNames.get(index))).append("\" sheetId=\"").append(index + 1)
+                    .append("\" r:id=\"rId").append(index + 1).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelsXml() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+        for (int index = 0; index < sheetNames.size(); index++) {
+            xml.append("<Relationship Id=\"rId").append(index + 1).append("\" Type=\"").append(REL_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(index + 1).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetNames.size() + 1).append("\" Type=\"").append(REL_NS)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+
+    private String contentTypesXml() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int index = 0; index < sheetNames.size(); index++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(index + 1)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private void writeCellRef(int column) throws IOException {
+        cellRef.setLength(0);
+        for (int index = column; index >= 0; index = index / 26 - 1) {
+            cellRef.insert(0, (char) ('A' + index % 26));
+        }
+        cellRef.append(rowNumber);
+        writer.append(cellRef);
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '"' -> writer.write("&quot;");
+                default -> writer.write(c);
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
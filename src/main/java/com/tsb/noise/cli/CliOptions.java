@@ -0,0 +1,168 @@
+package com.tsb.noise.cli;
+
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.ProcessingConfig;
+import com.tsb.noise.service.operations.core.BorderMode;
+import com.tsb.noise.service.operations.plan.RtHeaderLayout;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Аргументы консольного запуска
+ */
+@Getter
+final class CliOptions {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Использование: com.tsb.noise.cli.Main <папка проекта> [параметры]",
+            "  --types=TX_DAY,OV_NIGHT,...   типы файлов (по умолчанию все): "
+                    + String.join(", ", enumNames(FileType.values())),
+            "  --remove-sound-isolation      удалить строки 'Требуемая звукоизоляция'",
+            "  --move-barrier-isolation      переместить 'Звукоизоляция преградой'",
+            "  --correction=<дБ>             добавить строку поправки",
+            "  --rt-list                     создать перечень РТ",
+            "  --summary-table               создать сводную таблицу РТ",
+            "  --incremental                 обработать только изменившиеся файлы",
+            "  --record                      записать запуск в JFR (файл .jfr в папке проекта)",
+            "  --threads=<N>                 число файлов, обрабатываемых одновременно",
+            "  --rt-header=merged|center     оформление заголовков РТ",
+            "  --borders=cells|range         оформление сетки границ",
+            "  --report=<файл>               записать JSON-отчет в файл (по умолчанию - в stdout)",
+            "  --help                        эта справка",
+            "Коды завершения: 0 - успешно, 1 - есть ошибки обработки, 2 - неверные аргументы,",
+            "                 3 - файлы не найдены, 4 - критическая ошибка");
+
+    private String directory;
+    private final ProcessingConfig config = new ProcessingConfig();
+    private boolean incremental;
+    private boolean recordRun;
+    private Integer threads;
+    private String reportFile;
+    private boolean help;
+
+    private CliOptions() {
+    }
+
+    /**
+     * Разбирает аргументы
+     * @throws IllegalArgumentException с понятным пользователю сообщением
+     */
+    static CliOptions parse(String[] args) {
+        CliOptions options = new CliOptions();
+        options.config.setRtHeaderLayout(null);
+        options.config.setBorderMode(null);
+
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                if (options.directory != null) {
+                    throw new IllegalArgumentException("Папка проекта указана дважды: " + arg);
+                }
+                options.directory = arg;
+                continue;
+            }
+
+            int separator = arg.indexOf('=');
+            String name = separator >= 0 ? arg.substring(2, separator) : arg.substring(2);
+            String value = separator >= 0 ? arg.substring(separator + 1) : null;
+
+            switch (name) {
+                case "help" -> options.help = true;
+                case "types" -> options.config.setFileTypes(parseFileTypes(required(name, value)));
+                case "remove-sound-isolation" -> options.config.setRemoveSoundIsolation(true);
+                case "move-barrier-isolation" -> options.config.setMoveBarrierIsolation(true);
+                case "correction" -> {
+                    options.config.setApplyCorrection(true);
+                    options.config.setCorrectionValue(parseNumber(name, required(name, value)));
+                }
+                case "rt-list" -> options.config.setCreateRtList(true);
+                case "summary-table" -> options.config.setCreateSummaryTable(true);
+                case "incremental" -> options.incremental = true;
+                case "record" -> options.recordRun = true;
+                case "threads" -> options.threads = parseThreads(required(name, value));
+                case "rt-header" -> options.config.setRtHeaderLayout(switch (required(name, value)) {
+                    case "merged" -> RtHeaderLayout.MERGED_CELLS;
+                    case "center" -> RtHeaderLayout.CENTER_ACROSS_SELECTION;
+                    default -> throw new IllegalArgumentException("--rt-header: ожидается merged или center");
+                });
+                case "borders" -> options.config.setBorderMode(switch (required(name, value)) {
+                    case "cells" -> BorderMode.CELLS;
+                    case "range" -> BorderMode.RANGE_RULE;
+                    default -> throw new IllegalArgumentException("--borders: ожидается cells или range");
+                });
+                case "report" -> options.reportFile = required(name, value);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + arg);
+            }
+        }
+
+        if (options.help) {
+            return options;
+        }
+        if (options.directory == null) {
+            throw new IllegalArgumentException("Не указана папка проекта");
+        }
+        // Не заданные аргументами способы оформления берутся из системных свойств, как в интерфейсе
+        if (options.config.getRtHeaderLayout() == null) {
+            options.config.setRtHeaderLayout(RtHeaderLayout.configured());
+        }
+        if (options.config.getBorderMode() == null) {
+            options.config.setBorderMode(BorderMode.configured());
+        }
+        options.config.setStreamingOutput(ProcessingConfig.configuredStreamingOutput());
+        options.config.setOptimizeOutput(ProcessingConfig.configuredOptimizeOutput());
+        return options;
+    }
+
+    private static String required(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("--" + name + ": не указано значение");
+        }
+        return value.trim();
+    }
+
+    private static List<FileType> parseFileTypes(String value) {
+        if (value.equalsIgnoreCase("all")) {
+            return List.of(FileType.values());
+        }
+        List<FileType> fileTypes = new ArrayList<>();
+        for (String name : value.split(",")) {
+            try {
+                fileTypes.add(FileType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("--types: неизвестный тип файла " + name.trim());
+            }
+        }
+        return List.copyOf(fileTypes);
+    }
+
+    private static double parseNumber(String name, String value) {
+        try {
+            // Допускаем десятичную запятую, как в полях интерфейса
+            return Double.parseDouble(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + ": не число: " + value);
+        }
+    }
+
+    private static int parseThreads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads < 1) {
+                throw new NumberFormatException();
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--threads: ожидается целое число не меньше 1");
+        }
+    }
+
+    private static List<String> enumNames(Enum<?>[] values) {
+        List<String> names = new ArrayList<>();
+        for (Enum<?> value : values) {
+            names.add(value.name());
+        }
+        return names;
+    }
+}
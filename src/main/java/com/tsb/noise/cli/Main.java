@@ -0,0 +1,158 @@
+package com.tsb.noise.cli;
+
+import com.tsb.noise.service.BatchProcessingService;
+import com.tsb.noise.service.ProcessingResult;
+import com.tsb.noise.service.operations.export.RtListCreator;
+import com.tsb.noise.service.operations.export.SummaryTableCreator;
+import com.tsb.noise.service.utils.ExcelProcessor;
+import com.tsb.noise.service.utils.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Консольный запуск обработки папки проекта без интерфейса - для ночной пакетной обработки на сервере.
+ * Запускается на classpath, без модульного пути, поэтому модули JavaFX не загружаются:
+ * <pre>java -cp target/classes:&lt;зависимости&gt; com.tsb.noise.cli.Main &lt;папка&gt; --rt-list --summary-table</pre>
+ * Журнал пишется в stderr и logs/noise-cli.log, итоговый JSON-отчет - в stdout или в файл --report.
+ */
+public final class Main {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILURES = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_NO_FILES = 3;
+    static final int EXIT_FATAL = 4;
+
+    private static final String LOGBACK_CONFIG_PROPERTY = "logback.configurationFile";
+    private static final String CLI_LOGBACK_CONFIG = "logback-cli.xml";
+
+    private Main() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        // Настройка журнала до создания первого логгера: stdout остается только для отчета
+        if (System.getProperty(LOGBACK_CONFIG_PROPERTY) == null) {
+            System.setProperty(LOGBACK_CONFIG_PROPERTY, CLI_LOGBACK_CONFIG);
+        }
+
+        CliOptions options;
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.err.println(CliOptions.USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.isHelp()) {
+            System.out.println(CliOptions.USAGE);
+            return EXIT_OK;
+        }
+
+        Logger log = LoggerFactory.getLogger(Main.class);
+        long startNanos = System.nanoTime();
+
+        BatchProcessingService service = new BatchProcessingService(
+                new ExcelProcessor(), new RtListCreator(), new SummaryTableCreator());
+        service.setIncremental(options.isIncremental());
+        service.setRecordRun(options.isRecordRun());
+        if (options.getThreads() != null) {
+            service.setParallelism(options.getThreads());
+        }
+
+        ProcessingResult result;
+        try {
+            result = service.process(options.getDirectory(), options.getConfig(), new BatchProcessingService.Listener() {
+                @Override
+                public void info(String message) {
+                    log.info(message);
+                }
+
+                @Override
+                public void error(String message) {
+                    log.error(message);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            log.error("💥 Критическая ошибка при обработке {}: {}", options.getDirectory(), e.getMessage(), e);
+            writeReport(options, createErrorReport(options, e, startNanos), log);
+            return EXIT_FATAL;
+        }
+
+        int exitCode = exitCodeOf(result);
+        writeReport(options, createReport(options, result, exitCode, startNanos), log);
+        log.info("🏁 Консольная обработка завершена, код {}: {}", exitCode, result.getSummary());
+        return exitCode;
+    }
+
+    private static int exitCodeOf(ProcessingResult result) {
+        if (result.getTotalFiles() == 0) {
+            return EXIT_NO_FILES;
+        }
+        return result.isSuccess() ? EXIT_OK : EXIT_FAILURES;
+    }
+
+    private static String createReport(CliOptions options, ProcessingResult result, int exitCode, long startNanos) {
+        JsonWriter json = new JsonWriter().beginObject()
+                .name("directory").value(options.getDirectory())
+                .name("exitCode").value(exitCode)
+                .name("success").value(result.isSuccess())
+                .name("cancelled").value(result.isCancelled())
+                .name("totalFiles").value(result.getTotalFiles())
+                .name("processedFiles").value(result.getProcessedFiles())
+                .name("failedFiles").value(result.getFailedFiles())
+                .name("upToDateFiles").value(result.getUpToDateFiles());
+        if (options.getConfig().isCreateRtList()) {
+            json.name("rtListCreated").value(result.isRtListCreated());
+        }
+        if (options.getConfig().isCreateSummaryTable()) {
+            json.name("summaryTableCreated").value(result.isSummaryTableCreated());
+        }
+        json.name("durationMillis").value((System.nanoTime() - startNanos) / 1_000_000);
+
+        json.name("processed").beginArray();
+        if (result.getProcessedFileNames() != null) {
+            result.getProcessedFileNames().forEach(json::value);
+        }
+        json.endArray();
+
+        json.name("errors").beginArray();
+        if (result.getErrorMessages() != null) {
+            result.getErrorMessages().forEach(json::value);
+        }
+        return json.endArray().endObject().toString();
+    }
+
+    private static String createErrorReport(CliOptions options, Exception error, long startNanos) {
+        return new JsonWriter().beginObject()
+                .name("directory").value(options.getDirectory())
+                .name("exitCode").value(EXIT_FATAL)
+                .name("success").value(false)
+                .name("durationMillis").value((System.nanoTime() - startNanos) / 1_000_000)
+                .name("errors").beginArray().value(String.valueOf(error.getMessage())).endArray()
+                .endObject()
+                .toString();
+    }
+
+    private static void writeReport(CliOptions options, String report, Logger log) {
+        if (options.getReportFile() == null) {
+            PrintStream out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+            out.println(report);
+            return;
+        }
+        try {
+            Files.writeString(Path.of(options.getReportFile()), report + System.lineSeparator(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("⚠️ Не удалось записать отчет {}: {}", options.getReportFile(), e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.tsb.noise.controller;
 
 import com.tsb.noise.controller.core.BaseController;
 import com.tsb.noise.controller.core.ControllerCoordinator;
+import com.tsb.noise.controller.managers.LogEntry;
+import com.tsb.noise.controller.managers.LogLevel;
 import com.tsb.noise.model.FileType;
 import com.tsb.noise.service.utils.ExcelProcessor;
 import com.tsb.noise.service.utils.PreferencesService;
@@ -27,7 +29,9 @@ public class MainController extends BaseController {
     @FXML private Button startProcessButton;
     @FXML private Label processStatusLabel;
     @FXML private ProgressBar progressBar;
-    @FXML private TextArea logArea;
+    @FXML private ListView<LogEntry> logList;
+    @FXML private ComboBox<LogLevel> logLevelFilter;
+    @FXML private TextField logSearchField;
     @FXML private Label statusLabel;
     @FXML private VBox progressContainer;
     @FXML private Button openOutputButton;
@@ -46,6 +50,8 @@ public class MainController extends BaseController {
     @FXML private ToggleSwitch correctionToggle;
     @FXML private ToggleSwitch createRtListToggle;
     @FXML private ToggleSwitch createSummaryTableToggle;
+    @FXML private ToggleSwitch incrementalToggle;
+    @FXML private ToggleSwitch recordRunToggle;
     @FXML private TextField correctionValueField;
 
     // Кнопки управления выбором
@@ -125,11 +131,11 @@ public class MainController extends BaseController {
         this.coordinator = new ControllerCoordinator(
                 // UI Components
                 root, selectedPathLabel, selectPathButton, startProcessButton,
-                processStatusLabel, progressBar, logArea, statusLabel, progressContainer,
+                processStatusLabel, progressBar, logList, logLevelFilter, logSearchField, statusLabel, progressContainer,
                 openOutputButton, txDayToggle, txNightToggle, ovDayToggle, ovNightToggle,
                 posDayToggle, posNightToggle, removeSoundIsolationToggle,
                 moveBarrierIsolationToggle, correctionToggle, createRtListToggle,
-                createSummaryTableToggle, correctionValueField, selectAllButton, clearAllButton,
+                createSummaryTableToggle, incrementalToggle, recordRunToggle, correctionValueField, selectAllButton, clearAllButton,
                 // Services
                 preferencesService, excelProcessor, rtListCreator, summaryTableCreator,
                 // Callbacks
@@ -155,11 +161,20 @@ public class MainController extends BaseController {
         if (coordinator != null) {
             coordinator.clearLog();
         } else {
-            logArea.clear();
+            logList.getItems().clear();
             logInfo("🧹 Лог очищен");
         }
     }
 
+    @FXML
+    private void saveFullLog() {
+        if (coordinator != null) {
+            coordinator.saveFullLog();
+        } else {
+            showAlert("Ошибка", "Система не инициализирована");
+        }
+    }
+
     @FXML
     private void openOutputFolder() {
         if (coordinator != null) {
@@ -256,21 +271,30 @@ public class MainController extends BaseController {
      * Логирование информации
      */
     private void logInfo(String message) {
-        Platform.runLater(() -> {
-            String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss"));
-            logArea.appendText("[" + timestamp + "] " + message + "\n");
-            logArea.setScrollTop(Double.MAX_VALUE);
-        });
+        appendLog(LogLevel.INFO, message);
     }
 
     /**
      * Логирование ошибки
      */
     private void logError(String message) {
+        appendLog(LogLevel.ERROR, message);
+    }
+
+    /**
+     * До создания координатора строки копятся в списке лога и переносятся в LogManager при его создании
+     */
+    private void appendLog(LogLevel level, String message) {
+        LogEntry entry = LogEntry.of(level, message);
         Platform.runLater(() -> {
-            String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss"));
-            logArea.appendText("[" + timestamp + "] " + message + "\n");
-            logArea.setScrollTop(Double.MAX_VALUE);
+            if (coordinator == null) {
+                logList.getItems().add(entry);
+                log.info(message);
+            } else if (level == LogLevel.ERROR) {
+                coordinator.logError(message);
+            } else {
+                coordinator.logInfo(message);
+            }
         });
     }
 
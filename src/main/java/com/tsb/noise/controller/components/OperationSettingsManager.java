@@ -3,6 +3,8 @@ package com.tsb.noise.controller.components;
 import javafx.scene.control.TextField;
 import org.controlsfx.control.ToggleSwitch;
 
+import java.util.function.Consumer;
+
 /**
  * Управляет настройками операций обработки
  */
@@ -13,6 +15,8 @@ public class OperationSettingsManager {
     private final ToggleSwitch correctionToggle;
     private final ToggleSwitch createRtListToggle;
     private final ToggleSwitch createSummaryTableToggle;
+    private final ToggleSwitch incrementalToggle;
+    private final ToggleSwitch recordRunToggle;
     private final TextField correctionValueField;
 
     public OperationSettingsManager(
@@ -21,6 +25,8 @@ public class OperationSettingsManager {
             ToggleSwitch correctionToggle,
             ToggleSwitch createRtListToggle,
             ToggleSwitch createSummaryTableToggle,
+            ToggleSwitch incrementalToggle,
+            ToggleSwitch recordRunToggle,
             TextField correctionValueField) {
 
         this.removeSoundIsolationToggle = removeSoundIsolationToggle;
@@ -28,6 +34,8 @@ public class OperationSettingsManager {
         this.correctionToggle = correctionToggle;
         this.createRtListToggle = createRtListToggle;
         this.createSummaryTableToggle = createSummaryTableToggle;
+        this.incrementalToggle = incrementalToggle;
+        this.recordRunToggle = recordRunToggle;
         this.correctionValueField = correctionValueField;
 
         setupOperationToggles();
@@ -55,6 +63,12 @@ public class OperationSettingsManager {
         // Настройка ToggleSwitch для создания сводной таблицы
         createSummaryTableToggle.setText("📊 Создать сводную таблицу РТ");
 
+        // Настройка ToggleSwitch для инкрементальной обработки
+        incrementalToggle.setText("⏩ Обрабатывать только измененные файлы");
+
+        // Настройка ToggleSwitch для записи JFR
+        recordRunToggle.setText("🎥 Записать запуск для диагностики (JFR)");
+
         // Валидация числового значения поправки
         correctionValueField.textProperty().addListener((obs, oldVal, newVal) -> {
             if (!newVal.matches("-?\\d*([\\.,]\\d*)?")) {
@@ -85,6 +99,30 @@ public class OperationSettingsManager {
         return createSummaryTableToggle.isSelected();
     }
 
+    public boolean isIncrementalEnabled() {
+        return incrementalToggle.isSelected();
+    }
+
+    /**
+     * Передает текущее и последующие значения переключателя инкрементальной обработки
+     */
+    public void bindIncremental(Consumer<Boolean> incrementalConsumer) {
+        incrementalConsumer.accept(isIncrementalEnabled());
+        incrementalToggle.selectedProperty().addListener((obs, oldVal, newVal) -> incrementalConsumer.accept(newVal));
+    }
+
+    public boolean isRecordRunEnabled() {
+        return recordRunToggle.isSelected();
+    }
+
+    /**
+     * Передает текущее и последующие значения переключателя записи JFR
+     */
+    public void bindRecordRun(Consumer<Boolean> recordRunConsumer) {
+        recordRunConsumer.accept(isRecordRunEnabled());
+        recordRunToggle.selectedProperty().addListener((obs, oldVal, newVal) -> recordRunConsumer.accept(newVal));
+    }
+
     public Double getCorrectionValue() {
         if (!isCorrectionEnabled()) {
             return null;
@@ -7,23 +7,44 @@ import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.VBox;
 
 /**
- * Управление прогресс-баром и статусом выполнения задач
+ * Управление прогресс-баром и статусом выполнения задач.
+ * Обновления из фоновых потоков выводятся через {@link UiEventBus} - не чаще раза за кадр
  */
 public class ProgressManager {
     private final ProgressBar progressBar;
     private final Label statusLabel;
     private final VBox progressContainer;
+    private final UiEventBus eventBus;
 
-    public ProgressManager(ProgressBar progressBar, Label statusLabel, VBox progressContainer) {
+    public ProgressManager(ProgressBar progressBar, Label statusLabel, VBox progressContainer,
+                           UiEventBus eventBus) {
         this.progressBar = progressBar;
         this.statusLabel = statusLabel;
         this.progressContainer = progressContainer;
+        this.eventBus = eventBus;
+
+        eventBus.setProgressMessageSink(message -> {
+            if (!statusLabel.textProperty().isBound()) {
+                statusLabel.setText(message);
+            }
+        });
+        eventBus.setProgressValueSink(value -> {
+            if (!progressBar.progressProperty().isBound()) {
+                progressBar.setProgress(value);
+            }
+        });
         hideProgress();
     }
 
+    /**
+     * Готовит индикатор к новой задаче. Задача сообщает прогресс через
+     * {@link #updateProgressMessage} и {@link #updateProgressValue}, поэтому свойства не привязываются
+     */
     public void setupTaskHandlers(Task<Void> task) {
-        progressBar.progressProperty().bind(task.progressProperty());
-        statusLabel.textProperty().bind(task.messageProperty());
+        eventBus.discardProgress();
+        progressBar.progressProperty().unbind();
+        statusLabel.textProperty().unbind();
+        progressBar.setProgress(0);
     }
 
     public void showProgress() {
@@ -35,6 +56,7 @@ public class ProgressManager {
     }
 
     public void hideProgress() {
+        eventBus.discardProgress();
         Platform.runLater(() -> {
             progressContainer.setVisible(false);
             progressBar.setVisible(false);
@@ -45,18 +67,14 @@ public class ProgressManager {
     }
 
     public void updateProgressMessage(String message) {
-        Platform.runLater(() -> {
-            if (statusLabel != null) {
-                statusLabel.setText(message);
-            }
-        });
+        if (message != null) {
+            eventBus.postProgressMessage(message);
+        }
     }
 
     public void updateProgressValue(Double progress) {
-        Platform.runLater(() -> {
-            if (progressBar != null) {
-                progressBar.setProgress(progress / 100.0);
-            }
-        });
+        if (progress != null) {
+            eventBus.postProgressValue(progress / 100.0);
+        }
     }
 }
\ No newline at end of file
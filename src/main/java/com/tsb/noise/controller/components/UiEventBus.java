@@ -0,0 +1,128 @@
+package com.tsb.noise.controller.components;
+
+import com.tsb.noise.controller.managers.LogEntry;
+import com.tsb.noise.controller.managers.LogLevel;
+import javafx.animation.AnimationTimer;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Очередь обновлений интерфейса от фоновых потоков.
+ * Строки лога и прогресс копятся без блокировок и выводятся не чаще одного раза за кадр:
+ * все накопленные строки - одной пачкой, от прогресса - только последние значения.
+ * Создается и подключается к элементам в потоке JavaFX, публиковать события можно из любого потока.
+ */
+public final class UiEventBus {
+
+    /** Маркер очистки лога в очереди строк (сравнивается по ссылке) */
+    private static final LogEntry CLEAR_LOG = new LogEntry("", LogLevel.INFO, "");
+    private static final long NO_PROGRESS_VALUE = Double.doubleToRawLongBits(Double.NaN);
+    /** Предел строк за кадр, чтобы непрерывный поток сообщений не задерживал отрисовку */
+    private static final int MAX_LOG_LINES_PER_FRAME = 5_000;
+
+    private final ConcurrentLinkedQueue<LogEntry> logLines = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<String> progressMessage = new AtomicReference<>();
+    private final AtomicLong progressValueBits = new AtomicLong(NO_PROGRESS_VALUE);
+    private final AnimationTimer flushTimer;
+
+    @Setter
+    private Consumer<List<LogEntry>> logAppender = entries -> { };
+    @Setter
+    private Runnable logCleaner = () -> { };
+    @Setter
+    private Consumer<String> progressMessageSink = message -> { };
+    @Setter
+    private DoubleConsumer progressValueSink = value -> { };
+
+    public UiEventBus() {
+        this.flushTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+        flushTimer.start();
+    }
+
+    public void postLogEntry(LogEntry entry) {
+        logLines.add(entry);
+    }
+
+    /**
+     * Очищает лог: строки, опубликованные до очистки, не выводятся
+     */
+    public void postLogClear() {
+        logLines.add(CLEAR_LOG);
+    }
+
+    /**
+     * Сообщение прогресса - при частых обновлениях выводится только последнее
+     */
+    public void postProgressMessage(String message) {
+        progressMessage.set(message);
+    }
+
+    /**
+     * Доля выполнения 0..1 - при частых обновлениях выводится только последняя
+     */
+    public void postProgressValue(double value) {
+        progressValueBits.set(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Отбрасывает еще не выведенный прогресс (например, при скрытии индикатора)
+     */
+    public void discardProgress() {
+        progressMessage.set(null);
+        progressValueBits.set(NO_PROGRESS_VALUE);
+    }
+
+    public void stop() {
+        flushTimer.stop();
+    }
+
+    private void flush() {
+        flushLog();
+
+        String message = progressMessage.getAndSet(null);
+        if (message != null) {
+            progressMessageSink.accept(message);
+        }
+        long valueBits = progressValueBits.getAndSet(NO_PROGRESS_VALUE);
+        if (valueBits != NO_PROGRESS_VALUE) {
+            progressValueSink.accept(Double.longBitsToDouble(valueBits));
+        }
+    }
+
+    private void flushLog() {
+        if (logLines.isEmpty()) {
+            return;
+        }
+
+        List<LogEntry> batch = new ArrayList<>();
+        boolean cleared = false;
+        LogEntry entry;
+        for (int i = 0; i < MAX_LOG_LINES_PER_FRAME && (entry = logLines.poll()) != null; i++) {
+            if (entry == CLEAR_LOG) {
+                batch.clear();
+                cleared = true;
+            } else {
+                batch.add(entry);
+            }
+        }
+
+        if (cleared) {
+            logCleaner.run();
+        }
+        if (!batch.isEmpty()) {
+            logAppender.accept(batch);
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.tsb.noise.controller.core;
 import com.tsb.noise.controller.components.FileTypeSelectionManager;
 import com.tsb.noise.controller.components.OperationSettingsManager;
 import com.tsb.noise.controller.components.ProgressManager;
+import com.tsb.noise.controller.components.UiEventBus;
 import com.tsb.noise.controller.handlers.AlertHandler;
 import com.tsb.noise.controller.handlers.DirectorySelectionHandler;
+import com.tsb.noise.controller.handlers.LogExportHandler;
 import com.tsb.noise.controller.handlers.TaskBasedProcessingHandler;
+import com.tsb.noise.controller.managers.LogEntry;
+import com.tsb.noise.controller.managers.LogLevel;
 import com.tsb.noise.controller.managers.LogManager;
 import com.tsb.noise.controller.managers.StatusManager;
 import com.tsb.noise.controller.views.FolderNavigationView;
@@ -30,6 +34,7 @@ public class ControllerCoordinator {
     private final FileTypeSelectionManager fileTypeManager;
     private final OperationSettingsManager operationManager;
     private final DirectorySelectionHandler directoryHandler;
+    private final LogExportHandler logExportHandler;
     private final TaskBasedProcessingHandler processingHandler;
     private final StatusManager statusManager;
     private final LogManager logManager;
@@ -42,12 +47,13 @@ public class ControllerCoordinator {
             // UI Components
             HBox root, Label selectedPathLabel, Button selectPathButton,
             Button startProcessButton, Label processStatusLabel, ProgressBar progressBar,
-            TextArea logArea, Label statusLabel, VBox progressContainer, Button openOutputButton,
+            ListView<LogEntry> logList, ComboBox<LogLevel> logLevelFilter, TextField logSearchField,
+            Label statusLabel, VBox progressContainer, Button openOutputButton,
             ToggleSwitch txDayToggle, ToggleSwitch txNightToggle, ToggleSwitch ovDayToggle,
             ToggleSwitch ovNightToggle, ToggleSwitch posDayToggle, ToggleSwitch posNightToggle,
             ToggleSwitch removeSoundIsolationToggle, ToggleSwitch moveBarrierIsolationToggle,
             ToggleSwitch correctionToggle, ToggleSwitch createRtListToggle, ToggleSwitch createSummaryTableToggle,
-            TextField correctionValueField,
+            ToggleSwitch incrementalToggle, ToggleSwitch recordRunToggle, TextField correctionValueField,
             Button selectAllButton, Button clearAllButton,
             // Services
             PreferencesService preferencesService, ExcelProcessor excelProcessor,
@@ -57,9 +63,10 @@ public class ControllerCoordinator {
 
         // Initialize services
         this.alertHandler = new AlertHandler();
-        this.logManager = new LogManager(logArea);
+        UiEventBus uiEventBus = new UiEventBus();
+        this.logManager = new LogManager(logList, logLevelFilter, logSearchField, uiEventBus);
         this.statusManager = new StatusManager(statusLabel, processStatusLabel);
-        this.progressManager = new ProgressManager(progressBar, statusLabel, progressContainer);
+        this.progressManager = new ProgressManager(progressBar, statusLabel, progressContainer, uiEventBus);
 
         // Initialize component managers
         this.fileTypeManager = initializeFileTypeManager(txDayToggle, txNightToggle, ovDayToggle,
@@ -67,13 +74,17 @@ public class ControllerCoordinator {
 
         this.operationManager = new OperationSettingsManager(removeSoundIsolationToggle,
                 moveBarrierIsolationToggle, correctionToggle, createRtListToggle,
-                createSummaryTableToggle, correctionValueField);
+                createSummaryTableToggle, incrementalToggle, recordRunToggle, correctionValueField);
 
         this.processingHandler = new TaskBasedProcessingHandler(excelProcessor, rtListCreator,
                 summaryTableCreator, logManager::logInfo, logManager::logError);
+        operationManager.bindIncremental(processingHandler::setIncremental);
+        operationManager.bindRecordRun(processingHandler::setRecordRun);
 
         this.directoryHandler = new DirectorySelectionHandler(preferencesService,
                 root.getScene().getWindow(), selectedPathLabel, logManager::logInfo, updateUIStateCallback);
+        this.logExportHandler = new LogExportHandler(root.getScene().getWindow(),
+                logManager::logInfo, logManager::logError);
 
         // Initialize views
         this.folderNavigationView = new FolderNavigationView(alertHandler, logManager, openFolderCallback);
@@ -132,7 +143,8 @@ public class ControllerCoordinator {
                 operationManager.isCreateRtListEnabled() ||
                 operationManager.isCreateSummaryTableEnabled();
 
-        statusManager.updateStatus(directoryPath,
+        // Каталог строится при выборе папки: переключение типов и операций папку не обходит
+        statusManager.updateStatus(directoryPath, directoryHandler.getCurrentCatalog(),
                 fileTypeManager.hasSelectedFileTypes(), selectedTypes, hasOperations);
 
         folderNavigationView.setCurrentPath(directoryPath);
@@ -163,6 +175,18 @@ public class ControllerCoordinator {
         logManager.clearLog();
     }
 
+    public void saveFullLog() {
+        logExportHandler.saveFullLog();
+    }
+
+    public void logInfo(String message) {
+        logManager.logInfo(message);
+    }
+
+    public void logError(String message) {
+        logManager.logError(message);
+    }
+
     public void handleException(String operation, Exception e) {
         if (logManager != null) {
             logManager.logError("❌ Ошибка при " + operation + ": " + e.getMessage());
@@ -1,6 +1,7 @@
 package com.tsb.noise.controller.handlers;
 
-import com.tsb.noise.service.utils.FileUtils;
+import com.tsb.noise.service.catalog.CatalogEntry;
+import com.tsb.noise.service.catalog.FileCatalog;
 import com.tsb.noise.service.utils.PreferencesService;
 import javafx.application.Platform;
 import javafx.scene.control.Label;
@@ -24,6 +25,12 @@ public class DirectorySelectionHandler {
 
     private String currentSelectedPath;
 
+    /**
+     * Каталог выбранной папки: строится один раз при каждом выборе папки (и при повторном выборе той же),
+     * используется для списка найденных файлов и счетчика в статусе; null - папку не удалось обойти
+     */
+    private FileCatalog currentCatalog;
+
     public DirectorySelectionHandler(
             PreferencesService preferencesService,
             Window parentWindow,
@@ -52,9 +59,9 @@ public class DirectorySelectionHandler {
 
             File selectedDirectory = directoryChooser.showDialog(parentWindow);
             if (selectedDirectory != null) {
+                logInfoCallback.accept("✅ Выбрана папка: " + selectedDirectory.getAbsolutePath());
                 setCurrentPath(selectedDirectory.getAbsolutePath());
                 preferencesService.saveLastSelectedPath(currentSelectedPath);
-                logInfoCallback.accept("✅ Выбрана папка: " + currentSelectedPath);
 
                 logFoundFilesInfo();
             }
@@ -77,27 +84,39 @@ public class DirectorySelectionHandler {
 
     private void setCurrentPath(String path) {
         currentSelectedPath = path;
+        currentCatalog = scanCatalog(path);
         Platform.runLater(() -> {
             pathLabel.setText(currentSelectedPath);
             updateStatusCallback.run();
         });
     }
 
-    private void logFoundFilesInfo() {
+    private FileCatalog scanCatalog(String path) {
         try {
-            List<File> allFiles = FileUtils.findTargetExcelFiles(currentSelectedPath);
-
-            if (!allFiles.isEmpty()) {
-                logInfoCallback.accept("📊 Найдено файлов:");
-                allFiles.forEach(file -> {
-                    String fileType = FileUtils.getFileTypeDisplayName(file.getName());
-                    logInfoCallback.accept("   • " + fileType + ": " + file.getName());
-                });
-            } else {
-                logInfoCallback.accept("⚠️ Файлы для обработки не найдены");
-            }
+            return FileCatalog.scan(path);
         } catch (Exception e) {
             logInfoCallback.accept("⚠️ Ошибка при поиске файлов: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void logFoundFilesInfo() {
+        FileCatalog catalog = currentCatalog;
+        if (catalog == null) {
+            return;
+        }
+
+        List<CatalogEntry> entries = catalog.findSupported();
+        if (!entries.isEmpty()) {
+            logInfoCallback.accept("📊 Найдено файлов:");
+            entries.forEach(entry ->
+                    logInfoCallback.accept("   • " + entry.getFileType().getDisplayName() + ": " + entry.getFileName()));
+        } else {
+            logInfoCallback.accept("⚠️ Файлы для обработки не найдены");
+        }
+
+        if (!catalog.getSkipped().isEmpty()) {
+            logInfoCallback.accept("⏭️ Пропущено: " + catalog.describeSkipped());
         }
     }
 
@@ -105,6 +124,10 @@ public class DirectorySelectionHandler {
         return currentSelectedPath;
     }
 
+    public FileCatalog getCurrentCatalog() {
+        return currentCatalog;
+    }
+
     public boolean hasValidPath() {
         return currentSelectedPath != null && !currentSelectedPath.isEmpty();
     }
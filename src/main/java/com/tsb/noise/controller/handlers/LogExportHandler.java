@@ -0,0 +1,111 @@
+package com.tsb.noise.controller.handlers;
+
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Сохранение полного лога сессии.
+ * В окне лога хранятся только последние строки, поэтому полный лог копируется потоком
+ * из файла журнала приложения (logback), не загружаясь в память.
+ * Журнал делится на части при смене дня и по размеру: части, закрытые за время сессии,
+ * записываются перед текущим файлом. Первая из них может начинаться строками предыдущих сессий того же дня
+ */
+public class LogExportHandler {
+
+    /** Файл журнала приложения - LOG_FILE в logback.xml (системное свойство noise.log.file) */
+    private static final String LOG_FILE = System.getProperty("noise.log.file", "logs/noise-app.log");
+
+    /** Начало сессии: части журнала, закрытые раньше, к сессии не относятся */
+    private static final long SESSION_START_MILLIS = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private final Window parentWindow;
+    private final Consumer<String> logInfoCallback;
+    private final Consumer<String> logErrorCallback;
+
+    public LogExportHandler(Window parentWindow, Consumer<String> logInfoCallback,
+                            Consumer<String> logErrorCallback) {
+        this.parentWindow = parentWindow;
+        this.logInfoCallback = logInfoCallback;
+        this.logErrorCallback = logErrorCallback;
+    }
+
+    public void saveFullLog() {
+        Path source = Path.of(LOG_FILE).toAbsolutePath();
+        if (!Files.isRegularFile(source)) {
+            logErrorCallback.accept("❌ Файл журнала не найден: " + source);
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Сохранить полный лог");
+        fileChooser.setInitialFileName("noise-log-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm")) + ".log");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Файлы журнала", "*.log", "*.txt"));
+
+        File target = fileChooser.showSaveDialog(parentWindow);
+        if (target == null) {
+            return;
+        }
+
+        Thread exportThread = new Thread(() -> copyLog(source, target.toPath()), "log-export");
+        exportThread.setDaemon(true);
+        exportThread.start();
+    }
+
+    private void copyLog(Path source, Path target) {
+        try {
+            List<Path> parts = sessionParts(source);
+            try (OutputStream out = Files.newOutputStream(target)) {
+                for (Path part : parts) {
+                    Files.copy(part, out);
+                }
+                Files.copy(source, out);
+            }
+            logInfoCallback.accept("💾 Полный лог сохранен: " + target
+                    + " (" + Files.size(target) / 1024 + " КБ"
+                    + (parts.isEmpty() ? "" : ", частей журнала: " + (parts.size() + 1)) + ")");
+        } catch (IOException e) {
+            logErrorCallback.accept("❌ Не удалось сохранить лог: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Части журнала (&lt;файл журнала&gt;.&lt;дата&gt;.&lt;номер&gt;.log), закрытые за время сессии, в порядке записи
+     */
+    private static List<Path> sessionParts(Path source) throws IOException {
+        Path directory = source.getParent();
+        String prefix = source.getFileName() + ".";
+        List<Path> parts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*.log")) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toMillis() >= SESSION_START_MILLIS) {
+                    parts.add(file);
+                }
+            }
+        }
+        parts.sort(Comparator.comparing(LogExportHandler::lastModifiedMillis));
+        return parts;
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
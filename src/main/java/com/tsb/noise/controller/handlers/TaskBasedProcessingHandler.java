@@ -1,14 +1,14 @@
 package com.tsb.noise.controller.handlers;
 
+import com.tsb.noise.service.BatchProcessingService;
+import com.tsb.noise.service.ProcessingConfig;
 import com.tsb.noise.service.utils.ExcelProcessor;
-import com.tsb.noise.service.utils.FileUtils;
 import com.tsb.noise.service.operations.export.RtListCreator;
 import com.tsb.noise.service.operations.export.SummaryTableCreator;
 import com.tsb.noise.model.FileType;
 import javafx.concurrent.Task;
 import lombok.Setter;
 
-import java.io.File;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -18,9 +18,7 @@ import java.util.function.Consumer;
  */
 public class TaskBasedProcessingHandler {
 
-    private final ExcelProcessor excelProcessor;
-    private final RtListCreator rtListCreator;
-    private final SummaryTableCreator summaryTableCreator;
+    private final BatchProcessingService batchService;
     private final Consumer<String> logInfoCallback;
     private final Consumer<String> logErrorCallback;
 
@@ -34,13 +32,32 @@ public class TaskBasedProcessingHandler {
             Consumer<String> logInfoCallback,
             Consumer<String> logErrorCallback) {
 
-        this.excelProcessor = excelProcessor;
-        this.rtListCreator = rtListCreator;
-        this.summaryTableCreator = summaryTableCreator;
+        this.batchService = new BatchProcessingService(excelProcessor, rtListCreator, summaryTableCreator);
         this.logInfoCallback = logInfoCallback;
         this.logErrorCallback = logErrorCallback;
     }
 
+    /**
+     * Число файлов, обрабатываемых одновременно (1 - последовательно)
+     */
+    public void setParallelism(int parallelism) {
+        batchService.setParallelism(parallelism);
+    }
+
+    /**
+     * Инкрементальный режим: обрабатываются только файлы, изменившиеся с прошлого запуска
+     */
+    public void setIncremental(boolean incremental) {
+        batchService.setIncremental(incremental);
+    }
+
+    /**
+     * Запись запуска в Java Flight Recorder (файл .jfr в папке проекта)
+     */
+    public void setRecordRun(boolean recordRun) {
+        batchService.setRecordRun(recordRun);
+    }
+
     /**
      * Создает задачу обработки файлов
      */
@@ -55,177 +72,44 @@ public class TaskBasedProcessingHandler {
             Consumer<String> progressMessageConsumer,
             Consumer<Double> progressValueConsumer) {
 
+        ProcessingConfig config = ProcessingConfig.of(selectedFileTypes, removeSoundIsolation,
+                moveBarrierIsolation, correctionValue, createRtList, createSummaryTable);
+
         return new Task<Void>() {
             @Override
             protected Void call() throws Exception {
-                progressMessageConsumer.accept("Поиск файлов...");
-                progressValueConsumer.accept(0.0);
-
-                try {
-                    List<File> targetFiles = findTargetFiles(directoryPath, selectedFileTypes);
-
-                    if (targetFiles.isEmpty()) {
-                        progressMessageConsumer.accept("❌ Файлы не найдены");
-                        return null;
+                Task<Void> task = this;
+                batchService.process(directoryPath, config, new BatchProcessingService.Listener() {
+                    @Override
+                    public void info(String message) {
+                        logInfoCallback.accept(message);
                     }
 
-                    logInfoCallback.accept("📊 Начинается обработка выбранных файлов:");
-                    targetFiles.forEach(file -> {
-                        String fileType = FileUtils.getFileTypeDisplayName(file.getName());
-                        logInfoCallback.accept("   • " + fileType + ": " + file.getName());
-                    });
-
-                    progressMessageConsumer.accept("Найдено файлов: " + targetFiles.size());
-                    progressValueConsumer.accept(10.0);
-
-                    // Логируем включенные операции
-                    logEnabledOperations(removeSoundIsolation, moveBarrierIsolation,
-                            correctionValue, createRtList, createSummaryTable);
-
-                    processFiles(targetFiles, removeSoundIsolation, moveBarrierIsolation,
-                            correctionValue, progressMessageConsumer, progressValueConsumer);
-
-                    // Создание перечня РТ
-                    if (createRtList && !isCancelled()) {
-                        progressMessageConsumer.accept("Создание перечня расчетных точек...");
-                        progressValueConsumer.accept(90.0);
-                        createRtListTable(directoryPath);
+                    @Override
+                    public void error(String message) {
+                        logErrorCallback.accept(message);
                     }
 
-                    // Создание сводной таблицы
-                    if (createSummaryTable && !isCancelled()) {
-                        progressMessageConsumer.accept("Создание сводной таблицы РТ...");
-                        progressValueConsumer.accept(95.0);
-                        createSummaryTable(directoryPath);
+                    @Override
+                    public void progressMessage(String message) {
+                        progressMessageConsumer.accept(message);
                     }
 
-                    if (!isCancelled()) {
-                        progressMessageConsumer.accept("✅ Обработка завершена");
-                        progressValueConsumer.accept(100.0);
+                    @Override
+                    public void progressValue(double percent) {
+                        progressValueConsumer.accept(percent);
                     }
 
-                } catch (Exception e) {
-                    logErrorCallback.accept("💥 Критическая ошибка при обработке: " + e.getMessage());
-                    throw e;
-                }
-
+                    @Override
+                    public boolean isCancelled() {
+                        return task.isCancelled();
+                    }
+                });
                 return null;
             }
         };
     }
 
-    /**
-     * Логирует включенные операции
-     */
-    private void logEnabledOperations(boolean removeSoundIsolation, boolean moveBarrierIsolation,
-                                      Double correctionValue, boolean createRtList,
-                                      boolean createSummaryTable) {
-        if (removeSoundIsolation) {
-            logInfoCallback.accept("🗑️ Режим удаления строк 'Требуемая звукоизоляция' активирован");
-        }
-        if (moveBarrierIsolation) {
-            logInfoCallback.accept("🔄 Режим перемещения 'Звукоизоляция преградой' активирован");
-        }
-        if (correctionValue != null) {
-            logInfoCallback.accept("📈 Режим поправки активирован: " + correctionValue);
-        }
-        if (createRtList) {
-            logInfoCallback.accept("📋 Режим создания перечня РТ активирован");
-        }
-        if (createSummaryTable) {
-            logInfoCallback.accept("📊 Режим создания сводной таблицы РТ активирован");
-        }
-    }
-
-    /**
-     * Находит файлы для обработки
-     */
-    private List<File> findTargetFiles(String directoryPath, List<FileType> selectedFileTypes) throws Exception {
-        List<File> allFiles = FileUtils.findTargetExcelFiles(directoryPath);
-        return allFiles.stream()
-                .filter(file -> {
-                    FileType fileType = FileType.fromFileName(file.getName());
-                    return fileType != null && selectedFileTypes.contains(fileType);
-                })
-                .toList();
-    }
-
-    /**
-     * Обрабатывает файлы
-     */
-    private void processFiles(List<File> targetFiles,
-                              boolean removeSoundIsolation,
-                              boolean moveBarrierIsolation,
-                              Double correctionValue,
-                              Consumer<String> progressMessageConsumer,
-                              Consumer<Double> progressValueConsumer) {
-
-        int processed = 0;
-        int totalFiles = targetFiles.size();
-        int successful = 0;
-
-        for (File inputFile : targetFiles) {
-            // Проверяем отмену задачи через currentTask
-            if (currentTask != null && currentTask.isCancelled()) break;
-
-            String fileType = FileUtils.getFileTypeDisplayName(inputFile.getName());
-            progressMessageConsumer.accept("Обработка " + (processed + 1) + "/" + totalFiles + ": " + fileType);
-
-            String outputFileName = FileUtils.generateOutputFileName(inputFile.getName());
-            File outputFile = new File(inputFile.getParent(), outputFileName);
-
-            boolean success = excelProcessor.processExcelFile(
-                    inputFile, outputFile,
-                    removeSoundIsolation, moveBarrierIsolation, correctionValue);
-
-            if (success) {
-                successful++;
-                logInfoCallback.accept("✅ Успешно: " + fileType + " → " + outputFile.getName());
-            } else {
-                logErrorCallback.accept("❌ Ошибка: " + fileType + " → " + inputFile.getName());
-            }
-
-            processed++;
-            double progress = 10 + (processed * 80.0 / totalFiles);
-            progressValueConsumer.accept(progress);
-
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                // Проверяем отмену при прерывании
-                if (currentTask != null && currentTask.isCancelled()) break;
-                Thread.currentThread().interrupt();
-            }
-        }
-
-        String resultMessage = String.format("🎉 Обработка завершена! Успешно: %d, Ошибок: %d", successful, totalFiles - successful);
-        logInfoCallback.accept(resultMessage);
-    }
-
-    /**
-     * Создает перечень расчетных точек
-     */
-    private void createRtListTable(String directoryPath) {
-        boolean rtListCreated = rtListCreator.createRtListTable(directoryPath, true);
-        if (rtListCreated) {
-            logInfoCallback.accept("✅ Успешно создан перечень расчетных точек");
-        } else {
-            logInfoCallback.accept("⚠️ Не удалось создать перечень расчетных точек");
-        }
-    }
-
-    /**
-     * Создает сводную таблицу РТ
-     */
-    private void createSummaryTable(String directoryPath) {
-        boolean summaryTableCreated = summaryTableCreator.createSummaryTable(directoryPath, true);
-        if (summaryTableCreated) {
-            logInfoCallback.accept("✅ Успешно создана сводная таблица РТ");
-        } else {
-            logInfoCallback.accept("⚠️ Не удалось создать сводную таблицу РТ");
-        }
-    }
-
     public void cancelCurrentTask() {
         if (currentTask != null && currentTask.isRunning()) {
             currentTask.cancel();
@@ -235,4 +119,4 @@ public class TaskBasedProcessingHandler {
     public boolean isProcessing() {
         return currentTask != null && currentTask.isRunning();
     }
-}
\ No newline at end of file
+}
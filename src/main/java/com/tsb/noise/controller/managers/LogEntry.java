@@ -0,0 +1,29 @@
+package com.tsb.noise.controller.managers;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Строка лога операций. Время фиксируется в момент события, а не вывода
+ */
+public record LogEntry(String time, LogLevel level, String message) {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    public static LogEntry of(LogLevel level, String message) {
+        return new LogEntry(LocalDateTime.now().format(TIME_FORMATTER), level, message);
+    }
+
+    /**
+     * Поиск без учета регистра; запрос уже приведен к нижнему регистру
+     */
+    public boolean contains(String lowerCaseQuery) {
+        return message.toLowerCase(Locale.ROOT).contains(lowerCaseQuery);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + time + "] " + level.name() + ": " + message;
+    }
+}
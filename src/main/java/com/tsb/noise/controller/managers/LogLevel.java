@@ -0,0 +1,27 @@
+package com.tsb.noise.controller.managers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Уровень сообщения лога операций. Порядок констант - по возрастанию важности
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LogLevel {
+    INFO("Все сообщения"),
+    WARNING("Предупреждения и ошибки"),
+    ERROR("Только ошибки");
+
+    /** Название фильтра, показывающего сообщения этого уровня и выше */
+    private final String filterName;
+
+    public boolean isAtLeast(LogLevel level) {
+        return compareTo(level) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return filterName;
+    }
+}
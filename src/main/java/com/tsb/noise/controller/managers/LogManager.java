@@ -1,54 +1,140 @@
 package com.tsb.noise.controller.managers;
 
-import javafx.application.Platform;
-import javafx.scene.control.TextArea;
+import com.tsb.noise.controller.components.UiEventBus;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
 
 /**
- * Управление логом операций
+ * Управление логом операций.
+ * Сообщения можно писать из любого потока: они выводятся пачкой через {@link UiEventBus}
+ * в виртуализированный список, в памяти хранятся только последние строки ({@link LogRingBuffer}).
+ * Полный лог сессии пишется в файл журнала приложения
  */
 public class LogManager {
 
-    private final TextArea logArea;
-    private final DateTimeFormatter timeFormatter;
+    private static final Logger log = LoggerFactory.getLogger(LogManager.class);
 
-    public LogManager(TextArea logArea) {
-        this.logArea = logArea;
-        this.timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+    /** Число строк, хранимых в окне лога (системное свойство noise.log.capacity) */
+    private static final int LOG_CAPACITY = Integer.getInteger("noise.log.capacity", 10_000);
+
+    private final UiEventBus eventBus;
+    private final ListView<LogEntry> logList;
+    private final TextField searchField;
+    private final LogRingBuffer buffer;
+    private final FilteredList<LogEntry> visibleEntries;
+
+    public LogManager(ListView<LogEntry> logList, ComboBox<LogLevel> levelFilter, TextField searchField,
+                      UiEventBus eventBus) {
+        this.eventBus = eventBus;
+        this.logList = logList;
+        this.searchField = searchField;
+        this.buffer = new LogRingBuffer(LOG_CAPACITY);
+        this.visibleEntries = new FilteredList<>(buffer);
+
+        // Строки, записанные до создания менеджера, переносятся в буфер
+        List<LogEntry> earlyEntries = List.copyOf(logList.getItems());
+        buffer.append(earlyEntries);
+        logList.setItems(visibleEntries);
+        logList.setCellFactory(list -> new LogEntryCell());
+
+        levelFilter.getItems().setAll(LogLevel.values());
+        levelFilter.setValue(LogLevel.INFO);
+        levelFilter.valueProperty().addListener((obs, oldLevel, newLevel) -> updateFilter(newLevel));
+        searchField.textProperty().addListener((obs, oldText, newText) -> updateFilter(levelFilter.getValue()));
+
+        eventBus.setLogCleaner(buffer::clear);
+        eventBus.setLogAppender(this::appendEntries);
+        scrollToEnd();
     }
 
     public void logInfo(String message) {
-        logMessage(message, "INFO");
+        logMessage(message, LogLevel.INFO);
     }
 
     public void logError(String message) {
-        logMessage(message, "ERROR");
+        logMessage(message, LogLevel.ERROR);
     }
 
     public void logWarning(String message) {
-        logMessage(message, "WARNING");
+        logMessage(message, LogLevel.WARNING);
     }
 
-    private void logMessage(String message, String level) {
-        Platform.runLater(() -> {
-            String timestamp = LocalDateTime.now().format(timeFormatter);
-            String formattedMessage = String.format("[%s] %s: %s%n", timestamp, level, message);
-            logArea.appendText(formattedMessage);
-            logArea.setScrollTop(Double.MAX_VALUE);
-        });
+    private void logMessage(String message, LogLevel level) {
+        // В файл журнала попадает каждая строка - из него сохраняется полный лог
+        switch (level) {
+            case ERROR -> log.error(message);
+            case WARNING -> log.warn(message);
+            default -> log.info(message);
+        }
+        eventBus.postLogEntry(LogEntry.of(level, message));
     }
 
     public void clearLog() {
-        Platform.runLater(() -> {
-            logArea.clear();
-            logInfo("🧹 Лог очищен");
-            logInfo("⏰ " + getCurrentTimestamp());
-        });
+        eventBus.postLogClear();
+        logInfo("🧹 Лог очищен");
+        logInfo("⏰ " + getCurrentTimestamp());
+    }
+
+    private void appendEntries(List<LogEntry> entries) {
+        buffer.append(entries);
+        if (searchField.getText() == null || searchField.getText().isBlank()) {
+            scrollToEnd();
+        }
+    }
+
+    private void updateFilter(LogLevel minLevel) {
+        LogLevel level = minLevel != null ? minLevel : LogLevel.INFO;
+        String query = searchField.getText() == null ? "" : searchField.getText().trim().toLowerCase(Locale.ROOT);
+        if (level == LogLevel.INFO && query.isEmpty()) {
+            visibleEntries.setPredicate(null);
+        } else {
+            visibleEntries.setPredicate(entry -> entry.level().isAtLeast(level)
+                    && (query.isEmpty() || entry.contains(query)));
+        }
+        scrollToEnd();
+    }
+
+    private void scrollToEnd() {
+        if (!visibleEntries.isEmpty()) {
+            logList.scrollTo(visibleEntries.size() - 1);
+        }
     }
 
     private String getCurrentTimestamp() {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Ячейка строки лога с оформлением по уровню
+     */
+    private static final class LogEntryCell extends ListCell<LogEntry> {
+        private static final String WARNING_STYLE = "log-warning";
+        private static final String ERROR_STYLE = "log-error";
+
+        @Override
+        protected void updateItem(LogEntry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            getStyleClass().removeAll(WARNING_STYLE, ERROR_STYLE);
+            if (empty || entry == null) {
+                setText(null);
+                return;
+            }
+            setText(entry.toString());
+            if (entry.level() == LogLevel.ERROR) {
+                getStyleClass().add(ERROR_STYLE);
+            } else if (entry.level() == LogLevel.WARNING) {
+                getStyleClass().add(WARNING_STYLE);
+            }
+        }
+    }
+}
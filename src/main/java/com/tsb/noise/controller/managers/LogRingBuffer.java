@@ -0,0 +1,92 @@
+package com.tsb.noise.controller.managers;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Наблюдаемый кольцевой буфер строк лога фиксированной емкости.
+ * При переполнении вытесняются самые старые строки, поэтому память не растет от запуска к запуску.
+ * Изменяется только в потоке JavaFX
+ */
+public final class LogRingBuffer extends ObservableListBase<LogEntry> {
+
+    private final LogEntry[] entries;
+    private int head;
+    private int size;
+
+    public LogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Емкость буфера лога должна быть положительной: " + capacity);
+        }
+        this.entries = new LogEntry[capacity];
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    @Override
+    public LogEntry get(int index) {
+        Objects.checkIndex(index, size);
+        return entries[(head + index) % entries.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Добавляет пачку строк одним событием изменения списка
+     */
+    public void append(List<LogEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int capacity = entries.length;
+        List<LogEntry> added = batch.size() > capacity ? batch.subList(batch.size() - capacity, batch.size()) : batch;
+        int evicted = Math.max(0, size + added.size() - capacity);
+
+        beginChange();
+        try {
+            if (evicted > 0) {
+                List<LogEntry> removed = new ArrayList<>(evicted);
+                for (int i = 0; i < evicted; i++) {
+                    removed.add(get(i));
+                }
+                head = (head + evicted) % capacity;
+                size -= evicted;
+                nextRemove(0, removed);
+            }
+            int from = size;
+            for (LogEntry entry : added) {
+                entries[(head + size) % capacity] = entry;
+                size++;
+            }
+            nextAdd(from, size);
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        beginChange();
+        try {
+            List<LogEntry> removed = new ArrayList<>(this);
+            Arrays.fill(entries, null);
+            head = 0;
+            size = 0;
+            nextRemove(0, removed);
+        } finally {
+            endChange();
+        }
+    }
+}
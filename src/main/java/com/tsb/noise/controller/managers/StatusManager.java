@@ -1,10 +1,9 @@
 package com.tsb.noise.controller.managers;
 
-import com.tsb.noise.service.utils.FileUtils;
+import com.tsb.noise.service.catalog.FileCatalog;
 import com.tsb.noise.model.FileType;
 import javafx.scene.control.Label;
 
-import java.io.File;
 import java.util.List;
 
 /**
@@ -20,7 +19,11 @@ public class StatusManager {
         this.processStatusLabel = processStatusLabel;
     }
 
+    /**
+     * @param catalog каталог выбранной папки; null - папку не удалось обойти
+     */
     public void updateStatus(String directoryPath,
+                             FileCatalog catalog,
                              boolean hasSelectedFileTypes,
                              List<FileType> selectedFileTypes,
                              boolean hasOperations) {
@@ -35,7 +38,7 @@ public class StatusManager {
             return;
         }
 
-        int fileCount = countMatchingFiles(directoryPath, selectedFileTypes);
+        int fileCount = catalog != null ? catalog.findSupported(selectedFileTypes).size() : 0;
         updateFileStatus(fileCount, hasOperations);
     }
 
@@ -43,20 +46,6 @@ public class StatusManager {
         return directoryPath != null && !directoryPath.isEmpty();
     }
 
-    private int countMatchingFiles(String directoryPath, List<FileType> selectedTypes) {
-        try {
-            List<File> allFiles = FileUtils.findTargetExcelFiles(directoryPath);
-            return (int) allFiles.stream()
-                    .filter(file -> {
-                        FileType fileType = FileType.fromFileName(file.getName());
-                        return fileType != null && selectedTypes.contains(fileType);
-                    })
-                    .count();
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
     private void updateFileStatus(int fileCount, boolean hasOperations) {
         if (fileCount == 0) {
             setStatusError("❌ Файлы не найдены для выбранных типов");
@@ -2,6 +2,7 @@ package com.tsb.noise.controller.views;
 
 import com.tsb.noise.controller.handlers.AlertHandler;
 import com.tsb.noise.controller.managers.LogManager;
+import com.tsb.noise.service.catalog.FileCatalog;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 
@@ -44,7 +45,7 @@ public class FolderNavigationView {
         }
 
         File rootDir = new File(currentPath);
-        String folderName = rootDir.getName() + "_Перечень РТ";
+        String folderName = rootDir.getName() + FileCatalog.RT_LIST_FOLDER_SUFFIX;
         File rtListFolder = new File(rootDir, folderName);
 
         if (rtListFolder.exists()) {
@@ -18,5 +18,14 @@ public enum FrequencyBand {
     LEKV("Lэкв, дБА"),
     LMAX("Lмакс, дБА");
 
+    private static final int FIRST_COLUMN = 2; // Колонка C - 31,5 Гц, далее по порядку до M - Lмакс
+
     private final String displayName;
+
+    /**
+     * Колонка листа ЛИСТ2 (и выходного листа), в которой хранится значение полосы
+     */
+    public int getColumnIndex() {
+        return FIRST_COLUMN + ordinal();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,413 @@
+package com.tsb.noise.service;
+
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.catalog.CatalogEntry;
+import com.tsb.noise.service.catalog.FileCatalog;
+import com.tsb.noise.service.catalog.ProcessingManifest;
+import com.tsb.noise.service.catalog.SheetCache;
+import com.tsb.noise.service.metrics.RunMetrics;
+import com.tsb.noise.service.metrics.RunRecording;
+import com.tsb.noise.service.metrics.RunReport;
+import com.tsb.noise.service.operations.export.RtListCreator;
+import com.tsb.noise.service.operations.export.SummaryTableCreator;
+import com.tsb.noise.service.processors.CompiledPipeline;
+import com.tsb.noise.service.reader.SheetDataSink;
+import com.tsb.noise.service.utils.ExcelProcessor;
+import com.tsb.noise.service.utils.FileUtils;
+import com.tsb.noise.service.utils.ParallelFileProcessor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Обработка папки проекта целиком: поиск файлов, файлы "В записку", перечень РТ и сводная таблица.
+ * Не зависит от JavaFX - используется и задачей интерфейса, и консольным запуском.
+ */
+@Slf4j
+public class BatchProcessingService implements FileProcessingService {
+
+    /**
+     * Получатель сообщений и прогресса обработки; все методы необязательны
+     */
+    public interface Listener {
+        default void info(String message) {
+        }
+
+        default void error(String message) {
+        }
+
+        default void progressMessage(String message) {
+        }
+
+        default void progressValue(double percent) {
+        }
+
+        /**
+         * Внешняя отмена (например, отмена задачи интерфейса)
+         */
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    private final ExcelProcessor excelProcessor;
+    private final RtListCreator rtListCreator;
+    private final SummaryTableCreator summaryTableCreator;
+
+    /**
+     * Число файлов, обрабатываемых одновременно (1 - последовательно)
+     */
+    @Setter
+    private int parallelism = ParallelFileProcessor.defaultParallelism();
+
+    /**
+     * Инкрементальный режим: обрабатываются только файлы, изменившиеся с прошлого запуска
+     */
+    @Setter
+    private boolean incremental;
+
+    /**
+     * Записывать запуск в Java Flight Recorder: файл .jfr сохраняется в корень папки проекта
+     */
+    @Setter
+    private boolean recordRun;
+
+    @Getter
+    private volatile ProcessingStatus processingStatus = ProcessingStatus.IDLE;
+    private volatile boolean cancelRequested;
+
+    public BatchProcessingService(ExcelProcessor excelProcessor, RtListCreator rtListCreator,
+                                  SummaryTableCreator summaryTableCreator) {
+        this.excelProcessor = excelProcessor;
+        this.rtListCreator = rtListCreator;
+        this.summaryTableCreator = summaryTableCreator;
+    }
+
+    @Override
+    public ProcessingResult processDirectory(String directoryPath, ProcessingConfig config) {
+        try {
+            return process(directoryPath, config, NO_LISTENER);
+        } catch (IOException e) {
+            log.error("💥 Не удалось просмотреть папку {}: {}", directoryPath, e.getMessage(), e);
+            ProcessingResult result = new ProcessingResult();
+            result.setSuccess(false);
+            result.setErrorMessages(List.of(e.getMessage()));
+            result.setSummary("Ошибка: " + e.getMessage());
+            return result;
+        }
+    }
+
+    @Override
+    public List<File> findFilesToProcess(String directoryPath) {
+        try {
+            return FileCatalog.toFiles(FileCatalog.scan(directoryPath).findSupported());
+        } catch (IOException e) {
+            log.error("Ошибка поиска файлов: {}", e.getMessage(), e);
+            return List.of();
+        }
+    }
+
+    @Override
+    public void cancelProcessing() {
+        cancelRequested = true;
+    }
+
+    /**
+     * Обрабатывает папку проекта с настройками config
+     * @throws IOException если папку не удалось просмотреть
+     * @throws IllegalArgumentException если настройки некорректны
+     */
+    public ProcessingResult process(String directoryPath, ProcessingConfig config, Listener listener) throws IOException {
+        cancelRequested = false;
+        processingStatus = ProcessingStatus.SCANNING;
+        listener.progressMessage("Поиск файлов...");
+        listener.progressValue(0.0);
+
+        RunRecording recording = null;
+        try {
+            // Папка обходится один раз: каталог используется для поиска, перечня РТ и сводной таблицы
+            FileCatalog catalog = FileCatalog.scan(directoryPath);
+            if (recordRun) {
+                recording = startRecording(catalog.getRoot(), listener);
+            }
+            List<FileType> fileTypes = config.getFileTypes() != null
+                    ? config.getFileTypes() : Arrays.asList(FileType.values());
+            List<CatalogEntry> targetFiles = catalog.findSupported(fileTypes);
+            if (!catalog.getSkipped().isEmpty()) {
+                listener.info("⏭️ Пропущено: " + catalog.describeSkipped());
+            }
+
+            if (targetFiles.isEmpty()) {
+                listener.progressMessage("❌ Файлы не найдены");
+                processingStatus = ProcessingStatus.COMPLETED;
+                ProcessingResult result = new ProcessingResult();
+                result.setSuccess(false);
+                result.setProcessedFileNames(List.of());
+                result.setErrorMessages(List.of());
+                result.setSummary("Файлы не найдены");
+                return result;
+            }
+
+            listener.info("📊 Начинается обработка выбранных файлов:");
+            targetFiles.forEach(entry ->
+                    listener.info("   • " + entry.getFileType().getDisplayName() + ": " + entry.getFileName()));
+
+            listener.progressMessage("Найдено файлов: " + targetFiles.size());
+            listener.progressValue(10.0);
+
+            // Логируем включенные операции
+            logEnabledOperations(config, listener);
+
+            // Настройки проверяются и обработка собирается один раз на тип файла для всего запуска
+            Map<FileType, CompiledPipeline> pipelines = CompiledPipeline.compileAll(config,
+                    targetFiles.stream().map(CatalogEntry::getFileType).distinct().toList());
+
+            // Листы, разобранные в прошлых запусках, берутся из кэша в папке проекта
+            SheetCache sheetCache = SheetCache.isEnabled() ? SheetCache.open(catalog.getRoot()) : null;
+
+            // Время и ресурсы по этапам каждого файла, перечня РТ и сводной таблицы
+            RunMetrics metrics = new RunMetrics();
+            RunContext run = new RunContext(catalog.getRoot(), sheetCache, metrics);
+
+            // Перечень РТ и сводная таблица получают строки обрабатываемых файлов без повторного чтения
+            RtListCreator.RtListAccumulator rtListAccumulator =
+                    config.isCreateRtList() ? rtListCreator.newAccumulator() : null;
+            SummaryTableCreator.SummaryAccumulator summaryAccumulator =
+                    config.isCreateSummaryTable() ? summaryTableCreator.newAccumulator() : null;
+            List<SheetDataSink> sinks = Stream.of(rtListAccumulator, summaryAccumulator)
+                    .filter(Objects::nonNull)
+                    .map(SheetDataSink.class::cast)
+                    .toList();
+
+            processingStatus = ProcessingStatus.PROCESSING;
+            ProcessingResult result = incremental
+                    ? processChangedFiles(catalog, targetFiles, sinks, pipelines, run, listener)
+                    : processFiles(targetFiles, null, sinks, pipelines, run, listener);
+            List<String> errorMessages = new ArrayList<>(result.getErrorMessages());
+
+            // Создание перечня РТ
+            if (config.isCreateRtList() && !isCancelled(listener)) {
+                listener.progressMessage("Создание перечня расчетных точек...");
+                listener.progressValue(90.0);
+                result.setRtListCreated(rtListCreator.createRtListTable(catalog, rtListAccumulator, true, run));
+                if (result.isRtListCreated()) {
+                    listener.info("✅ Успешно создан перечень расчетных точек");
+                } else {
+                    listener.info("⚠️ Не удалось создать перечень расчетных точек");
+                    errorMessages.add("Не удалось создать перечень расчетных точек");
+                }
+            }
+
+            // Создание сводной таблицы
+            if (config.isCreateSummaryTable() && !isCancelled(listener)) {
+                listener.progressMessage("Создание сводной таблицы РТ...");
+                listener.progressValue(95.0);
+                result.setSummaryTableCreated(summaryTableCreator.createSummaryTable(catalog, summaryAccumulator, true, run));
+                if (result.isSummaryTableCreated()) {
+                    listener.info("✅ Успешно создана сводная таблица РТ");
+                } else {
+                    listener.info("⚠️ Не удалось создать сводную таблицу РТ");
+                    errorMessages.add("Не удалось создать сводную таблицу РТ");
+                }
+            }
+
+            if (sheetCache != null) {
+                listener.info("💾 Кэш листов: " + sheetCache.describeStats());
+            }
+
+            boolean cancelled = isCancelled(listener);
+            result.setCancelled(cancelled);
+            result.setErrorMessages(errorMessages);
+            result.setSuccess(errorMessages.isEmpty() && !cancelled);
+            metrics.finish();
+            result.setMetrics(metrics);
+            writeRunReport(catalog.getRoot(), result, listener);
+            processingStatus = cancelled ? ProcessingStatus.CANCELLED : ProcessingStatus.COMPLETED;
+
+            if (!cancelled) {
+                listener.progressMessage("✅ Обработка завершена");
+                listener.progressValue(100.0);
+            }
+            return result;
+
+        } catch (IOException | RuntimeException e) {
+            processingStatus = ProcessingStatus.FAILED;
+            listener.error("💥 Критическая ошибка при обработке: " + e.getMessage());
+            throw e;
+        } finally {
+            stopRecording(recording, listener);
+        }
+    }
+
+    /**
+     * Начинает запись JFR; если JFR недоступен, обработка идет без записи
+     */
+    private RunRecording startRecording(Path root, Listener listener) {
+        try {
+            return RunRecording.start(root);
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось начать запись JFR: {}", e.getMessage());
+            listener.info("⚠️ Запись JFR недоступна: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void stopRecording(RunRecording recording, Listener listener) {
+        if (recording == null) {
+            return;
+        }
+        try {
+            Path recordingFile = recording.stop();
+            listener.info("🎥 Запись JFR: " + recordingFile.getFileName());
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось сохранить запись JFR: {}", e.getMessage());
+            listener.info("⚠️ Не удалось сохранить запись JFR: " + e.getMessage());
+        }
+    }
+
+    private boolean isCancelled(Listener listener) {
+        return cancelRequested || listener.isCancelled();
+    }
+
+    /**
+     * Записывает JSON-отчет о запуске в корень папки проекта; ошибка записи не прерывает обработку
+     */
+    private void writeRunReport(Path root, ProcessingResult result, Listener listener) {
+        try {
+            Path reportFile = RunReport.write(root, result);
+            listener.info("⏱️ Отчет о времени обработки: " + reportFile.getFileName());
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось записать отчет о запуске в {}: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * Логирует включенные операции
+     */
+    private void logEnabledOperations(ProcessingConfig config, Listener listener) {
+        if (config.isRemoveSoundIsolation()) {
+            listener.info("🗑️ Режим удаления строк 'Требуемая звукоизоляция' активирован");
+        }
+        if (config.isMoveBarrierIsolation()) {
+            listener.info("🔄 Режим перемещения 'Звукоизоляция преградой' активирован");
+        }
+        if (config.isApplyCorrection()) {
+            listener.info("📈 Режим поправки активирован: " + config.getCorrectionValue());
+        }
+        if (config.isCreateRtList()) {
+            listener.info("📋 Режим создания перечня РТ активирован");
+        }
+        if (config.isCreateSummaryTable()) {
+            listener.info("📊 Режим создания сводной таблицы РТ активирован");
+        }
+    }
+
+    /**
+     * Обрабатывает только файлы, изменившиеся с прошлого запуска (по манифесту в корне папки)
+     */
+    private ProcessingResult processChangedFiles(FileCatalog catalog,
+                                                 List<CatalogEntry> targetFiles,
+                                                 List<SheetDataSink> sinks,
+                                                 Map<FileType, CompiledPipeline> pipelines,
+                                                 RunContext run,
+                                                 Listener listener) {
+
+        ProcessingManifest manifest = ProcessingManifest.load(catalog.getRoot());
+        List<CatalogEntry> changedFiles = targetFiles.stream()
+                .filter(entry -> !manifest.isUpToDate(entry, resolveOutputFile(entry.toFile()),
+                        pipelines.get(entry.getFileType()).getOptionsFingerprint()))
+                .toList();
+
+        int upToDateCount = targetFiles.size() - changedFiles.size();
+        if (upToDateCount > 0) {
+            listener.info("⏩ Без изменений, пропущено файлов: " + upToDateCount);
+        }
+
+        ProcessingResult result;
+        if (changedFiles.isEmpty()) {
+            listener.info("✅ Все выходные файлы актуальны");
+            listener.progressValue(90.0);
+            result = new ProcessingResult();
+            result.setProcessedFileNames(List.of());
+            result.setErrorMessages(List.of());
+        } else {
+            try {
+                result = processFiles(changedFiles, manifest, sinks, pipelines, run, listener);
+            } finally {
+                // Сохраняем и при отмене: успешно обработанные файлы не придется строить заново
+                manifest.save();
+            }
+        }
+        result.setTotalFiles(targetFiles.size());
+        result.setUpToDateFiles(upToDateCount);
+        return result;
+    }
+
+    public static File resolveOutputFile(File inputFile) {
+        return new File(inputFile.getParent(), FileUtils.generateOutputFileName(inputFile.getName()));
+    }
+
+    /**
+     * Обрабатывает файлы на пуле из parallelism потоков; успешные файлы записываются в манифест, если он задан.
+     * Разобранный при чтении лист передается накопителям sinks.
+     */
+    private ProcessingResult processFiles(List<CatalogEntry> targetFiles,
+                                          ProcessingManifest manifest,
+                                          List<SheetDataSink> sinks,
+                                          Map<FileType, CompiledPipeline> pipelines,
+                                          RunContext run,
+                                          Listener listener) {
+
+        ParallelFileProcessor fileProcessor = new ParallelFileProcessor(parallelism);
+        if (fileProcessor.getParallelism() > 1) {
+            listener.info("⚙️ Параллельная обработка, потоков: " + fileProcessor.getParallelism());
+        }
+
+        SheetDataSink tableSink = sinks.isEmpty() ? null : SheetDataSink.all(sinks);
+        ProcessingResult result = fileProcessor.processFiles(
+                FileCatalog.toFiles(targetFiles),
+                BatchProcessingService::resolveOutputFile,
+                (inputFile, outputFile) -> excelProcessor.processExcelFile(inputFile, outputFile,
+                        pipelines.get(FileType.fromFileName(inputFile.getName())), tableSink, run),
+                new ParallelFileProcessor.ProgressListener() {
+                    @Override
+                    public void fileCompleted(ParallelFileProcessor.FileOutcome outcome, int total) {
+                        String fileType = FileUtils.getFileTypeDisplayName(outcome.getInputFile().getName());
+                        if (outcome.isSuccess()) {
+                            if (manifest != null) {
+                                CatalogEntry entry = targetFiles.get(outcome.getIndex());
+                                manifest.record(entry, pipelines.get(entry.getFileType()).getOptionsFingerprint());
+                            }
+                            listener.info("✅ Успешно: " + fileType + " → " + outcome.getOutputFile().getName());
+                        } else {
+                            listener.error("❌ Ошибка: " + fileType + " → " + outcome.getInputFile().getName());
+                        }
+                    }
+
+                    @Override
+                    public void progress(int completed, int total) {
+                        listener.progressMessage("Обработано " + completed + "/" + total);
+                        listener.progressValue(10 + (completed * 80.0 / total));
+                    }
+                },
+                () -> isCancelled(listener));
+
+        String resultMessage = String.format("🎉 Обработка завершена! Успешно: %d, Ошибок: %d",
+                result.getProcessedFiles(), result.getFailedFiles());
+        listener.info(resultMessage);
+        return result;
+    }
+}
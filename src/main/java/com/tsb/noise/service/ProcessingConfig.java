@@ -1,7 +1,12 @@
 package com.tsb.noise.service;
 
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.operations.core.BorderMode;
+import com.tsb.noise.service.operations.plan.RtHeaderLayout;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * Конфигурация обработки файлов
  */
@@ -12,8 +17,59 @@ public class ProcessingConfig {
     private boolean applyCorrection;
     private Double correctionValue;
     private boolean createRtList;
+    private boolean createSummaryTable;
+    private List<FileType> fileTypes; // null - все типы файлов
+    private RtHeaderLayout rtHeaderLayout = RtHeaderLayout.MERGED_CELLS;
+    private BorderMode borderMode = BorderMode.CELLS;
+
+    /**
+     * Потоковая запись выходного файла (SXSSF): память не растет с размером листа
+     */
+    private boolean streamingOutput = true;
+
+    /**
+     * Оптимизация разметки выходного файла: без повторяющихся высот строк и пустых ячеек,
+     * строки текста - через общую таблицу sharedStrings
+     */
+    private boolean optimizeOutput = true;
 
     public static ProcessingConfig defaultConfig() {
         return new ProcessingConfig();
     }
+
+    /**
+     * Настройки по выбору пользователя в интерфейсе; способы оформления и записи выходных файлов берутся из системных свойств
+     * @param correctionValue поправка в дБ; null - без строки поправки
+     */
+    public static ProcessingConfig of(List<FileType> fileTypes, boolean removeSoundIsolation,
+                                      boolean moveBarrierIsolation, Double correctionValue,
+                                      boolean createRtList, boolean createSummaryTable) {
+        ProcessingConfig config = new ProcessingConfig();
+        config.setFileTypes(List.copyOf(fileTypes));
+        config.setRemoveSoundIsolation(removeSoundIsolation);
+        config.setMoveBarrierIsolation(moveBarrierIsolation);
+        config.setApplyCorrection(correctionValue != null);
+        config.setCorrectionValue(correctionValue);
+        config.setCreateRtList(createRtList);
+        config.setCreateSummaryTable(createSummaryTable);
+        config.setRtHeaderLayout(RtHeaderLayout.configured());
+        config.setBorderMode(BorderMode.configured());
+        config.setStreamingOutput(configuredStreamingOutput());
+        config.setOptimizeOutput(configuredOptimizeOutput());
+        return config;
+    }
+
+    /**
+     * Потоковая запись по системному свойству -Dnoise.output.streaming (по умолчанию включена)
+     */
+    public static boolean configuredStreamingOutput() {
+        return Boolean.parseBoolean(System.getProperty("noise.output.streaming", "true"));
+    }
+
+    /**
+     * Оптимизация разметки по системному свойству -Dnoise.output.optimize (по умолчанию включена)
+     */
+    public static boolean configuredOptimizeOutput() {
+        return Boolean.parseBoolean(System.getProperty("noise.output.optimize", "true"));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.tsb.noise.service;
 
+import com.tsb.noise.service.metrics.RunMetrics;
 import lombok.Data;
 
 import java.util.List;
@@ -13,9 +14,15 @@ public class ProcessingResult {
     private int totalFiles;
     private int processedFiles;
     private int failedFiles;
+    private int upToDateFiles;
+    private boolean cancelled;
+    private boolean rtListCreated;
+    private boolean summaryTableCreated;
     private List<String> processedFileNames;
     private List<String> errorMessages;
     private String summary;
+    /** Замеры этапов по файлам, перечню РТ и сводной таблице; null, если обработка не запускалась */
+    private RunMetrics metrics;
 
     public ProcessingResult() {
         this.success = true;
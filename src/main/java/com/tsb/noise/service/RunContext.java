@@ -0,0 +1,79 @@
+package com.tsb.noise.service;
+
+import com.tsb.noise.service.catalog.SheetCache;
+import com.tsb.noise.service.metrics.FileMetrics;
+import com.tsb.noise.service.metrics.RunMetrics;
+import com.tsb.noise.service.reader.SheetRowHandler;
+import com.tsb.noise.service.reader.StreamingSheetReader;
+import lombok.Value;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Состояние одного запуска обработки: корень папки проекта, кэш листов и сборщик замеров.
+ * Передается в каждый вызов, поэтому обработчики файлов и экспорта не хранят состояния запуска
+ * и могут использоваться одновременно несколькими запусками.
+ */
+@Value
+public class RunContext {
+
+    /**
+     * Без папки проекта, кэша листов и сбора замеров
+     */
+    public static final RunContext NONE = new RunContext(null, null, null);
+
+    /**
+     * Корень папки проекта; null - файлы называются только по имени
+     */
+    Path root;
+
+    /**
+     * Кэш разобранных листов папки проекта; null - листы всегда читаются из файлов
+     */
+    SheetCache sheetCache;
+
+    /**
+     * Замеры запуска; null - замеры только пишутся в журнал
+     */
+    RunMetrics metrics;
+
+    /**
+     * Читает лист через кэш листов, если он задан, иначе - потоково из файла
+     * @return false, если листа нет в файле
+     */
+    public boolean readSheet(StreamingSheetReader reader, File file, String sheetName,
+                             SheetRowHandler handler) throws IOException {
+        return sheetCache != null
+                ? sheetCache.readSheet(file, sheetName, handler)
+                : reader.readSheet(file, sheetName, handler);
+    }
+
+    /**
+     * Путь файла относительно корня папки проекта (разделитель - /): одноименные файлы
+     * в разных подпапках различаются в замерах и отчете. Файл вне корня называется по имени
+     */
+    public String relativePath(File file) {
+        if (root != null) {
+            Path path = file.toPath().toAbsolutePath().normalize();
+            Path base = root.toAbsolutePath().normalize();
+            if (path.startsWith(base)) {
+                return base.relativize(path).toString().replace(File.separatorChar, '/');
+            }
+        }
+        return file.getName();
+    }
+
+    public void addFile(FileMetrics fileMetrics) {
+        if (metrics != null) {
+            metrics.addFile(fileMetrics);
+        }
+    }
+
+    public void addExport(FileMetrics exportMetrics) {
+        if (metrics != null) {
+            metrics.addExport(exportMetrics);
+        }
+    }
+}
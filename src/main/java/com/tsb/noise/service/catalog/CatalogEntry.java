@@ -0,0 +1,70 @@
+package com.tsb.noise.service.catalog;
+
+import com.tsb.noise.model.FileType;
+import lombok.Value;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Excel-файл проекта, найденный при обходе папки, с разобранными по имени признаками
+ */
+@Value
+public class CatalogEntry {
+
+    private static final Pattern SHK_PATTERN = Pattern.compile("ШК(\\d+)(п?)");
+
+    Path path;
+    int depth;            // Глубина относительно корня (1 - файл прямо в корневой папке)
+    FileType fileType;    // null - не файл УЗД
+    String shkNumber;     // "ШК12п"; "ШК1", если номер в имени не указан
+    int shkNumericValue;  // 12 для "ШК12п" - для сортировки
+    boolean night;
+    long size;
+    long lastModifiedMillis;
+
+    static CatalogEntry of(Path path, int depth, long size, long lastModifiedMillis) {
+        String fileName = path.getFileName().toString();
+        FileType fileType = FileType.fromFileName(fileName);
+
+        boolean night = fileType != null
+                ? fileType.getDisplayName().contains("ночь")
+                : fileName.contains("ночь");
+
+        return new CatalogEntry(path, depth, fileType, parseShkNumber(fileName), parseShkNumericValue(fileName),
+                night, size, lastModifiedMillis);
+    }
+
+    /**
+     * Извлекает номер ШК из имени файла ("ШК12п"), по умолчанию "ШК1"
+     */
+    public static String parseShkNumber(String fileName) {
+        Matcher matcher = SHK_PATTERN.matcher(fileName);
+        return matcher.find() ? "ШК" + matcher.group(1) + matcher.group(2) : "ШК1";
+    }
+
+    /**
+     * Извлекает числовое значение ШК для сортировки, по умолчанию 1
+     */
+    public static int parseShkNumericValue(String fileName) {
+        Matcher matcher = SHK_PATTERN.matcher(fileName);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    public String getFileName() {
+        return path.getFileName().toString();
+    }
+
+    public File toFile() {
+        return path.toFile();
+    }
+
+    /**
+     * Файл одного из поддерживаемых типов УЗД
+     */
+    public boolean isSupported() {
+        return fileType != null;
+    }
+}
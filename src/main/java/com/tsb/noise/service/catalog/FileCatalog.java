@@ -0,0 +1,189 @@
+package com.tsb.noise.service.catalog;
+
+import com.tsb.noise.model.FileType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Каталог Excel-файлов папки проекта, построенный одним обходом дерева.
+ * Поиск файлов для обработки, перечня РТ и сводной таблицы выполняется по каталогу,
+ * без повторных обходов (на сетевых дисках каждый обход стоит секунды).
+ */
+@Slf4j
+public class FileCatalog {
+
+    /**
+     * Суффиксы папок, которые создают перечень РТ и сводная таблица внутри папки проекта
+     */
+    public static final String RT_LIST_FOLDER_SUFFIX = "_Перечень РТ";
+    public static final String SUMMARY_FOLDER_SUFFIX = "_Сводная таблица УЗД в расчетных точках, в дБА";
+
+    private static final String OUTPUT_MARKER = "в записку";
+    private static final String LOCK_FILE_PREFIX = "~$";
+
+    private final Path root;
+    private final List<CatalogEntry> entries;
+    private final List<SkippedFile> skipped;
+
+    private FileCatalog(Path root, List<CatalogEntry> entries, List<SkippedFile> skipped) {
+        this.root = root;
+        this.entries = Collections.unmodifiableList(entries);
+        this.skipped = Collections.unmodifiableList(skipped);
+    }
+
+    /**
+     * Обходит папку один раз и собирает все Excel-файлы с размером и датой изменения.
+     * Выходные файлы "В записку", файлы блокировки Excel и папки перечня РТ/сводной таблицы
+     * в каталог не попадают и учитываются как пропущенные.
+     */
+    public static FileCatalog scan(String rootPath) throws IOException {
+        if (rootPath == null || rootPath.trim().isEmpty()) {
+            log.warn("Путь для поиска файлов не указан");
+            return new FileCatalog(null, new ArrayList<>(), new ArrayList<>());
+        }
+
+        Path start = Paths.get(rootPath);
+
+        if (!Files.exists(start)) {
+            log.error("Путь не существует: {}", rootPath);
+            throw new IllegalArgumentException("Путь не существует: " + rootPath);
+        }
+
+        if (!Files.isDirectory(start)) {
+            log.error("Указанный путь не является директорией: {}", rootPath);
+            throw new IllegalArgumentException("Указанный путь не является директорией: " + rootPath);
+        }
+
+        long startTime = System.nanoTime();
+        List<CatalogEntry> entries = new ArrayList<>();
+        List<SkippedFile> skipped = new ArrayList<>();
+
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.getFileName() != null && SheetCache.DIRECTORY_NAME.equals(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE; // Служебная папка кэша листов
+                }
+                if (!dir.equals(start) && isGeneratedFolder(dir.getFileName().toString())) {
+                    skipped.add(new SkippedFile(dir, SkippedFile.Reason.GENERATED_FOLDER));
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String fileName = file.getFileName().toString();
+                if (!attrs.isRegularFile() || !isExcelFile(fileName)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                if (fileName.startsWith(LOCK_FILE_PREFIX)) {
+                    skipped.add(new SkippedFile(file, SkippedFile.Reason.LOCK_FILE));
+                } else if (isGeneratedOutput(fileName)) {
+                    skipped.add(new SkippedFile(file, SkippedFile.Reason.GENERATED_OUTPUT));
+                } else {
+                    int depth = start.relativize(file).getNameCount();
+                    entries.add(CatalogEntry.of(file, depth, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.warn("⚠️ Нет доступа к {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        FileCatalog catalog = new FileCatalog(start, entries, skipped);
+        log.info("📂 Каталог построен: {} Excel-файлов за {} мс", entries.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+        if (!skipped.isEmpty()) {
+            log.info("⏭️ Пропущено: {}", catalog.describeSkipped());
+            skipped.forEach(file -> log.debug("Пропущен ({}): {}", file.getReason(), file.getPath()));
+        }
+        return catalog;
+    }
+
+    /**
+     * Проверяет, является ли файл выходным файлом "В записку", созданным программой
+     */
+    public static boolean isGeneratedOutput(String fileName) {
+        return fileName.toLowerCase().contains(OUTPUT_MARKER);
+    }
+
+    private static boolean isGeneratedFolder(String folderName) {
+        return folderName.endsWith(RT_LIST_FOLDER_SUFFIX) || folderName.endsWith(SUMMARY_FOLDER_SUFFIX);
+    }
+
+    private static boolean isExcelFile(String fileName) {
+        String lowerFileName = fileName.toLowerCase();
+        return lowerFileName.endsWith(".xlsx") || lowerFileName.endsWith(".xls");
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Все найденные Excel-файлы в порядке обхода
+     */
+    public List<CatalogEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Файлы поддерживаемых типов УЗД
+     */
+    public List<CatalogEntry> findSupported() {
+        return filter(CatalogEntry::isSupported);
+    }
+
+    /**
+     * Файлы выбранных типов УЗД
+     */
+    public List<CatalogEntry> findSupported(Collection<FileType> fileTypes) {
+        return filter(entry -> entry.isSupported() && fileTypes.contains(entry.getFileType()));
+    }
+
+    /**
+     * Excel-файлы, лежащие непосредственно в корневой папке
+     */
+    public List<CatalogEntry> findInRoot() {
+        return filter(entry -> entry.getDepth() == 1);
+    }
+
+    /**
+     * Файлы и папки, пропущенные при обходе
+     */
+    public List<SkippedFile> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Сводка пропущенного по причинам, например "выходные файлы "В записку": 3"
+     */
+    public String describeSkipped() {
+        Map<SkippedFile.Reason, Long> counts = new EnumMap<>(SkippedFile.Reason.class);
+        skipped.forEach(file -> counts.merge(file.getReason(), 1L, Long::sum));
+
+        StringJoiner joiner = new StringJoiner(", ");
+        counts.forEach((reason, count) -> joiner.add(reason.getDisplayName() + ": " + count));
+        return joiner.toString();
+    }
+
+    public List<CatalogEntry> filter(Predicate<CatalogEntry> predicate) {
+        return entries.stream().filter(predicate).toList();
+    }
+
+    public static List<File> toFiles(List<CatalogEntry> entries) {
+        return entries.stream().map(CatalogEntry::toFile).toList();
+    }
+}
@@ -0,0 +1,234 @@
+package com.tsb.noise.service.catalog;
+
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.operations.core.BorderMode;
+import com.tsb.noise.service.operations.plan.RtHeaderLayout;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Манифест инкрементальной обработки: для каждого входного файла хранит размер, дату изменения,
+ * хэш содержимого и отпечаток настроек, с которыми был построен его файл "В записку".
+ * Файл пропускается, если отпечатки совпадают и выходной файл на месте.
+ */
+@Slf4j
+public class ProcessingManifest {
+
+    public static final String FILE_NAME = ".noise-manifest.properties";
+
+    /**
+     * Версия формата выходных файлов: увеличивается при изменении алгоритма обработки,
+     * чтобы старые выходные файлы были перестроены.
+     * Любое изменение разметки выходного файла (стили, границы, высоты строк, объединения, запись ячеек)
+     * тоже требует увеличить версию, иначе инкрементальная обработка оставит файлы в прежнем виде.
+     * 2 - оптимизированная разметка и объединения заголовков РТ, регистрируемые после записи плана
+     */
+    private static final int OUTPUT_FORMAT_VERSION = 2;
+    private static final String SEPARATOR = ";";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path manifestFile;
+    private final Map<String, Record> records;
+
+    private ProcessingManifest(Path root, Map<String, Record> records) {
+        this.root = root;
+        this.manifestFile = root.resolve(FILE_NAME);
+        this.records = records;
+    }
+
+    /**
+     * Запись манифеста об одном входном файле
+     */
+    @Value
+    static class Record {
+        long size;
+        long lastModifiedMillis;
+        String contentHash;
+        String optionsFingerprint;
+
+        static Record parse(String value) {
+            String[] parts = value.split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Record(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2], parts[3]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return size + SEPARATOR + lastModifiedMillis + SEPARATOR + contentHash + SEPARATOR + optionsFingerprint;
+        }
+    }
+
+    /**
+     * Загружает манифест из корня папки проекта; отсутствующий или поврежденный манифест считается пустым
+     */
+    public static ProcessingManifest load(Path root) {
+        Map<String, Record> records = new HashMap<>();
+        Path manifestFile = root.resolve(FILE_NAME);
+
+        if (Files.isRegularFile(manifestFile)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String key : properties.stringPropertyNames()) {
+                    Record record = Record.parse(properties.getProperty(key));
+                    if (record != null) {
+                        records.put(key, record);
+                    }
+                }
+                log.info("📒 Загружен манифест обработки: {} записей", records.size());
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("⚠️ Манифест обработки поврежден и будет перестроен: {}", e.getMessage());
+                records.clear();
+            }
+        }
+
+        return new ProcessingManifest(root, records);
+    }
+
+    /**
+     * Отпечаток настроек, влияющих на содержимое выходного файла
+     */
+    public static String optionsFingerprint(FileType fileType, boolean removeSoundIsolation,
+                                            boolean moveBarrierIsolation, Double correctionValue,
+                                            RtHeaderLayout rtHeaderLayout, BorderMode borderMode,
+                                            boolean optimizeOutput) {
+        String options = "v" + OUTPUT_FORMAT_VERSION
+                + "|" + fileType
+                + "|removeSoundIsolation=" + removeSoundIsolation
+                + "|moveBarrierIsolation=" + moveBarrierIsolation
+                + "|correction=" + (correctionValue != null ? Double.toString(correctionValue) : "none");
+        // Способы оформления по умолчанию не входят в отпечаток, чтобы прежние записи манифеста оставались действительными
+        if (rtHeaderLayout != RtHeaderLayout.MERGED_CELLS) {
+            options += "|rtHeaderLayout=" + rtHeaderLayout;
+        }
+        if (borderMode != BorderMode.CELLS) {
+            options += "|borderMode=" + borderMode;
+        }
+        if (!optimizeOutput) {
+            options += "|optimizeOutput=false";
+        }
+        return sha256(options.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+    }
+
+    /**
+     * Проверяет, что выходной файл построен из текущего содержимого входного файла с теми же настройками.
+     * Хэш содержимого считается, только если изменились размер или дата изменения.
+     */
+    public boolean isUpToDate(CatalogEntry input, File outputFile, String optionsFingerprint) {
+        String key = keyOf(input);
+        Record record;
+        synchronized (this) {
+            record = records.get(key);
+        }
+
+        if (record == null || !outputFile.isFile() || !record.getOptionsFingerprint().equals(optionsFingerprint)) {
+            return false;
+        }
+
+        if (record.getSize() != input.getSize()) {
+            return false;
+        }
+
+        if (record.getLastModifiedMillis() == input.getLastModifiedMillis()) {
+            return true;
+        }
+
+        // Дата изменилась (файл пересохранен или скопирован) - сравниваем содержимое
+        try {
+            String contentHash = hashFile(input.getPath());
+            if (!contentHash.equals(record.getContentHash())) {
+                return false;
+            }
+            synchronized (this) {
+                records.put(key, new Record(input.getSize(), input.getLastModifiedMillis(),
+                        contentHash, optionsFingerprint));
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось вычислить хэш {}: {}", input.getFileName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Запоминает успешно обработанный входной файл
+     */
+    public void record(CatalogEntry input, String optionsFingerprint) {
+        try {
+            String contentHash = hashFile(input.getPath());
+            Record record = new Record(input.getSize(), input.getLastModifiedMillis(), contentHash, optionsFingerprint);
+            synchronized (this) {
+                records.put(keyOf(input), record);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Файл {} не записан в манифест: {}", input.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Сохраняет манифест через временный файл, чтобы прерванная запись не повредила его
+     */
+    public synchronized void save() {
+        // Properties.store пишет ключи в отсортированном порядке
+        Properties properties = new Properties();
+        records.forEach((key, record) -> properties.setProperty(key, record.format()));
+
+        Path tempFile = manifestFile.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Noise incremental processing manifest");
+            }
+            Files.move(tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("📒 Манифест обработки сохранен: {} записей", records.size());
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось сохранить манифест обработки: {}", e.getMessage());
+        }
+    }
+
+    private String keyOf(CatalogEntry input) {
+        return root.relativize(input.getPath()).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * SHA-256 содержимого файла в шестнадцатеричном виде
+     */
+    static String hashFile(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static String sha256(byte[] data) {
+        return HexFormat.of().formatHex(newDigest().digest(data));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
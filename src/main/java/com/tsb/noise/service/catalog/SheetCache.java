@@ -0,0 +1,482 @@
+package com.tsb.noise.service.catalog;
+
+import com.tsb.noise.service.reader.SheetCell;
+import com.tsb.noise.service.reader.SheetRow;
+import com.tsb.noise.service.reader.SheetRowHandler;
+import com.tsb.noise.service.reader.StreamingSheetReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Кэш разобранных исходных листов в скрытой папке проекта. Запись кэша - строки листа в двоичном виде,
+ * ключ - хэш содержимого файла и имя листа. Повторный запуск читает запись потоково вместо распаковки
+ * и разбора xlsx; из строк затем строятся план и колоночная таблица, как при чтении файла.
+ * Ни при записи, ни при чтении лист целиком в памяти не собирается: строки пишутся в запись по мере разбора
+ * и передаются обработчику по мере чтения записи.
+ */
+@Slf4j
+public class SheetCache {
+
+    public static final String DIRECTORY_NAME = ".noise-cache";
+
+    /**
+     * Кэш отключается системным свойством -Dnoise.sheet.cache=false
+     */
+    private static final String ENABLED_PROPERTY = "noise.sheet.cache";
+    private static final String ENTRY_EXTENSION = ".sheet";
+    private static final int MAGIC = 0x4E534331; // "NSC1"
+    /**
+     * Версия формата записи: увеличивается при изменении формата или правил чтения листа
+     */
+    private static final int FORMAT_VERSION = 3;
+    private static final int NO_STRING = -1;
+    private static final int NOT_CACHED = -1;
+    private static final Duration MAX_ENTRY_AGE = Duration.ofDays(30);
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Заголовок: MAGIC, FORMAT_VERSION, длина данных после заголовка, число строк листа, CRC32 данных
+    private static final int LENGTH_POSITION = 2 * Integer.BYTES;
+    private static final int HEADER_BYTES = LENGTH_POSITION + Long.BYTES + 2 * Integer.BYTES;
+
+    // Виды записей после заголовка
+    private static final byte END_RECORD = 0;
+    private static final byte STRING_RECORD = 1;
+    private static final byte ROW_RECORD = 2;
+
+    private final Path directory;
+    private final StreamingSheetReader sheetReader = new StreamingSheetReader();
+    private final Map<FileStamp, String> contentHashes = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private SheetCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Размер и дата изменения файла: хэш содержимого пересчитывается только при их изменении
+     */
+    private record FileStamp(Path path, long size, long lastModifiedMillis) {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * Открывает кэш в корне папки проекта и удаляет записи, которые давно не использовались
+     */
+    public static SheetCache open(Path root) {
+        Path directory = root.resolve(DIRECTORY_NAME);
+        SheetCache cache = new SheetCache(directory);
+        cache.removeStaleEntries();
+        return cache;
+    }
+
+    /**
+     * Читает лист из кэша, а при отсутствии записи - из файла с сохранением записи
+     * @return false если лист не найден
+     */
+    public boolean readSheet(File file, String sheetName, SheetRowHandler handler) throws IOException {
+        Path entryFile;
+        try {
+            entryFile = directory.resolve(entryName(file, sheetName));
+        } catch (IOException e) {
+            log.debug("Кэш листа недоступен для {}: {}", file.getName(), e.getMessage());
+            misses.incrementAndGet();
+            return sheetReader.readSheet(file, sheetName, handler);
+        }
+
+        int cachedRows = readEntry(entryFile, sheetName, handler);
+        if (cachedRows != NOT_CACHED) {
+            hits.incrementAndGet();
+            log.debug("💾 Лист '{}' файла {} взят из кэша: {} строк", sheetName, file.getName(), cachedRows);
+            return true;
+        }
+
+        misses.incrementAndGet();
+        EntryWriter writer = openWriter(entryFile, sheetName);
+        if (writer == null) {
+            return sheetReader.readSheet(file, sheetName, handler);
+        }
+        try (writer) {
+            if (!sheetReader.readSheet(file, sheetName, writer.andThen(handler))) {
+                return false;
+            }
+            writer.commit();
+        }
+        return true;
+    }
+
+    /**
+     * Сводка использования кэша для лога
+     */
+    public String describeStats() {
+        return "из кэша " + hits.get() + ", разобрано " + misses.get();
+    }
+
+    private String entryName(File file, String sheetName) throws IOException {
+        FileStamp stamp = new FileStamp(file.toPath().toAbsolutePath().normalize(), file.length(), file.lastModified());
+        String contentHash = contentHashes.get(stamp);
+        if (contentHash == null) {
+            contentHash = ProcessingManifest.hashFile(stamp.path());
+            contentHashes.put(stamp, contentHash);
+        }
+        String sheetHash = ProcessingManifest.sha256(sheetName.getBytes(StandardCharsets.UTF_8)).substring(0, 8);
+        return contentHash + "-" + sheetHash + ENTRY_EXTENSION;
+    }
+
+    /**
+     * Передает строки записи обработчику по мере чтения. Устаревшая, неполная или поврежденная запись
+     * удаляется. Контрольная сумма проверяется до передачи первой строки; если запись все же окажется
+     * поврежденной после передачи строк, чтение листа прерывается ошибкой, так как повторно передать
+     * строки из файла уже нельзя
+     * @return количество строк или NOT_CACHED, если годной записи нет
+     */
+    private int readEntry(Path entryFile, String sheetName, SheetRowHandler handler) throws IOException {
+        if (!Files.isRegularFile(entryFile)) {
+            return NOT_CACHED;
+        }
+
+        int expectedRows;
+        int handledRows = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entryFile), BUFFER_SIZE))) {
+            expectedRows = readHeader(in, entryFile, sheetName);
+            if (expectedRows != NOT_CACHED) {
+                List<String> strings = new ArrayList<>();
+                for (SheetRow row = nextRow(in, strings); row != null; row = nextRow(in, strings)) {
+                    handler.handleRow(row);
+                    handledRows++;
+                }
+                if (handledRows != expectedRows) {
+                    throw new StreamCorruptedException("строк " + handledRows + " вместо " + expectedRows);
+                }
+            }
+        } catch (IOException e) {
+            deleteQuietly(entryFile);
+            if (handledRows > 0) {
+                throw new IOException("Запись кэша " + entryFile.getFileName() + " повреждена после чтения "
+                        + handledRows + " строк: " + e.getMessage(), e);
+            }
+            log.warn("⚠️ Запись кэша {} повреждена и будет перестроена", entryFile.getFileName());
+            return NOT_CACHED;
+        }
+
+        if (expectedRows == NOT_CACHED) {
+            // Файл закрыт до удаления: в Windows открытый файл удалить нельзя
+            deleteQuietly(entryFile);
+            return NOT_CACHED;
+        }
+        try {
+            // Дата изменения записи - время последнего использования
+            Files.setLastModifiedTime(entryFile, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Не удалось обновить дату записи кэша {}: {}", entryFile.getFileName(), e.getMessage());
+        }
+        return handledRows;
+    }
+
+    /**
+     * @return число строк листа или NOT_CACHED для записи другой версии или другого листа
+     */
+    private int readHeader(DataInputStream in, Path entryFile, String sheetName) throws IOException {
+        long fileSize = Files.size(entryFile);
+        if (fileSize < HEADER_BYTES || in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            return NOT_CACHED;
+        }
+        long dataLength = in.readLong();
+        int rowCount = in.readInt();
+        int checksum = in.readInt();
+        if (dataLength != fileSize - HEADER_BYTES) {
+            throw new StreamCorruptedException("длина записи " + fileSize);
+        }
+        if (checksum != checksum(entryFile)) {
+            throw new StreamCorruptedException("контрольная сумма не совпадает");
+        }
+        return sheetName.equals(readString(in)) ? rowCount : NOT_CACHED;
+    }
+
+    /**
+     * CRC32 данных записи после заголовка: отдельный проход чтения, дешевый по сравнению с разбором xlsx
+     */
+    private static int checksum(Path entryFile) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            in.skipNBytes(HEADER_BYTES);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Читает записи до следующей строки листа, запоминая встреченные тексты
+     * @return строка листа или null в конце записи
+     */
+    private SheetRow nextRow(DataInputStream in, List<String> strings) throws IOException {
+        try {
+            while (true) {
+                byte record = in.readByte();
+                switch (record) {
+                    case STRING_RECORD -> strings.add(readString(in));
+                    case ROW_RECORD -> {
+                        return decodeRow(in, strings);
+                    }
+                    case END_RECORD -> {
+                        return null;
+                    }
+                    default -> throw new StreamCorruptedException("неизвестная запись " + record);
+                }
+            }
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException e) {
+            throw new StreamCorruptedException(e.getMessage());
+        }
+    }
+
+    private SheetRow decodeRow(DataInputStream in, List<String> strings) throws IOException {
+        int rowIndex = in.readInt();
+        SheetCell[] cells = new SheetCell[in.readInt()];
+        int presentCells = in.readInt();
+        for (int cell = 0; cell < presentCells; cell++) {
+            int columnIndex = in.readInt();
+            cells[columnIndex] = decodeCell(in, columnIndex, strings);
+        }
+        return new SheetRow(rowIndex, cells);
+    }
+
+    private SheetCell decodeCell(DataInputStream in, int columnIndex, List<String> strings) throws IOException {
+        CellType cellType = CELL_TYPES[in.readByte()];
+        CellType resultType = CELL_TYPES[in.readByte()];
+        byte flags = in.readByte();
+        double number = in.readDouble();
+        String text = stringAt(strings, in.readInt());
+        String formula = stringAt(strings, in.readInt());
+
+        SheetCell value = switch (resultType) {
+            case NUMERIC -> (flags & 1) != 0
+                    ? SheetCell.ofDate(columnIndex, number, (flags & 2) != 0)
+                    : SheetCell.ofNumber(columnIndex, number);
+            case STRING -> SheetCell.ofString(columnIndex, text);
+            case BOOLEAN -> SheetCell.ofBoolean(columnIndex, number != 0);
+            case ERROR -> SheetCell.ofError(columnIndex, text);
+            default -> SheetCell.ofBlank(columnIndex);
+        };
+        return cellType == CellType.FORMULA ? SheetCell.ofFormula(columnIndex, formula, value) : value;
+    }
+
+    private static String stringAt(List<String> strings, int index) {
+        return index == NO_STRING ? null : strings.get(index);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new StreamCorruptedException("длина текста " + length);
+        }
+        // readNBytes не выделяет буфер заявленной длины заранее: поврежденная длина не займет всю кучу
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Создает временный файл записи; при ошибке лист читается без сохранения в кэш
+     * @return null, если запись создать не удалось
+     */
+    private EntryWriter openWriter(Path entryFile, String sheetName) {
+        Path tempFile = null;
+        try {
+            if (!Files.isDirectory(directory)) {
+                Files.createDirectories(directory);
+                hideDirectory();
+            }
+            tempFile = Files.createTempFile(directory, "entry", ".tmp");
+            return new EntryWriter(entryFile, tempFile, sheetName);
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось сохранить лист в кэш {}: {}", entryFile.getFileName(), e.getMessage());
+            deleteQuietly(tempFile);
+            return null;
+        }
+    }
+
+    /**
+     * Пишет запись во временный файл по мере разбора листа. Формат: заголовок, затем записи строк листа
+     * с непустыми ячейками; каждый новый текст (значение, формула) записывается один раз перед первой
+     * строкой, где он встречается, а ячейки ссылаются на него по номеру. Длина данных, число строк
+     * и контрольная сумма дописываются в заголовок в конце, после чего временный файл заменяет запись.
+     * Ошибка записи не прерывает обработку: запись просто не сохраняется.
+     */
+    private static final class EntryWriter implements SheetRowHandler, Closeable {
+        private final Path entryFile;
+        private final Path tempFile;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final CRC32 crc = new CRC32();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private int rowCount;
+        private IOException failure;
+        private boolean committed;
+
+        private EntryWriter(Path entryFile, Path tempFile, String sheetName) throws IOException {
+            this.entryFile = entryFile;
+            this.tempFile = tempFile;
+            this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION);
+            header.position(HEADER_BYTES).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            // Данные после заголовка пишутся через контрольную сумму
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), BUFFER_SIZE));
+            writeString(out, sheetName);
+        }
+
+        @Override
+        public void handleRow(SheetRow row) {
+            if (failure != null) return;
+            try {
+                writeRow(row);
+                rowCount++;
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        private void writeRow(SheetRow row) throws IOException {
+            int presentCells = 0;
+            for (int column = 0; column < row.getLastCellNum(); column++) {
+                SheetCell cell = row.getCell(column);
+                if (cell == null) continue;
+                presentCells++;
+                defineString(cell.getText());
+                defineString(cell.getFormula());
+            }
+
+            out.writeByte(ROW_RECORD);
+            out.writeInt(row.getRowIndex());
+            out.writeInt(row.getLastCellNum());
+            out.writeInt(presentCells);
+            for (int column = 0; column < row.getLastCellNum(); column++) {
+                SheetCell cell = row.getCell(column);
+                if (cell == null) continue;
+                out.writeInt(column);
+                out.writeByte(cell.getCellType().ordinal());
+                out.writeByte(cell.getResultType().ordinal());
+                out.writeByte((cell.isDateFormatted() ? 1 : 0) | (cell.isDate1904() ? 2 : 0));
+                out.writeDouble(cell.getNumber());
+                out.writeInt(cell.getText() != null ? stringIds.get(cell.getText()) : NO_STRING);
+                out.writeInt(cell.getFormula() != null ? stringIds.get(cell.getFormula()) : NO_STRING);
+            }
+        }
+
+        private void defineString(String value) throws IOException {
+            if (value == null || stringIds.containsKey(value)) return;
+            stringIds.put(value, stringIds.size());
+            out.writeByte(STRING_RECORD);
+            writeString(out, value);
+        }
+
+        /**
+         * Завершает запись и заменяет ею прежнюю. Если замена не удалась (например, в Windows запись
+         * в этот момент читает другой поток), лист остается без записи в кэше до следующего запуска
+         */
+        void commit() {
+            try {
+                if (failure != null) throw failure;
+                out.writeByte(END_RECORD);
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES - LENGTH_POSITION);
+                header.putLong(channel.size() - HEADER_BYTES).putInt(rowCount).putInt((int) crc.getValue()).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, LENGTH_POSITION + header.position());
+                }
+                out.close();
+                Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+            } catch (IOException e) {
+                log.warn("⚠️ Не удалось сохранить лист в кэш {}: {}", entryFile.getFileName(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("Не удалось закрыть временный файл {}: {}", tempFile, e.getMessage());
+            }
+            if (!committed) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    private void removeStaleEntries() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        long threshold = System.currentTimeMillis() - MAX_ENTRY_AGE.toMillis();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            int removed = 0;
+            for (Path entry : entries) {
+                if (Files.getLastModifiedTime(entry).toMillis() < threshold) {
+                    Files.deleteIfExists(entry);
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                log.info("🧹 Удалено устаревших записей кэша листов: {}", removed);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось очистить кэш листов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * В Windows помечает папку кэша скрытой (в остальных системах она скрыта за счет точки в имени)
+     */
+    private void hideDirectory() {
+        try {
+            Files.setAttribute(directory, "dos:hidden", true);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Атрибут dos:hidden поддерживается не везде
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Не удалось удалить временный файл {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.tsb.noise.service.catalog;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * Файл или папка, пропущенные при обходе как артефакты программы или Excel
+ */
+@Value
+public class SkippedFile {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Reason {
+        GENERATED_OUTPUT("выходные файлы \"В записку\""),
+        LOCK_FILE("файлы блокировки Excel (~$)"),
+        GENERATED_FOLDER("папки перечня РТ и сводной таблицы");
+
+        private final String displayName;
+    }
+
+    Path path;
+    Reason reason;
+}
@@ -0,0 +1,55 @@
+package com.tsb.noise.service.metrics;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Замеры обработки одного файла или создания перечня РТ / сводной таблицы
+ */
+@Value
+public class FileMetrics {
+    /** Путь исходного файла относительно корня папки проекта или название выходной таблицы */
+    String name;
+    /** Имя выходного файла; null, если файл не создан */
+    String outputFile;
+    boolean success;
+    List<StageMetrics> stages;
+    long rowsIn;
+    long rowsOut;
+    int stylesCreated;
+    long outputBytes;
+
+    public long getWallNanos() {
+        return stages.stream().mapToLong(StageMetrics::getWallNanos).sum();
+    }
+
+    /**
+     * Краткая строка для журнала: время по этапам, процессорное время и выделенная память
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        long cpuNanos = 0;
+        long allocatedBytes = 0;
+        for (StageMetrics stage : stages) {
+            if (!description.isEmpty()) {
+                description.append(", ");
+            }
+            description.append(stage.getStage().getDisplayName()).append(' ')
+                    .append(stage.getWallNanos() / 1_000_000).append(" мс");
+            cpuNanos = cpuNanos < 0 || stage.getCpuNanos() < 0 ? -1 : cpuNanos + stage.getCpuNanos();
+            allocatedBytes = allocatedBytes < 0 || stage.getAllocatedBytes() < 0 ? -1
+                    : allocatedBytes + stage.getAllocatedBytes();
+        }
+        description.append(" | всего ").append(getWallNanos() / 1_000_000).append(" мс");
+        if (cpuNanos >= 0) {
+            description.append(", CPU ").append(cpuNanos / 1_000_000).append(" мс");
+        }
+        if (allocatedBytes >= 0) {
+            description.append(", выделено ").append(allocatedBytes / (1024 * 1024)).append(" МБ");
+        }
+        description.append(", строк ").append(rowsIn).append(" → ").append(rowsOut)
+                .append(", стилей ").append(stylesCreated);
+        return description.toString();
+    }
+}
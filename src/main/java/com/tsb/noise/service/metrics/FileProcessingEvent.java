@@ -0,0 +1,34 @@
+package com.tsb.noise.service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR: обработка одного файла или создание перечня РТ / сводной таблицы
+ */
+@Name("com.tsb.noise.FileProcessing")
+@Label("Обработка файла")
+@Category({"Noise", "Обработка"})
+@Description("Обработка файла УЗД или создание перечня РТ / сводной таблицы")
+@StackTrace(false)
+public class FileProcessingEvent extends Event {
+
+    @Label("Файл")
+    public String fileName;
+
+    @Label("Тип файла")
+    public String fileType;
+
+    @Label("Строк на входе")
+    public long rowsIn;
+
+    @Label("Строк на выходе")
+    public long rowsOut;
+
+    @Label("Успешно")
+    public boolean success;
+}
@@ -0,0 +1,44 @@
+package com.tsb.noise.service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Событие JFR: операция над строками плана. Операции конвейера выполняются за один общий проход,
+ * поэтому длительность события - длительность всего прохода; время самой операции (без стадий после нее)
+ * и строки считаются для каждой операции отдельно
+ */
+@Name("com.tsb.noise.RowOperation")
+@Label("Операция над строками")
+@Category({"Noise", "Обработка"})
+@Description("Операция над строками плана выходного листа")
+@StackTrace(false)
+public class RowOperationEvent extends Event {
+
+    @Label("Файл")
+    public String fileName;
+
+    @Label("Тип файла")
+    public String fileType;
+
+    @Label("Операция")
+    public String operation;
+
+    @Label("Время операции")
+    @Timespan(Timespan.NANOSECONDS)
+    public long operationNanos;
+
+    @Label("Строк на входе")
+    public long rowsIn;
+
+    @Label("Строк на выходе")
+    public long rowsOut;
+
+    @Label("Изменено строк")
+    public long processedRows;
+}
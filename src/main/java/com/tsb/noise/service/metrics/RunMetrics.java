@@ -0,0 +1,77 @@
+package com.tsb.noise.service.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Замеры одного запуска обработки папки. Файлы добавляются из потоков обработки параллельно
+ */
+public final class RunMetrics {
+
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final ConcurrentLinkedQueue<FileMetrics> files = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<FileMetrics> exports = new ConcurrentLinkedQueue<>();
+    private volatile long durationNanos = -1;
+
+    public void addFile(FileMetrics metrics) {
+        files.add(metrics);
+    }
+
+    /**
+     * Замеры создания перечня РТ или сводной таблицы
+     */
+    public void addExport(FileMetrics metrics) {
+        exports.add(metrics);
+    }
+
+    /**
+     * Фиксирует длительность запуска
+     */
+    public void finish() {
+        durationNanos = System.nanoTime() - startNanos;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * Длительность запуска; до {@link #finish()} - время с начала
+     */
+    public long getDurationNanos() {
+        long duration = durationNanos;
+        return duration >= 0 ? duration : System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Обработанные файлы по пути в папке проекта (потоки завершают их в произвольном порядке)
+     */
+    public List<FileMetrics> getFiles() {
+        List<FileMetrics> sorted = new ArrayList<>(files);
+        sorted.sort(Comparator.comparing(FileMetrics::getName));
+        return sorted;
+    }
+
+    public List<FileMetrics> getExports() {
+        return List.copyOf(exports);
+    }
+
+    /**
+     * Суммы по этапам для всех файлов и таблиц запуска
+     */
+    public Map<Stage, StageMetrics> totalsByStage() {
+        Map<Stage, StageMetrics> totals = new EnumMap<>(Stage.class);
+        for (FileMetrics file : files) {
+            file.getStages().forEach(stage -> totals.merge(stage.getStage(), stage, StageMetrics::plus));
+        }
+        for (FileMetrics export : exports) {
+            export.getStages().forEach(stage -> totals.merge(stage.getStage(), stage, StageMetrics::plus));
+        }
+        return totals;
+    }
+}
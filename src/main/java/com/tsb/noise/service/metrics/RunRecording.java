@@ -0,0 +1,71 @@
+package com.tsb.noise.service.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Запись Java Flight Recorder на время одного запуска обработки.
+ * Файл .jfr сохраняется в корень папки проекта рядом с результатами и содержит события
+ * {@link FileProcessingEvent}, {@link StageEvent}, {@link RowOperationEvent} и стандартные события JVM
+ */
+@Slf4j
+public final class RunRecording {
+
+    /** Настройки JFR: profile - с выборкой стеков методов, достаточной для поиска причин замедления */
+    private static final String CONFIGURATION = "profile";
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Recording recording;
+    private final Path outputFile;
+
+    private RunRecording(Recording recording, Path outputFile) {
+        this.recording = recording;
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Начинает запись
+     * @param root папка проекта, в которую будет сохранен файл .jfr
+     * @throws IOException если JFR недоступен или настройки не прочитаны
+     */
+    public static RunRecording start(Path root) throws IOException {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(CONFIGURATION));
+        } catch (ParseException | IllegalStateException | SecurityException e) {
+            throw new IOException("JFR недоступен: " + e.getMessage(), e);
+        }
+        recording.setName("noise-run");
+        recording.setToDisk(true);
+        recording.enable(FileProcessingEvent.class);
+        recording.enable(StageEvent.class);
+        recording.enable(RowOperationEvent.class);
+        recording.start();
+
+        Path outputFile = root.resolve("noise-run-" + LocalDateTime.now().format(FILE_TIME_FORMAT) + ".jfr");
+        log.info("🎥 Запись JFR начата: {}", outputFile);
+        return new RunRecording(recording, outputFile);
+    }
+
+    /**
+     * Останавливает запись и сохраняет файл
+     * @return путь к файлу .jfr
+     */
+    public Path stop() throws IOException {
+        try {
+            recording.stop();
+            recording.dump(outputFile);
+            log.info("🎥 Запись JFR сохранена: {}", outputFile);
+            return outputFile;
+        } finally {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.tsb.noise.service.metrics;
+
+import com.tsb.noise.service.ProcessingResult;
+import com.tsb.noise.service.utils.JsonWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JSON-отчет о запуске обработки: итоги, суммы по этапам и замеры каждого файла.
+ * Записывается в корень папки проекта рядом с результатами, каждый запуск перезаписывает отчет
+ */
+public final class RunReport {
+
+    public static final String FILE_NAME = "noise-run-report.json";
+
+    private RunReport() {
+    }
+
+    /**
+     * Записывает отчет в корень папки проекта
+     * @return путь к отчету
+     */
+    public static Path write(Path root, ProcessingResult result) throws IOException {
+        Path reportFile = root.resolve(FILE_NAME);
+        Files.writeString(reportFile, toJson(result) + System.lineSeparator(), StandardCharsets.UTF_8);
+        return reportFile;
+    }
+
+    public static String toJson(ProcessingResult result) {
+        RunMetrics metrics = result.getMetrics();
+        JsonWriter json = new JsonWriter().beginObject();
+        if (metrics != null) {
+            json.name("startedAt").value(Instant.ofEpochMilli(metrics.getStartedAtMillis()).toString())
+                    .name("durationMillis").value(toMillis(metrics.getDurationNanos()));
+        }
+        json.name("success").value(result.isSuccess())
+                .name("cancelled").value(result.isCancelled())
+                .name("totalFiles").value(result.getTotalFiles())
+                .name("processedFiles").value(result.getProcessedFiles())
+                .name("failedFiles").value(result.getFailedFiles())
+                .name("upToDateFiles").value(result.getUpToDateFiles());
+
+        json.name("stages").beginArray();
+        if (metrics != null) {
+            metrics.totalsByStage().values().forEach(stage -> writeStage(json, stage));
+        }
+        json.endArray();
+
+        json.name("files");
+        writeFiles(json, metrics != null ? metrics.getFiles() : List.of());
+        json.name("exports");
+        writeFiles(json, metrics != null ? metrics.getExports() : List.of());
+        return json.endObject().toString();
+    }
+
+    private static void writeFiles(JsonWriter json, List<FileMetrics> files) {
+        json.beginArray();
+        for (FileMetrics file : files) {
+            json.beginObject()
+                    .name("name").value(file.getName())
+                    .name("outputFile").value(file.getOutputFile())
+                    .name("success").value(file.isSuccess())
+                    .name("wallMillis").value(toMillis(file.getWallNanos()))
+                    .name("rowsIn").value(file.getRowsIn())
+                    .name("rowsOut").value(file.getRowsOut())
+                    .name("stylesCreated").value(file.getStylesCreated())
+                    .name("outputBytes").value(file.getOutputBytes())
+                    .name("stages").beginArray();
+            file.getStages().forEach(stage -> writeStage(json, stage));
+            json.endArray().endObject();
+        }
+        json.endArray();
+    }
+
+    private static void writeStage(JsonWriter json, StageMetrics stage) {
+        json.beginObject()
+                .name("stage").value(stage.getStage().name())
+                .name("wallMillis").value(toMillis(stage.getWallNanos()));
+        json.name("cpuMillis");
+        if (stage.getCpuNanos() >= 0) {
+            json.value(toMillis(stage.getCpuNanos()));
+        } else {
+            json.value((String) null);
+        }
+        json.name("allocatedBytes");
+        if (stage.getAllocatedBytes() >= 0) {
+            json.value(stage.getAllocatedBytes());
+        } else {
+            json.value((String) null);
+        }
+        json.name("rowsIn").value(stage.getRowsIn())
+                .name("rowsOut").value(stage.getRowsOut())
+                .endObject();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
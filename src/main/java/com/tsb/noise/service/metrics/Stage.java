@@ -0,0 +1,26 @@
+package com.tsb.noise.service.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Этап обработки, для которого замеряются время и ресурсы
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Stage {
+    LAYOUT("разметка и шапка"),
+    HEADER_BORDERS("границы шапки"),
+    /** Разбор исходного листа; копирование строк (DataCopier) идет в том же потоковом проходе */
+    READ("чтение и копирование"),
+    RT_DATA("данные РТ"),
+    ROW_OPERATIONS("операции над строками"),
+    PLAN_WRITE("запись строк"),
+    /** Сбор исходных данных перечня РТ или сводной таблицы */
+    COLLECT("сбор данных"),
+    /** Построение листа перечня РТ или сводной таблицы */
+    FILL("заполнение таблицы"),
+    SAVE("сохранение");
+
+    private final String displayName;
+}
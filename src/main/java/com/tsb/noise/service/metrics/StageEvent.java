@@ -0,0 +1,34 @@
+package com.tsb.noise.service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR: этап обработки файла ({@link Stage})
+ */
+@Name("com.tsb.noise.Stage")
+@Label("Этап обработки")
+@Category({"Noise", "Обработка"})
+@Description("Этап обработки файла: чтение, данные РТ, операции над строками, запись, сохранение")
+@StackTrace(false)
+public class StageEvent extends Event {
+
+    @Label("Файл")
+    public String fileName;
+
+    @Label("Тип файла")
+    public String fileType;
+
+    @Label("Этап")
+    public String stage;
+
+    @Label("Строк на входе")
+    public long rowsIn;
+
+    @Label("Строк на выходе")
+    public long rowsOut;
+}
@@ -0,0 +1,30 @@
+package com.tsb.noise.service.metrics;
+
+import lombok.Value;
+
+/**
+ * Замер одного этапа: время, процессорное время и выделенная память потока, строки на входе и выходе.
+ * Процессорное время и память равны -1, если JVM их не измеряет
+ */
+@Value
+public class StageMetrics {
+    Stage stage;
+    long wallNanos;
+    long cpuNanos;
+    long allocatedBytes;
+    long rowsIn;
+    long rowsOut;
+
+    /**
+     * Сумма замеров одного этапа (для итогов по запуску)
+     */
+    StageMetrics plus(StageMetrics other) {
+        return new StageMetrics(stage, wallNanos + other.wallNanos,
+                sumMeasured(cpuNanos, other.cpuNanos), sumMeasured(allocatedBytes, other.allocatedBytes),
+                rowsIn + other.rowsIn, rowsOut + other.rowsOut);
+    }
+
+    private static long sumMeasured(long a, long b) {
+        return a < 0 || b < 0 ? -1 : a + b;
+    }
+}
@@ -0,0 +1,130 @@
+package com.tsb.noise.service.metrics;
+
+import com.tsb.noise.model.FileType;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Замер этапов обработки одного файла в текущем потоке.
+ * Этапы идут последовательно: {@link #start(Stage)} - {@link #finish(long, long)}.
+ * Файл и каждый этап также публикуются событиями JFR ({@link FileProcessingEvent}, {@link StageEvent}).
+ * Не потокобезопасен - создается на каждый файл в потоке, который его обрабатывает
+ */
+public final class StageRecorder {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+    private static final boolean ALLOCATION_SUPPORTED = THREADS instanceof com.sun.management.ThreadMXBean threads
+            && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+
+    private final String name;
+    private final String fileType;
+    private final List<StageMetrics> stages = new ArrayList<>();
+    private final FileProcessingEvent fileEvent = new FileProcessingEvent();
+
+    private Stage currentStage;
+    private StageEvent stageEvent;
+    private long wallStart;
+    private long cpuStart;
+    private long allocatedStart;
+
+    private long rowsIn;
+    private long rowsOut;
+    private int stylesCreated;
+
+    public StageRecorder(String name) {
+        this(name, null);
+    }
+
+    /**
+     * @param fileType тип обрабатываемого файла; null - перечень РТ или сводная таблица
+     */
+    public StageRecorder(String name, FileType fileType) {
+        this.name = name;
+        this.fileType = fileType != null ? fileType.name() : null;
+        fileEvent.begin();
+    }
+
+    public void start(Stage stage) {
+        currentStage = stage;
+        stageEvent = new StageEvent();
+        stageEvent.begin();
+        cpuStart = cpuTime();
+        allocatedStart = allocatedBytes();
+        wallStart = System.nanoTime();
+    }
+
+    /**
+     * Завершает текущий этап
+     * @param stageRowsIn строк на входе этапа
+     * @param stageRowsOut строк на выходе этапа
+     */
+    public void finish(long stageRowsIn, long stageRowsOut) {
+        if (currentStage == null) {
+            throw new IllegalStateException("Этап не начат");
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        long cpuNanos = CPU_TIME_SUPPORTED ? cpuTime() - cpuStart : -1;
+        long allocated = ALLOCATION_SUPPORTED ? allocatedBytes() - allocatedStart : -1;
+        stages.add(new StageMetrics(currentStage, wallNanos, cpuNanos, allocated, stageRowsIn, stageRowsOut));
+
+        stageEvent.end();
+        if (stageEvent.shouldCommit()) {
+            stageEvent.fileName = name;
+            stageEvent.fileType = fileType;
+            stageEvent.stage = currentStage.name();
+            stageEvent.rowsIn = stageRowsIn;
+            stageEvent.rowsOut = stageRowsOut;
+            stageEvent.commit();
+        }
+        currentStage = null;
+        stageEvent = null;
+    }
+
+    public void finish() {
+        finish(0, 0);
+    }
+
+    /**
+     * Строки исходного листа и выходной таблицы файла
+     */
+    public void setRows(long rowsIn, long rowsOut) {
+        this.rowsIn = rowsIn;
+        this.rowsOut = rowsOut;
+    }
+
+    public void setStylesCreated(int stylesCreated) {
+        this.stylesCreated = stylesCreated;
+    }
+
+    /**
+     * Итог по файлу; вызывается один раз. Незавершенный этап (например, прерванный ошибкой) не учитывается
+     */
+    public FileMetrics toMetrics(File outputFile, boolean success) {
+        fileEvent.end();
+        if (fileEvent.shouldCommit()) {
+            fileEvent.fileName = name;
+            fileEvent.fileType = fileType;
+            fileEvent.rowsIn = rowsIn;
+            fileEvent.rowsOut = rowsOut;
+            fileEvent.success = success;
+            fileEvent.commit();
+        }
+
+        boolean written = success && outputFile != null && outputFile.isFile();
+        return new FileMetrics(name, written ? outputFile.getName() : null, success, List.copyOf(stages),
+                rowsIn, rowsOut, stylesCreated, written ? outputFile.length() : 0);
+    }
+
+    private static long cpuTime() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATION_SUPPORTED ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : 0;
+    }
+}
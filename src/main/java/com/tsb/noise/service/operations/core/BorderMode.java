@@ -0,0 +1,45 @@
+package com.tsb.noise.service.operations.core;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Способ оформления сетки границ строк таблицы
+ */
+@Slf4j
+@Getter
+public enum BorderMode {
+    /**
+     * Каждая позиция A-M получает ячейку со стилем границ, в том числе пустая
+     */
+    CELLS("ячейки"),
+
+    /**
+     * Границы существующих ячеек задаются их стилем, а пустые позиции оформляются одним правилом
+     * условного форматирования на диапазон таблицы - пустые ячейки не создаются
+     */
+    RANGE_RULE("правило диапазона");
+
+    private static final String MODE_PROPERTY = "noise.border.mode";
+
+    private final String displayName;
+
+    BorderMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Способ, заданный свойством noise.border.mode (cells | range); по умолчанию - ячейки
+     */
+    public static BorderMode configured() {
+        String value = System.getProperty(MODE_PROPERTY, "cells").trim();
+        return switch (value.toLowerCase()) {
+            case "cells" -> CELLS;
+            case "range", "range_rule" -> RANGE_RULE;
+            default -> {
+                log.warn("⚠️ Неизвестный способ оформления границ '{}', используются ячейки", value);
+                yield CELLS;
+            }
+        };
+    }
+}
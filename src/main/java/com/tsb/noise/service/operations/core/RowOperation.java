@@ -1,21 +1,31 @@
 package com.tsb.noise.service.operations.core;
 
-import org.apache.poi.ss.usermodel.Sheet;
+import com.tsb.noise.service.operations.plan.RowPlan;
+
+import java.util.List;
 
 /**
- * Интерфейс для операций над строками Excel
+ * Интерфейс для операций над строками Excel. Операция описывается стадией конвейера,
+ * поэтому несколько операций выполняются за один проход по плану (RowPipeline).
  */
 public interface RowOperation {
 
     /**
-     * Выполняет операцию над листом
-     * @param sheet лист для обработки
+     * Создает стадию операции для одного прохода по плану
+     */
+    RowStage createStage();
+
+    /**
+     * Выполняет только эту операцию над планом выходного листа
+     * @param plan план строк для обработки
      * @return количество измененных строк
      */
-    int execute(Sheet sheet);
+    default int execute(RowPlan plan) {
+        return RowPipeline.of(List.of(this)).run(plan)[0];
+    }
 
     /**
      * Возвращает название операции для логирования
      */
     String getOperationName();
-}
\ No newline at end of file
+}
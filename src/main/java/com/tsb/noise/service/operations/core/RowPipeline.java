@@ -0,0 +1,121 @@
+package com.tsb.noise.service.operations.core;
+
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.metrics.RowOperationEvent;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Объединяет операции над строками в один проход: каждая строка плана проходит через стадии всех
+ * операций по порядку, и каждая стадия видит тот же вход, что при последовательном выполнении операций.
+ * Итоговая последовательность строк заменяет план один раз в конце прохода.
+ */
+@Slf4j
+public class RowPipeline {
+
+    private final List<RowOperation> operations;
+
+    private RowPipeline(List<RowOperation> operations) {
+        this.operations = List.copyOf(operations);
+    }
+
+    public static RowPipeline of(List<RowOperation> operations) {
+        return new RowPipeline(operations);
+    }
+
+    public List<RowOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Выполняет все операции за один проход по плану
+     * @return количество измененных строк по каждой операции (в порядке операций)
+     */
+    public int[] run(RowPlan plan) {
+        return run(plan, null, null);
+    }
+
+    /**
+     * Выполняет все операции за один проход по плану и публикует по событию JFR на операцию.
+     * Пока события включены, время каждой стадии замеряется при передаче ей строк: из времени стадии
+     * вычитается время следующей, которой она передает свои строки, - остается время самой операции
+     * @param fileName файл для событий; может быть null
+     * @param fileType тип файла для событий; может быть null
+     * @return количество измененных строк по каждой операции (в порядке операций)
+     */
+    public int[] run(RowPlan plan, String fileName, FileType fileType) {
+        List<PlanRow> result = new ArrayList<>(plan.size());
+        List<RowStage> stages = new ArrayList<>(operations.size());
+        List<RowStage.Sink> inputs = new ArrayList<>(operations.size());
+        int[] rowsIn = new int[operations.size()];
+        int[] rowsOut = new int[operations.size()];
+        // Время стадии вместе со стадиями после нее; последний элемент - приемник итоговых строк
+        long[] inclusiveNanos = new long[operations.size() + 1];
+        List<RowOperationEvent> events = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            RowOperationEvent event = new RowOperationEvent();
+            event.begin();
+            events.add(event);
+        }
+        boolean timed = !events.isEmpty() && events.get(0).isEnabled();
+
+        // Вход каждой стадии считает свои строки: позиция - номер строки в плане, который видела бы операция
+        RowStage.Sink downstream = result::add;
+        for (int index = operations.size() - 1; index >= 0; index--) {
+            RowStage stage = operations.get(index).createStage();
+            int operationIndex = index;
+            RowStage.Sink target = downstream;
+            RowStage.Sink next = row -> {
+                rowsOut[operationIndex]++;
+                target.emit(row);
+            };
+            downstream = timed
+                    ? row -> {
+                        long start = System.nanoTime();
+                        stage.accept(row, rowsIn[operationIndex]++, next);
+                        inclusiveNanos[operationIndex] += System.nanoTime() - start;
+                    }
+                    : row -> stage.accept(row, rowsIn[operationIndex]++, next);
+            stages.add(0, stage);
+            inputs.add(0, next);
+        }
+
+        for (PlanRow row : plan.getRows()) {
+            downstream.emit(row);
+        }
+        // Задержанные строки сбрасываются по порядку стадий, чтобы пройти через последующие
+        for (int index = 0; index < stages.size(); index++) {
+            long start = timed ? System.nanoTime() : 0;
+            stages.get(index).finish(inputs.get(index));
+            if (timed) {
+                inclusiveNanos[index] += System.nanoTime() - start;
+            }
+        }
+
+        plan.replaceRows(result);
+
+        int[] processedCounts = new int[stages.size()];
+        for (int index = 0; index < stages.size(); index++) {
+            processedCounts[index] = stages.get(index).getProcessedCount();
+
+            RowOperationEvent event = events.get(index);
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileName = fileName;
+                event.fileType = fileType != null ? fileType.name() : null;
+                event.operation = operations.get(index).getOperationName();
+                event.operationNanos = Math.max(0, inclusiveNanos[index] - inclusiveNanos[index + 1]);
+                event.rowsIn = rowsIn[index];
+                event.rowsOut = rowsOut[index];
+                event.processedRows = processedCounts[index];
+                event.commit();
+            }
+        }
+        log.debug("Операций за один проход: {}, строк в плане: {}", operations.size(), result.size());
+        return processedCounts;
+    }
+}
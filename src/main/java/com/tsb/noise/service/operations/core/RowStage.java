@@ -0,0 +1,36 @@
+package com.tsb.noise.service.operations.core;
+
+import com.tsb.noise.service.operations.plan.PlanRow;
+
+/**
+ * Стадия однопроходного конвейера строк: получает строки своего входа по порядку и передает дальше
+ * результат - строку без изменений, измененную, со вставленными перед ней строками или ничего (удаление).
+ * Стадия может задержать строки (например, для переноса вверх) и должна отдать их в finish.
+ */
+public interface RowStage {
+
+    /**
+     * Получатель строк следующей стадии
+     */
+    @FunctionalInterface
+    interface Sink {
+        void emit(PlanRow row);
+    }
+
+    /**
+     * Обрабатывает строку входа стадии
+     * @param position номер строки во входе стадии (0 - пустая строка после шапки)
+     */
+    void accept(PlanRow row, int position, Sink downstream);
+
+    /**
+     * Конец прохода: отдает задержанные строки
+     */
+    default void finish(Sink downstream) {
+    }
+
+    /**
+     * Количество строк, к которым применена операция
+     */
+    int getProcessedCount();
+}
@@ -13,7 +13,7 @@ public class SheetLayoutManager {
     public void setupSheetLayout(Sheet sheet) {
         // Устанавливаем высоту строки 8мм для ВСЕХ строк
         short rowHeightInPoints = mmToPoints(ROW_HEIGHT_MM);
-        sheet.setDefaultRowHeight(rowHeightInPoints);
+        sheet.setDefaultRowHeightInPoints(rowHeightInPoints); // setDefaultRowHeight ждет twips (1/20 pt)
 
         // Устанавливаем ширину колонок
         sheet.setColumnWidth(0, cmToUnits(1.5));  // Колонка A - 1.5см
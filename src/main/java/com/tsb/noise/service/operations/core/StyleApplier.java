@@ -2,56 +2,119 @@ package com.tsb.noise.service.operations.core;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
 
+/**
+ * Оформление ячеек выходных таблиц. Стили берутся из StyleRegistry выходной книги, который передает
+ * владелец книги, поэтому каждое уникальное оформление создается в книге один раз.
+ */
 @Slf4j
 public class StyleApplier {
 
     private static final short FONT_HEIGHT = 10;
     private static final String FONT_NAME = "Arial Narrow";
+    private static final int LAST_BORDER_COLUMN = 12; // Колонка M
+    private static final int HIDDEN_COLUMN = 2;       // Колонка C
+
+    /**
+     * Базовое оформление: Arial Narrow 10pt, по центру, БЕЗ автопереноса
+     */
+    public static final StyleSpec BASE_SPEC = StyleSpec.DEFAULT.centered().withFont(FONT_NAME, FONT_HEIGHT, false);
+
+    private static final StyleSpec HEADER_SPEC = BASE_SPEC.withSolidFill(IndexedColors.GREY_25_PERCENT);
+
+    private static final StyleSpec RT_HEADER_SPEC = BASE_SPEC
+            .withFont(FONT_NAME, 11, true)
+            .withBorders(BorderStyle.THIN)
+            .withSolidFill(IndexedColors.LIGHT_YELLOW);
 
     /**
      * Применяет тонкие границы ко всей таблице БЕЗ автопереноса
      */
-    public void applyTableBorders(Sheet sheet) {
+    public void applyTableBorders(Sheet sheet, StyleRegistry registry) {
         log.info("🎨 Применение границ ко всей таблице...");
 
-        Workbook workbook = sheet.getWorkbook();
-        CellStyle borderStyle = createBorderStyle(workbook);
+        CellStyle borderStyle = registry.get(BASE_SPEC.withBorders(BorderStyle.THIN));
 
         int styledCells = 0;
 
         for (int rowIndex = 0; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
             Row row = sheet.getRow(rowIndex);
             if (row != null) {
-                for (int colIndex = 0; colIndex <= 12; colIndex++) { // A-M (после скрытия C)
-                    if (colIndex == 2) continue; // Пропускаем скрытую колонку C
-                    Cell cell = row.getCell(colIndex);
-                    if (cell == null) {
-                        // Создаем пустую ячейку с границами
-                        cell = row.createCell(colIndex);
-                        cell.setCellStyle(borderStyle);
-                        styledCells++;
-                    } else {
-                        // Применяем стиль с границами к существующей ячейке
-                        applyBordersToExistingCell(cell, borderStyle);
-                        styledCells++;
-                    }
-                }
+                styledCells += applyRowBorders(row, registry, borderStyle, true);
             }
         }
 
-        log.info("✅ Применены тонкие границы к {} ячейкам БЕЗ автопереноса", styledCells);
+        log.info("✅ Применены тонкие границы к {} ячейкам БЕЗ автопереноса (уникальных стилей: {})",
+                styledCells, registry.size());
+    }
+
+    /**
+     * Применяет тонкие границы к ячейкам A-M одной строки (для записи строк по одной, без обхода листа)
+     * @return количество оформленных ячеек
+     */
+    public int applyRowBorders(Row row, StyleRegistry registry) {
+        return applyRowBorders(row, registry, registry.get(BASE_SPEC.withBorders(BorderStyle.THIN)), true);
+    }
+
+    /**
+     * Применяет тонкие границы только к существующим ячейкам A-M строки, пустые позиции не создаются
+     * (их оформляет applyRangeBorders)
+     * @return количество оформленных ячеек
+     */
+    public int applyExistingCellBorders(Row row, StyleRegistry registry) {
+        return applyRowBorders(row, registry, registry.get(BASE_SPEC.withBorders(BorderStyle.THIN)), false);
+    }
+
+    /**
+     * Оформляет тонкими границами строки firstRow..lastRow колонок A-M (кроме скрытой C) одним правилом
+     * условного форматирования: сетка видна и печатается, но пустые ячейки в листе не создаются
+     */
+    public void applyRangeBorders(Sheet sheet, int firstRow, int lastRow) {
+        if (lastRow < firstRow) return;
+
+        SheetConditionalFormatting formatting = sheet.getSheetConditionalFormatting();
+        ConditionalFormattingRule rule = formatting.createConditionalFormattingRule("TRUE");
+        BorderFormatting borders = rule.createBorderFormatting();
+        borders.setBorderTop(BorderStyle.THIN);
+        borders.setBorderBottom(BorderStyle.THIN);
+        borders.setBorderLeft(BorderStyle.THIN);
+        borders.setBorderRight(BorderStyle.THIN);
+
+        CellRangeAddress[] regions = {
+                new CellRangeAddress(firstRow, lastRow, 0, HIDDEN_COLUMN - 1),
+                new CellRangeAddress(firstRow, lastRow, HIDDEN_COLUMN + 1, LAST_BORDER_COLUMN)
+        };
+        formatting.addConditionalFormatting(regions, rule);
+        log.debug("🎨 Границы строк {}-{} заданы правилом диапазона", firstRow + 1, lastRow + 1);
+    }
+
+    private int applyRowBorders(Row row, StyleRegistry registry, CellStyle borderStyle, boolean createMissing) {
+        int styledCells = 0;
+        for (int colIndex = 0; colIndex <= LAST_BORDER_COLUMN; colIndex++) { // A-M (после скрытия C)
+            if (colIndex == HIDDEN_COLUMN) continue; // Пропускаем скрытую колонку C
+            Cell cell = row.getCell(colIndex);
+            if (cell == null) {
+                if (!createMissing) continue;
+                // Создаем пустую ячейку с границами
+                cell = row.createCell(colIndex);
+                cell.setCellStyle(borderStyle);
+            } else {
+                // Применяем стиль с границами к существующей ячейке
+                applyBordersToExistingCell(cell, registry, borderStyle);
+            }
+            styledCells++;
+        }
+        return styledCells;
     }
 
     /**
      * Создает стиль шапки с шрифтом Arial Narrow 10pt БЕЗ автопереноса
      */
-    public void applyHeaderStyle(Workbook workbook, Row... headerRows) {
+    public void applyHeaderStyle(StyleRegistry registry, Row... headerRows) {
         log.debug("🎨 Применение стиля шапки...");
 
-        CellStyle headerStyle = createBaseCellStyle(workbook);
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        CellStyle headerStyle = registry.get(HEADER_SPEC);
 
         for (Row row : headerRows) {
             for (Cell cell : row) {
@@ -63,73 +126,61 @@ public class StyleApplier {
     /**
      * Применяет базовый стиль с шрифтом Arial Narrow 10pt к ячейке
      */
-    public void applyCellStyleWithFont(Cell cell) {
+    public void applyCellStyleWithFont(Cell cell, StyleRegistry registry) {
+        applyCellStyleWithFont(cell, registry, false);
+    }
+
+    /**
+     * Применяет базовый стиль, при необходимости с переносом текста (подписи ПДУ в файлах ОВ)
+     */
+    public void applyCellStyleWithFont(Cell cell, StyleRegistry registry, boolean wrapText) {
         try {
-            Workbook workbook = cell.getSheet().getWorkbook();
-            CellStyle style = createBaseCellStyle(workbook);
-            cell.setCellStyle(style);
+            cell.setCellStyle(registry.get(BASE_SPEC.withWrapText(wrapText)));
         } catch (Exception e) {
             log.warn("⚠️ Не удалось применить стиль к ячейке: {}", e.getMessage());
         }
     }
 
     /**
-     * Создает базовый стиль ячейки с Arial Narrow 10pt БЕЗ автопереноса
+     * Применяет стиль к заголовку РТ с ВЫРАВНИВАНИЕМ ПО ЦЕНТРУ БЕЗ автопереноса
      */
-    private CellStyle createBaseCellStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-
-        // Выравнивание по центру
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        // УБРАН автоперенос текста
-        style.setWrapText(false);
-
-        // Шрифт Arial Narrow 10pt
-        Font font = workbook.createFont();
-        font.setFontName(FONT_NAME);
-        font.setFontHeightInPoints(FONT_HEIGHT);
-        style.setFont(font);
-
-        return style;
+    public void applyRtHeaderStyle(Cell cell, StyleRegistry registry) {
+        try {
+            cell.setCellStyle(registry.get(RT_HEADER_SPEC));
+        } catch (Exception e) {
+            log.warn("Не удалось применить стиль к заголовку РТ: {}", e.getMessage());
+        }
     }
 
     /**
-     * Создает стиль с тонкими границами
+     * Оформляет заголовок РТ без объединения: ячейки firstColumn..lastColumn получают стиль заголовка
+     * с выравниванием "по центру выделения" и общей внешней рамкой, внутренние границы не рисуются
      */
-    private CellStyle createBorderStyle(Workbook workbook) {
-        CellStyle style = createBaseCellStyle(workbook);
-
-        // Внешные и внутренние границы THIN
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-
-        return style;
+    public void applyRtHeaderAcrossSelection(Row row, StyleRegistry registry, int firstColumn, int lastColumn) {
+        StyleSpec spec = RT_HEADER_SPEC.withAlignment(HorizontalAlignment.CENTER_SELECTION);
+
+        for (int colIndex = firstColumn; colIndex <= lastColumn; colIndex++) {
+            StyleSpec cellSpec = spec
+                    .withBorderLeft(colIndex == firstColumn ? BorderStyle.THIN : BorderStyle.NONE)
+                    .withBorderRight(colIndex == lastColumn ? BorderStyle.THIN : BorderStyle.NONE);
+            Cell cell = row.getCell(colIndex);
+            if (cell == null) {
+                cell = row.createCell(colIndex);
+            }
+            cell.setCellStyle(registry.get(cellSpec));
+        }
     }
 
     /**
      * Применяет границы к существующей ячейке сохраняя другие свойства
      */
-    private void applyBordersToExistingCell(Cell cell, CellStyle borderStyle) {
+    private void applyBordersToExistingCell(Cell cell, StyleRegistry registry, CellStyle borderStyle) {
         try {
-            Workbook workbook = cell.getSheet().getWorkbook();
-            CellStyle newStyle = workbook.createCellStyle();
-
-            // Клонируем существующий стиль
-            newStyle.cloneStyleFrom(cell.getCellStyle());
-
-            // Применяем границы
-            newStyle.setBorderTop(BorderStyle.THIN);
-            newStyle.setBorderBottom(BorderStyle.THIN);
-            newStyle.setBorderLeft(BorderStyle.THIN);
-            newStyle.setBorderRight(BorderStyle.THIN);
-
-            cell.setCellStyle(newStyle);
+            StyleSpec currentSpec = registry.specOf(cell.getCellStyle());
+            cell.setCellStyle(registry.get(currentSpec.withBorders(BorderStyle.THIN)));
         } catch (Exception e) {
             log.warn("⚠️ Не удалось применить границы к ячейке: {}", e.getMessage());
             cell.setCellStyle(borderStyle);
         }
     }
-}
\ No newline at end of file
+}
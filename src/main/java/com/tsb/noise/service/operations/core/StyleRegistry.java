@@ -0,0 +1,100 @@
+package com.tsb.noise.service.operations.core;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кэш стилей и шрифтов одной книги: каждое уникальное оформление создается в книге один раз.
+ * Без кэша стиль создавался на каждую ячейку, что раздувало styles.xml и упиралось в лимит Excel в 64000 стилей.
+ * Реестр создает код, который создает и сохраняет книгу, и живет столько же, сколько книга.
+ */
+@Slf4j
+public class StyleRegistry {
+
+    private final Workbook workbook;
+    private final Map<StyleSpec, CellStyle> styles = new HashMap<>();
+    private final Map<FontKey, Font> fonts = new HashMap<>();
+    private final Map<Short, StyleSpec> specsByIndex = new HashMap<>();
+
+    public StyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Возвращает стиль по описанию, создавая его только при первом запросе
+     */
+    public CellStyle get(StyleSpec spec) {
+        CellStyle style = styles.get(spec);
+        if (style == null) {
+            style = createStyle(spec);
+            styles.put(spec, style);
+            specsByIndex.put(style.getIndex(), spec);
+        }
+        return style;
+    }
+
+    /**
+     * Возвращает описание существующего стиля книги
+     */
+    public StyleSpec specOf(CellStyle style) {
+        return specsByIndex.computeIfAbsent(style.getIndex(), index -> StyleSpec.of(style, workbook));
+    }
+
+    /**
+     * Количество созданных реестром стилей
+     */
+    public int size() {
+        return styles.size();
+    }
+
+    private CellStyle createStyle(StyleSpec spec) {
+        CellStyle style = workbook.createCellStyle();
+
+        style.setAlignment(spec.getAlignment());
+        style.setVerticalAlignment(spec.getVerticalAlignment());
+        style.setWrapText(spec.isWrapText());
+
+        style.setFont(getFont(spec));
+
+        style.setBorderTop(spec.getBorderTop());
+        style.setBorderBottom(spec.getBorderBottom());
+        style.setBorderLeft(spec.getBorderLeft());
+        style.setBorderRight(spec.getBorderRight());
+
+        if (spec.getFillPattern() != FillPatternType.NO_FILL) {
+            style.setFillForegroundColor(spec.getFillColor());
+            style.setFillPattern(spec.getFillPattern());
+        }
+
+        log.debug("🎨 Создан стиль #{}: {}", style.getIndex(), spec);
+        return style;
+    }
+
+    private Font getFont(StyleSpec spec) {
+        FontKey key = new FontKey(spec.getFontName(), spec.getFontHeightPoints(), spec.isBold());
+        return fonts.computeIfAbsent(key, k -> {
+            Font font = workbook.createFont();
+            if (k.getName() != null) {
+                font.setFontName(k.getName());
+            }
+            if (k.getHeightPoints() > 0) {
+                font.setFontHeightInPoints(k.getHeightPoints());
+            }
+            if (k.isBold()) {
+                font.setBold(true);
+            }
+            return font;
+        });
+    }
+
+    @Value
+    private static class FontKey {
+        String name;
+        short heightPoints;
+        boolean bold;
+    }
+}
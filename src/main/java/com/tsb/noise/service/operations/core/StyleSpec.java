@@ -0,0 +1,75 @@
+package com.tsb.noise.service.operations.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+import org.apache.poi.ss.usermodel.*;
+
+/**
+ * Неизменяемое описание оформления ячейки: шрифт, выравнивание, перенос, границы и заливка.
+ * Служит ключом в StyleRegistry - одинаковые описания дают один и тот же CellStyle.
+ */
+@Value
+@With
+@AllArgsConstructor
+public class StyleSpec {
+
+    private static final short NO_FILL_COLOR = IndexedColors.AUTOMATIC.getIndex();
+
+    /**
+     * Пустое описание - соответствует стилю по умолчанию новой книги
+     */
+    public static final StyleSpec DEFAULT = new StyleSpec(null, (short) 0, false,
+            HorizontalAlignment.GENERAL, VerticalAlignment.BOTTOM, false,
+            BorderStyle.NONE, BorderStyle.NONE, BorderStyle.NONE, BorderStyle.NONE,
+            NO_FILL_COLOR, FillPatternType.NO_FILL);
+
+    String fontName;          // null - имя шрифта не задается
+    short fontHeightPoints;   // 0 - размер шрифта не задается
+    boolean bold;
+    HorizontalAlignment alignment;
+    VerticalAlignment verticalAlignment;
+    boolean wrapText;
+    BorderStyle borderTop;
+    BorderStyle borderBottom;
+    BorderStyle borderLeft;
+    BorderStyle borderRight;
+    short fillColor;
+    FillPatternType fillPattern;
+
+    /**
+     * Описание с одинаковой границей со всех сторон
+     */
+    public StyleSpec withBorders(BorderStyle border) {
+        return withBorderTop(border).withBorderBottom(border).withBorderLeft(border).withBorderRight(border);
+    }
+
+    /**
+     * Описание со сплошной заливкой цветом
+     */
+    public StyleSpec withSolidFill(IndexedColors color) {
+        return withFillColor(color.getIndex()).withFillPattern(FillPatternType.SOLID_FOREGROUND);
+    }
+
+    /**
+     * Описание с выравниванием по центру по горизонтали и вертикали
+     */
+    public StyleSpec centered() {
+        return withAlignment(HorizontalAlignment.CENTER).withVerticalAlignment(VerticalAlignment.CENTER);
+    }
+
+    public StyleSpec withFont(String fontName, int heightPoints, boolean bold) {
+        return withFontName(fontName).withFontHeightPoints((short) heightPoints).withBold(bold);
+    }
+
+    /**
+     * Читает описание из существующего стиля книги
+     */
+    public static StyleSpec of(CellStyle style, Workbook workbook) {
+        Font font = workbook.getFontAt(style.getFontIndex());
+        return new StyleSpec(font.getFontName(), font.getFontHeightInPoints(), font.getBold(),
+                style.getAlignment(), style.getVerticalAlignment(), style.getWrapText(),
+                style.getBorderTop(), style.getBorderBottom(), style.getBorderLeft(), style.getBorderRight(),
+                style.getFillForegroundColor(), style.getFillPattern());
+    }
+}
@@ -1,27 +1,54 @@
 package com.tsb.noise.service.operations.export;
 
 import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.RunContext;
+import com.tsb.noise.service.catalog.FileCatalog;
+import com.tsb.noise.service.metrics.FileMetrics;
+import com.tsb.noise.service.metrics.Stage;
+import com.tsb.noise.service.metrics.StageRecorder;
 import com.tsb.noise.service.operations.core.SheetLayoutManager;
 import com.tsb.noise.service.operations.core.StyleApplier;
+import com.tsb.noise.service.operations.core.StyleRegistry;
+import com.tsb.noise.service.operations.core.StyleSpec;
+import com.tsb.noise.service.reader.NoiseTable;
+import com.tsb.noise.service.reader.SheetDataSink;
+import com.tsb.noise.service.reader.StreamingSheetReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 @Slf4j
 public class RtListCreator {
 
+    private static final String SOURCE_SHEET_NAME = "ЛИСТ2";
+    private static final Pattern RT_NAME_PATTERN = Pattern.compile("РТ-?\\d+.*");
+    private static final StyleSpec HEADER_SPEC = StyleSpec.DEFAULT.centered().withWrapText(true)
+            .withFont(null, 12, true)
+            .withSolidFill(IndexedColors.GREY_25_PERCENT)
+            .withBorders(BorderStyle.THIN);
+    private static final StyleSpec DATA_SPEC = StyleSpec.DEFAULT
+            .withAlignment(HorizontalAlignment.LEFT)
+            .withVerticalAlignment(VerticalAlignment.CENTER)
+            .withWrapText(true)
+            .withFont("Arial Narrow", 10, false)
+            .withBorders(BorderStyle.THIN);
+
     private final StyleApplier styleApplier;
     private final SheetLayoutManager layoutManager;
+    private final StreamingSheetReader sheetReader;
 
     public RtListCreator() {
         this.styleApplier = new StyleApplier();
         this.layoutManager = new SheetLayoutManager();
+        this.sheetReader = new StreamingSheetReader();
     }
 
     /**
@@ -33,22 +60,52 @@ public class RtListCreator {
             return false;
         }
 
-        log.info("🚀 Начало создания перечня расчетных точек...");
         log.info("📁 Поиск файлов в директории: {}", rootPath);
 
         try {
-            // Находим подходящий файл для извлечения данных
-            File sourceFile = findSourceFileForRtList(rootPath);
-            if (sourceFile == null) {
+            return createRtListTable(FileCatalog.scan(rootPath), true);
+        } catch (Exception e) {
+            log.error("❌ Ошибка при создании перечня РТ: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Создает таблицу "Перечень расчетных точек" по готовому каталогу папки проекта
+     */
+    public boolean createRtListTable(FileCatalog catalog, boolean createRtList) {
+        return createRtListTable(catalog, null, createRtList, RunContext.NONE);
+    }
+
+    /**
+     * Создает перечень РТ, используя данные файлов, уже прочитанных при обработке (accumulator может быть null)
+     * @param run кэш листов и замеры запуска
+     */
+    public boolean createRtListTable(FileCatalog catalog, RtListAccumulator accumulator, boolean createRtList,
+                                     RunContext run) {
+        if (!createRtList) {
+            log.info("Создание перечня РТ отключено");
+            return false;
+        }
+
+        log.info("🚀 Начало создания перечня расчетных точек...");
+
+        StageRecorder recorder = new StageRecorder("Перечень РТ");
+        File outputFile = null;
+        boolean result = false;
+        try {
+            // Находим подходящий файл и извлекаем из него данные РТ
+            recorder.start(Stage.COLLECT);
+            RtSource source = findSourceFileForRtList(catalog, accumulator, run);
+            if (source == null) {
                 log.error("❌ Не найден подходящий файл для создания перечня РТ");
                 log.info("🔍 Проверьте наличие файлов с паттернами: 'УЗД в РТ ОВ', 'УЗД в РТ ТХ', 'УЗД в РТ ПОС'");
                 return false;
             }
 
-            log.info("✅ Используется файл для извлечения данных: {}", sourceFile.getName());
+            log.info("✅ Используется файл для извлечения данных: {}", source.file.getName());
 
-            // Извлекаем данные РТ
-            List<RtData> rtDataList = extractRtDataFromFile(sourceFile);
+            List<RtData> rtDataList = source.rtDataList;
             if (rtDataList.isEmpty()) {
                 log.warn("⚠️ В файле не найдены данные РТ");
                 log.info("🔍 Проверьте наличие строк РТ на листе 'ЛИСТ2' в столбцах A, N, O");
@@ -56,13 +113,14 @@ public class RtListCreator {
             }
 
             log.info("✅ Извлечено уникальных РТ: {}", rtDataList.size());
+            recorder.finish(0, rtDataList.size());
 
             // Создаем папку и файл
-            File outputFolder = createOutputFolder(rootPath);
-            File outputFile = createOutputFile(outputFolder);
+            File outputFolder = createOutputFolder(catalog.getRoot().toString());
+            outputFile = createOutputFile(outputFolder);
 
             // Создаем таблицу
-            boolean result = createRtListWorkbook(rtDataList, outputFile);
+            result = createRtListWorkbook(rtDataList, outputFile, recorder);
 
             if (result) {
                 log.info("🎉 Перечень расчетных точек успешно создан: {}", outputFile.getAbsolutePath());
@@ -75,27 +133,31 @@ public class RtListCreator {
         } catch (Exception e) {
             log.error("❌ Ошибка при создании перечня РТ: {}", e.getMessage(), e);
             return false;
+        } finally {
+            publishMetrics(recorder.toMetrics(outputFile, result), run);
         }
     }
 
+    private void publishMetrics(FileMetrics metrics, RunContext run) {
+        log.info("⏱️ {}: {}", metrics.getName(), metrics.describe());
+        run.addExport(metrics);
+    }
+
     /**
      * Находит подходящий файл для извлечения данных РТ по приоритету: ОВ -> ТХ -> ПОС
      */
-    private File findSourceFileForRtList(String rootPath) {
-        File rootDir = new File(rootPath);
-        if (!rootDir.exists() || !rootDir.isDirectory()) {
-            log.error("❌ Корневая папка не существует: {}", rootPath);
+    private RtSource findSourceFileForRtList(FileCatalog catalog, RtListAccumulator accumulator, RunContext run) {
+        if (catalog.getRoot() == null) {
+            log.error("❌ Корневая папка не указана");
             return null;
         }
 
-        log.info("🔍 Сканирование директории: {}", rootDir.getAbsolutePath());
+        log.info("🔍 Поиск в каталоге директории: {}", catalog.getRoot().toAbsolutePath());
 
-        // Получаем все Excel файлы в директории
-        File[] allFiles = rootDir.listFiles((dir, name) ->
-                name.toLowerCase().endsWith(".xlsx") || name.toLowerCase().endsWith(".xls")
-        );
+        // Excel файлы непосредственно в корневой папке
+        File[] allFiles = FileCatalog.toFiles(catalog.findInRoot()).toArray(new File[0]);
 
-        if (allFiles == null || allFiles.length == 0) {
+        if (allFiles.length == 0) {
             log.warn("⚠️ В директории не найдено Excel файлов");
             return null;
         }
@@ -115,10 +177,10 @@ public class RtListCreator {
         };
 
         for (String pattern : priorityPatterns) {
-            File foundFile = findFileByPattern(allFiles, pattern);
-            if (foundFile != null) {
-                log.info("✅ Найден файл по паттерну '{}': {}", pattern, foundFile.getName());
-                return foundFile;
+            RtSource found = findFileByPattern(allFiles, pattern, accumulator, run);
+            if (found != null) {
+                log.info("✅ Найден файл по паттерну '{}': {}", pattern, found.file.getName());
+                return found;
             } else {
                 log.debug("❌ Файл с паттерном '{}' не найден", pattern);
             }
@@ -133,156 +195,136 @@ public class RtListCreator {
     }
 
     /**
-     * Ищет файл по паттерну в названии (частичное совпадение)
+     * Ищет файл по паттерну в названии (частичное совпадение) и извлекает из него данные РТ.
+     * Наличие листа проверяется тем же чтением, которым извлекаются данные.
      */
-    private File findFileByPattern(File[] allFiles, String pattern) {
+    private RtSource findFileByPattern(File[] allFiles, String pattern, RtListAccumulator accumulator,
+                                       RunContext run) {
         for (File file : allFiles) {
             if (file.getName().contains(pattern)) {
                 log.debug("🎯 Найден файл содержащий '{}': {}", pattern, file.getName());
 
+                // Файл уже прочитан при обработке - повторно не открываем
+                List<RtData> accumulated = accumulator != null ? accumulator.get(file) : null;
+                if (accumulated != null) {
+                    log.info("♻️ Данные РТ получены при обработке файла: {}", file.getName());
+                    return new RtSource(file, accumulated);
+                }
+
                 // Дополнительная проверка - файл должен быть читаемым
                 if (!file.canRead()) {
                     log.warn("⚠️ Файл недоступен для чтения: {}", file.getName());
                     continue;
                 }
 
-                // Проверяем, что файл содержит нужный лист
-                if (hasRequiredSheet(file)) {
-                    return file;
-                } else {
-                    log.warn("⚠️ Файл не содержит лист 'ЛИСТ2': {}", file.getName());
+                List<RtData> rtDataList = extractRtDataFromFile(file, run);
+                if (rtDataList != null) {
+                    return new RtSource(file, rtDataList);
                 }
+                log.warn("⚠️ Файл не содержит лист 'ЛИСТ2': {}", file.getName());
             }
         }
         return null;
     }
 
     /**
-     * Проверяет, содержит ли файл необходимый лист
+     * Извлекает данные РТ из файла потоковым чтением листа; null - листа нет или файл не читается
      */
-    private boolean hasRequiredSheet(File file) {
-        try (FileInputStream fis = new FileInputStream(file);
-             Workbook workbook = WorkbookFactory.create(fis)) {
-
-            Sheet sheet = workbook.getSheet("ЛИСТ2");
-            boolean hasSheet = sheet != null;
+    private List<RtData> extractRtDataFromFile(File sourceFile, RunContext run) {
+        log.info("📖 Извлечение данных РТ из файла: {}", sourceFile.getName());
 
-            if (hasSheet) {
-                log.debug("✅ Файл содержит лист 'ЛИСТ2': {}", file.getName());
-            } else {
-                log.debug("❌ Файл не содержит лист 'ЛИСТ2': {}", file.getName());
-                // Логируем доступные листы для отладки
-                log.debug("📋 Доступные листы в файле {}:", file.getName());
-                for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                    log.debug("   - {}", workbook.getSheetName(i));
-                }
+        try {
+            NoiseTable.Builder tableBuilder = NoiseTable.builder();
+            if (!run.readSheet(sheetReader, sourceFile, SOURCE_SHEET_NAME, tableBuilder)) {
+                log.debug("❌ Файл не содержит лист 'ЛИСТ2': {}", sourceFile.getName());
+                return null;
             }
 
-            return hasSheet;
+            List<RtData> rtDataList = extractRtData(tableBuilder.build());
+            log.info("✅ Извлечено уникальных РТ: {}", rtDataList.size());
+            return rtDataList;
+
+        } catch (IOException e) {
+            log.error("❌ Ошибка при чтении файла {}: {}", sourceFile.getName(), e.getMessage(), e);
         } catch (Exception e) {
-            log.warn("⚠️ Ошибка при проверке файла {}: {}", file.getName(), e.getMessage());
-            return false;
+            log.error("❌ Неожиданная ошибка при обработке файла {}: {}", sourceFile.getName(), e.getMessage(), e);
         }
+        return null;
     }
 
     /**
-     * Извлекает данные РТ из файла
+     * Собирает уникальные РТ листа (A - наименование, N - координаты, O - описание), отсортированные по имени
      */
-    private List<RtData> extractRtDataFromFile(File sourceFile) {
+    private List<RtData> extractRtData(NoiseTable table) {
         List<RtData> rtDataList = new ArrayList<>();
         Set<String> uniqueRtNames = new HashSet<>();
 
-        log.info("📖 Извлечение данных РТ из файла: {}", sourceFile.getName());
+        for (int row = 0; row < table.size(); row++) {
+            String name = table.getRtName(row);
+            if (name == null || !isValidRtName(name)) continue;
 
-        try (FileInputStream fis = new FileInputStream(sourceFile);
-             Workbook workbook = WorkbookFactory.create(fis)) {
-
-            Sheet sheet = workbook.getSheet("ЛИСТ2");
-            if (sheet == null) {
-                log.error("❌ Лист 'ЛИСТ2' не найден в файле: {}", sourceFile.getName());
-                return rtDataList;
+            if (uniqueRtNames.add(name)) {
+                rtDataList.add(new RtData(name, table.getCoordinates(row), table.getDescription(row)));
+                log.debug("📍 Извлечен РТ: {} (строка {})", name, table.getSourceRow(row) + 1);
             }
-
-            log.info("📊 Обработка листа 'ЛИСТ2', строк: {}", sheet.getLastRowNum());
-
-            int rtCount = 0;
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row == null) continue;
-
-                Cell cellA = row.getCell(0); // Наименование РТ (столбец A)
-                Cell cellN = row.getCell(13); // Координаты (столбец N)
-                Cell cellO = row.getCell(14); // Описание (столбец O)
-
-                if (isValidRtRow(cellA)) {
-                    RtData rtData = extractRtData(cellA, cellN, cellO);
-                    if (rtData != null && uniqueRtNames.add(rtData.getName())) {
-                        rtDataList.add(rtData);
-                        rtCount++;
-                        log.debug("📍 Извлечен РТ: {} (строка {})", rtData.getName(), rowIndex + 1);
-                    }
-                }
-            }
-
-            log.info("✅ Извлечено уникальных РТ: {}", rtCount);
-
-        } catch (IOException e) {
-            log.error("❌ Ошибка при чтении файла {}: {}", sourceFile.getName(), e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("❌ Неожиданная ошибка при обработке файла {}: {}", sourceFile.getName(), e.getMessage(), e);
         }
 
-        // Сортируем по имени РТ
         rtDataList.sort(Comparator.comparing(RtData::getName));
         return rtDataList;
     }
 
     /**
-     * Проверяет, является ли строка валидной строкой РТ
+     * Создает накопитель, собирающий данные РТ из файлов во время их основной обработки
      */
-    private boolean isValidRtRow(Cell cellA) {
-        if (cellA == null) {
-            return false;
-        }
+    public RtListAccumulator newAccumulator() {
+        return new RtListAccumulator();
+    }
 
-        String valueA = getCellStringValue(cellA).trim();
+    /**
+     * Данные РТ файлов, прочитанных при обработке; потокобезопасен для параллельной обработки
+     */
+    public class RtListAccumulator implements SheetDataSink {
+        private final Map<Path, List<RtData>> rtDataByFile = new ConcurrentHashMap<>();
 
-        // Проверяем формат названия РТ (РТ-1, РТ-2, РТ-10, РТ-15 и т.д.)
-        boolean isRtFormat = valueA.matches("РТ-?\\d+.*");
+        private RtListAccumulator() {
+        }
 
-        if (isRtFormat) {
-            log.trace("✅ Валидная строка РТ: {}", valueA);
-        } else {
-            log.trace("❌ Невалидная строка РТ: {}", valueA);
+        @Override
+        public void accept(File file, NoiseTable table) {
+            rtDataByFile.put(SheetDataSink.keyOf(file), extractRtData(table));
         }
 
-        return isRtFormat;
+        private List<RtData> get(File file) {
+            return rtDataByFile.get(SheetDataSink.keyOf(file));
+        }
     }
 
     /**
-     * Извлекает данные РТ
+     * Выбранный файл и извлеченные из него данные РТ
      */
-    private RtData extractRtData(Cell cellA, Cell cellN, Cell cellO) {
-        try {
-            String name = getCellStringValue(cellA).trim();
-            String coordinates = cellN != null ? getCellStringValue(cellN).trim() : "";
-            String description = cellO != null ? getCellStringValue(cellO).trim() : "";
+    private static class RtSource {
+        private final File file;
+        private final List<RtData> rtDataList;
 
-            // Проверяем, что имя РТ не пустое
-            if (name.isEmpty()) {
-                log.warn("⚠️ Пустое имя РТ в ячейке");
-                return null;
-            }
+        RtSource(File file, List<RtData> rtDataList) {
+            this.file = file;
+            this.rtDataList = rtDataList;
+        }
+    }
 
-            RtData rtData = new RtData(name, coordinates, description);
-            log.trace("📝 Данные РТ: name='{}', coordinates='{}', description='{}'",
-                    name, coordinates, description);
+    /**
+     * Проверяет формат названия РТ (РТ-1, РТ-2, РТ-10, РТ-15 и т.д.)
+     */
+    private boolean isValidRtName(String name) {
+        boolean isRtFormat = RT_NAME_PATTERN.matcher(name).matches();
 
-            return rtData;
-        } catch (Exception e) {
-            log.warn("⚠️ Не удалось извлечь данные РТ: {}", e.getMessage());
-            return null;
+        if (isRtFormat) {
+            log.trace("✅ Валидная строка РТ: {}", name);
+        } else {
+            log.trace("❌ Невалидная строка РТ: {}", name);
         }
+
+        return isRtFormat;
     }
 
     /**
@@ -290,7 +332,7 @@ public class RtListCreator {
      */
     private File createOutputFolder(String rootPath) {
         File rootDir = new File(rootPath);
-        String folderName = rootDir.getName() + "_Перечень РТ";
+        String folderName = rootDir.getName() + FileCatalog.RT_LIST_FOLDER_SUFFIX;
         File outputFolder = new File(rootDir, folderName);
 
         if (!outputFolder.exists()) {
@@ -319,29 +361,36 @@ public class RtListCreator {
     /**
      * Создает рабочую книгу с перечнем РТ
      */
-    private boolean createRtListWorkbook(List<RtData> rtDataList, File outputFile) {
+    private boolean createRtListWorkbook(List<RtData> rtDataList, File outputFile, StageRecorder recorder) {
         log.info("🛠️ Создание Excel файла с {} РТ", rtDataList.size());
 
         try (Workbook workbook = new XSSFWorkbook()) {
+            recorder.start(Stage.FILL);
             Sheet sheet = workbook.createSheet("Перечень РТ");
+            StyleRegistry styles = new StyleRegistry(workbook);
 
             // Настраиваем layout с шириной 18см
             setupSheetLayout(sheet);
 
             // Создаем шапку таблицы
-            createTableHeader(workbook, sheet);
+            createTableHeader(styles, sheet);
 
             // Заполняем данными
-            fillTableData(workbook, sheet, rtDataList);
+            fillTableData(styles, sheet, rtDataList);
 
             // Применяем стили
-            styleApplier.applyTableBorders(sheet);
+            styleApplier.applyTableBorders(sheet, styles);
+            recorder.finish(rtDataList.size(), sheet.getLastRowNum() + 1);
+            recorder.setRows(rtDataList.size(), sheet.getLastRowNum() + 1);
+            recorder.setStylesCreated(workbook.getNumCellStyles());
 
             // Сохраняем файл
+            recorder.start(Stage.SAVE);
             outputFile.getParentFile().mkdirs();
             try (FileOutputStream fos = new FileOutputStream(outputFile)) {
                 workbook.write(fos);
             }
+            recorder.finish();
 
             log.info("✅ Успешно создан файл перечня РТ: {}", outputFile.getAbsolutePath());
             return true;
@@ -378,7 +427,7 @@ public class RtListCreator {
     /**
      * Создает шапку таблицы
      */
-    private void createTableHeader(Workbook workbook, Sheet sheet) {
+    private void createTableHeader(StyleRegistry styles, Sheet sheet) {
         Row headerRow = sheet.createRow(0);
         headerRow.setHeightInPoints(25);
 
@@ -393,7 +442,7 @@ public class RtListCreator {
         cellC.setCellValue("Описание РТ");
 
         // Применяем стиль шапки
-        applyHeaderStyle(workbook, headerRow);
+        applyHeaderStyle(styles, headerRow);
 
         log.debug("📋 Создана шапка таблицы");
     }
@@ -401,29 +450,8 @@ public class RtListCreator {
     /**
      * Применяет стиль к строке заголовка
      */
-    private void applyHeaderStyle(Workbook workbook, Row headerRow) {
-        CellStyle headerStyle = workbook.createCellStyle();
-
-        // Выравнивание по центру
-        headerStyle.setAlignment(HorizontalAlignment.CENTER);
-        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        headerStyle.setWrapText(true);
-
-        // Шрифт
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 12);
-        headerStyle.setFont(font);
-
-        // Заливка
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        // Границы
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
+    private void applyHeaderStyle(StyleRegistry styles, Row headerRow) {
+        CellStyle headerStyle = styles.get(HEADER_SPEC);
 
         // Применяем стиль ко всем ячейкам заголовка
         for (Cell cell : headerRow) {
@@ -434,8 +462,8 @@ public class RtListCreator {
     /**
      * Заполняет таблицу данными
      */
-    private void fillTableData(Workbook workbook, Sheet sheet, List<RtData> rtDataList) {
-        CellStyle dataStyle = createDataStyle(workbook);
+    private void fillTableData(StyleRegistry styles, Sheet sheet, List<RtData> rtDataList) {
+        CellStyle dataStyle = createDataStyle(styles);
 
         for (int i = 0; i < rtDataList.size(); i++) {
             RtData rtData = rtDataList.get(i);
@@ -463,67 +491,8 @@ public class RtListCreator {
     /**
      * Создает стиль для данных
      */
-    private CellStyle createDataStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-
-        // Выравнивание
-        style.setAlignment(HorizontalAlignment.LEFT);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        style.setWrapText(true);
-
-        // Шрифт
-        Font font = workbook.createFont();
-        font.setFontHeightInPoints((short) 10);
-        font.setFontName("Arial Narrow");
-        style.setFont(font);
-
-        // Границы
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-
-        return style;
-    }
-
-    /**
-     * Вспомогательный метод для получения строкового значения ячейки
-     */
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return "";
-        try {
-            switch (cell.getCellType()) {
-                case STRING:
-                    return cell.getStringCellValue();
-                case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(cell)) {
-                        return cell.getDateCellValue().toString();
-                    } else {
-                        double value = cell.getNumericCellValue();
-                        if (value == Math.floor(value) && !Double.isInfinite(value)) {
-                            return String.valueOf((int) value);
-                        } else {
-                            return String.valueOf(value);
-                        }
-                    }
-                case BOOLEAN:
-                    return String.valueOf(cell.getBooleanCellValue());
-                case FORMULA:
-                    try {
-                        return cell.getStringCellValue();
-                    } catch (Exception e) {
-                        try {
-                            return String.valueOf(cell.getNumericCellValue());
-                        } catch (Exception ex) {
-                            return cell.getCellFormula();
-                        }
-                    }
-                default:
-                    return "";
-            }
-        } catch (Exception e) {
-            return "";
-        }
+    private CellStyle createDataStyle(StyleRegistry styles) {
+        return styles.get(DATA_SPEC);
     }
 
     /**
@@ -1,20 +1,31 @@
 package com.tsb.noise.service.operations.export;
 
 import com.tsb.noise.model.FileType;
+import com.tsb.noise.model.FrequencyBand;
+import com.tsb.noise.service.RunContext;
+import com.tsb.noise.service.catalog.CatalogEntry;
+import com.tsb.noise.service.catalog.FileCatalog;
+import com.tsb.noise.service.metrics.FileMetrics;
+import com.tsb.noise.service.metrics.Stage;
+import com.tsb.noise.service.metrics.StageRecorder;
 import com.tsb.noise.service.operations.core.SheetLayoutManager;
 import com.tsb.noise.service.operations.core.StyleApplier;
+import com.tsb.noise.service.operations.core.StyleRegistry;
+import com.tsb.noise.service.operations.core.StyleSpec;
+import com.tsb.noise.service.reader.LabelDictionary;
+import com.tsb.noise.service.reader.NoiseTable;
+import com.tsb.noise.service.reader.SheetDataSink;
+import com.tsb.noise.service.reader.StreamingSheetReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -23,12 +34,24 @@ import java.util.regex.Pattern;
 @Slf4j
 public class SummaryTableCreator implements TableCreator {
 
+    private static final String SOURCE_SHEET_NAME = "ЛИСТ2";
+    private static final Pattern RT_NAME_PATTERN = Pattern.compile("РТ-?\\d+.*");
+    private static final StyleSpec HEADER_SPEC = StyleSpec.DEFAULT.centered().withWrapText(true)
+            .withFont(null, 11, true)
+            .withBorders(BorderStyle.THIN)
+            .withSolidFill(IndexedColors.GREY_25_PERCENT);
+    private static final StyleSpec DATA_SPEC = StyleSpec.DEFAULT.centered().withWrapText(true)
+            .withFont(null, 10, false)
+            .withBorders(BorderStyle.THIN);
+
     private final StyleApplier styleApplier;
     private final SheetLayoutManager layoutManager;
+    private final StreamingSheetReader sheetReader;
 
     public SummaryTableCreator() {
         this.styleApplier = new StyleApplier();
         this.layoutManager = new SheetLayoutManager();
+        this.sheetReader = new StreamingSheetReader();
     }
 
     /**
@@ -41,11 +64,41 @@ public class SummaryTableCreator implements TableCreator {
             return false;
         }
 
+        try {
+            return createTable(FileCatalog.scan(rootPath), true);
+        } catch (Exception e) {
+            log.error("❌ Ошибка при создании сводной таблицы: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Создает сводную таблицу РТ по готовому каталогу папки проекта
+     */
+    public boolean createTable(FileCatalog catalog, boolean createSummaryTable) {
+        return createTable(catalog, null, createSummaryTable, RunContext.NONE);
+    }
+
+    /**
+     * Создает сводную таблицу РТ, используя данные файлов, уже прочитанных при обработке (accumulator может быть null)
+     * @param run кэш листов и замеры запуска
+     */
+    public boolean createTable(FileCatalog catalog, SummaryAccumulator accumulator, boolean createSummaryTable,
+                               RunContext run) {
+        if (!createSummaryTable) {
+            log.info("Создание сводной таблицы отключено");
+            return false;
+        }
+
         log.info("🚀 Начало создания сводной таблицы РТ с новой структурой...");
 
+        StageRecorder recorder = new StageRecorder("Сводная таблица РТ");
+        File outputFile = null;
+        boolean result = false;
         try {
             // Находим все файлы для обработки
-            List<File> sourceFiles = findAllSourceFiles(rootPath);
+            recorder.start(Stage.COLLECT);
+            List<CatalogEntry> sourceFiles = findAllSourceFiles(catalog);
             if (sourceFiles.isEmpty()) {
                 log.error("❌ Не найдены файлы для создания сводной таблицы");
                 return false;
@@ -56,83 +109,98 @@ public class SummaryTableCreator implements TableCreator {
             // Сортируем файлы по номеру ШК
             List<File> sortedFiles = sortFilesByShk(sourceFiles);
 
-            // Извлекаем уникальные РТ из всех файлов
-            Set<String> uniqueRtNames = extractUniqueRtNames(sortedFiles);
+            // Каждый файл читается не более одного раза: РТ и значения собираются одним проходом
+            Map<File, FileSummary> summaries = collectFileSummaries(sortedFiles, accumulator, run);
+
+            // Уникальные РТ из всех файлов
+            Set<String> uniqueRtNames = new TreeSet<>(this::compareRtNames);
+            summaries.values().forEach(summary -> uniqueRtNames.addAll(summary.rtNames));
             if (uniqueRtNames.isEmpty()) {
                 log.warn("⚠️ Не найдены РТ для сводной таблицы");
                 return false;
             }
 
             log.info("✅ Найдено уникальных РТ: {}", uniqueRtNames.size());
+            recorder.finish(sourceFiles.size(), summaries.size());
 
             // Создаем папку и файл
-            File outputFolder = createOutputFolder(rootPath);
-            File outputFile = createOutputFile(outputFolder);
+            File outputFolder = createOutputFolder(catalog.getRoot().toString());
+            outputFile = createOutputFile(outputFolder);
 
             // Создаем сводную таблицу с новой структурой
-            return createNewStructureWorkbook(sortedFiles, new ArrayList<>(uniqueRtNames), outputFile);
+            result = createNewStructureWorkbook(sortedFiles, summaries, new ArrayList<>(uniqueRtNames), outputFile,
+                    recorder);
+            return result;
 
         } catch (Exception e) {
             log.error("❌ Ошибка при создании сводной таблицы: {}", e.getMessage(), e);
             return false;
+        } finally {
+            publishMetrics(recorder.toMetrics(outputFile, result), run);
         }
     }
 
+    private void publishMetrics(FileMetrics metrics, RunContext run) {
+        log.info("⏱️ {}: {}", metrics.getName(), metrics.describe());
+        run.addExport(metrics);
+    }
+
     /**
      * Сортирует файлы по номеру ШК
      */
-    private List<File> sortFilesByShk(List<File> files) {
-        List<File> sortedFiles = new ArrayList<>(files);
-        sortedFiles.sort((f1, f2) -> {
-            int shk1 = extractShkNumericValue(f1.getName());
-            int shk2 = extractShkNumericValue(f2.getName());
-            return Integer.compare(shk1, shk2);
-        });
+    private List<File> sortFilesByShk(List<CatalogEntry> files) {
+        List<CatalogEntry> sortedFiles = new ArrayList<>(files);
+        sortedFiles.sort(Comparator.comparingInt(CatalogEntry::getShkNumericValue));
 
         log.debug("Файлы отсортированы по ШК: {}",
-                sortedFiles.stream().map(f -> extractShkNumber(f.getName())).toList());
-        return sortedFiles;
+                sortedFiles.stream().map(CatalogEntry::getShkNumber).toList());
+        return FileCatalog.toFiles(sortedFiles);
     }
 
     /**
      * Извлекает номер ШК из имени файла
      */
     private String extractShkNumber(String fileName) {
-        Pattern pattern = Pattern.compile("ШК(\\d+п?)");
-        Matcher matcher = pattern.matcher(fileName);
-        return matcher.find() ? "ШК" + matcher.group(1) : "ШК1";
-    }
-
-    /**
-     * Извлекает числовое значение ШК для сортировки
-     */
-    private int extractShkNumericValue(String fileName) {
-        Pattern pattern = Pattern.compile("ШК(\\d+)");
-        Matcher matcher = pattern.matcher(fileName);
-        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+        return CatalogEntry.parseShkNumber(fileName);
     }
 
     /**
-     * Извлекает уникальные наименования РТ из всех файлов
+     * Собирает РТ и значения всех файлов: из накопителя, если файл прочитан при обработке, иначе чтением листа
      */
-    private Set<String> extractUniqueRtNames(List<File> files) {
-        Set<String> uniqueRtNames = new TreeSet<>(this::compareRtNames);
+    private Map<File, FileSummary> collectFileSummaries(List<File> files, SummaryAccumulator accumulator,
+                                                        RunContext run) {
+        Map<File, FileSummary> summaries = new HashMap<>();
+        int reused = 0;
 
         for (File file : files) {
-            try (FileInputStream fis = new FileInputStream(file);
-                 Workbook workbook = WorkbookFactory.create(fis)) {
-
-                Sheet sheet = workbook.getSheet("ЛИСТ2");
-                if (sheet == null) continue;
+            FileSummary summary = accumulator != null ? accumulator.get(file) : null;
+            if (summary != null) {
+                reused++;
+            } else {
+                summary = readFileSummary(file, run);
+            }
+            if (summary != null) {
+                summaries.put(file, summary);
+            }
+        }
 
-                extractRtNamesFromSheet(sheet, uniqueRtNames);
+        if (reused > 0) {
+            log.info("♻️ Данные получены при обработке файлов: {} из {}", reused, files.size());
+        }
+        return summaries;
+    }
 
-            } catch (Exception e) {
-                log.warn("⚠️ Не удалось извлечь РТ из файла {}: {}", file.getName(), e.getMessage());
+    private FileSummary readFileSummary(File file, RunContext run) {
+        try {
+            NoiseTable.Builder tableBuilder = NoiseTable.builder();
+            if (!run.readSheet(sheetReader, file, SOURCE_SHEET_NAME, tableBuilder)) {
+                return new FileSummary();
             }
+            return summarize(tableBuilder.build());
+        } catch (Exception e) {
+            log.warn("⚠️ Не удалось извлечь РТ из файла {}: {}", file.getName(), e.getMessage());
+            return null;
         }
-
-        return uniqueRtNames;
     }
 
     /**
@@ -149,47 +217,35 @@ public class SummaryTableCreator implements TableCreator {
         return rt1.compareTo(rt2);
     }
 
-    /**
-     * Извлекает наименования РТ из листа
-     */
-    private void extractRtNamesFromSheet(Sheet sheet, Set<String> uniqueRtNames) {
-        for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row == null) continue;
-
-            Cell cellA = row.getCell(0); // Наименование РТ
-            Cell cellB = row.getCell(1); // Тип данных
-
-            if (isRtRow(cellA, cellB)) {
-                String rtName = getCellStringValue(cellA).trim();
-                if (!rtName.isEmpty()) {
-                    uniqueRtNames.add(rtName);
-                }
-            }
-        }
-    }
-
     /**
      * Создает рабочую книгу с новой структурой
      */
-    private boolean createNewStructureWorkbook(List<File> sortedFiles, List<String> rtNames, File outputFile) {
+    private boolean createNewStructureWorkbook(List<File> sortedFiles, Map<File, FileSummary> summaries,
+                                               List<String> rtNames, File outputFile, StageRecorder recorder) {
         try (Workbook workbook = new XSSFWorkbook()) {
+            recorder.start(Stage.FILL);
             Sheet sheet = workbook.createSheet("Сводная таблица УЗД");
+            StyleRegistry styles = new StyleRegistry(workbook);
 
             // Настраиваем layout
             setupNewStructureLayout(sheet, rtNames.size());
 
             // Создаем шапку таблицы с РТ
-            createNewStructureHeader(workbook, sheet, rtNames);
+            createNewStructureHeader(styles, sheet, rtNames);
 
             // Заполняем данные из файлов
-            fillNewStructureData(workbook, sheet, sortedFiles, rtNames);
+            fillNewStructureData(styles, sheet, sortedFiles, summaries, rtNames);
+            recorder.finish(summaries.size(), sheet.getLastRowNum() + 1);
+            recorder.setRows(summaries.size(), sheet.getLastRowNum() + 1);
+            recorder.setStylesCreated(workbook.getNumCellStyles());
 
             // Сохраняем файл
+            recorder.start(Stage.SAVE);
             outputFile.getParentFile().mkdirs();
             try (FileOutputStream fos = new FileOutputStream(outputFile)) {
                 workbook.write(fos);
             }
+            recorder.finish();
 
             log.info("✅ Успешно создана сводная таблица с новой структурой: {}", outputFile.getAbsolutePath());
             return true;
@@ -219,7 +275,7 @@ public class SummaryTableCreator implements TableCreator {
     /**
      * Создает шапку таблицы с новой структурой
      */
-    private void createNewStructureHeader(Workbook workbook, Sheet sheet, List<String> rtNames) {
+    private void createNewStructureHeader(StyleRegistry styles, Sheet sheet, List<String> rtNames) {
         // Строка 1: "Расчетная точка (РТ)"
         Row row1 = sheet.createRow(0);
         Cell cellA1 = row1.createCell(0);
@@ -242,14 +298,14 @@ public class SummaryTableCreator implements TableCreator {
         cellA3.setCellValue("Тип территории");
 
         // Применяем стили к шапке
-        applyNewHeaderStyles(workbook, sheet, 0, 2, rtNames.size() + 1);
+        applyNewHeaderStyles(styles, sheet, 0, 2, rtNames.size() + 1);
     }
 
     /**
      * Применяет стили к новой шапке
      */
-    private void applyNewHeaderStyles(Workbook workbook, Sheet sheet, int startRow, int endRow, int numColumns) {
-        CellStyle headerStyle = createHeaderStyle(workbook);
+    private void applyNewHeaderStyles(StyleRegistry styles, Sheet sheet, int startRow, int endRow, int numColumns) {
+        CellStyle headerStyle = createHeaderStyle(styles);
 
         for (int rowNum = startRow; rowNum <= endRow; rowNum++) {
             Row row = sheet.getRow(rowNum);
@@ -267,7 +323,8 @@ public class SummaryTableCreator implements TableCreator {
     /**
      * Заполняет данные с новой структурой
      */
-    private void fillNewStructureData(Workbook workbook, Sheet sheet, List<File> files, List<String> rtNames) {
+    private void fillNewStructureData(StyleRegistry styles, Sheet sheet, List<File> files,
+                                      Map<File, FileSummary> summaries, List<String> rtNames) {
         int currentRow = 3;
 
         log.info("🔍 НАЧАЛО ЗАПОЛНЕНИЯ ДАННЫХ");
@@ -292,7 +349,7 @@ public class SummaryTableCreator implements TableCreator {
                     }
                 }
 
-                currentRow = processFileBlock(workbook, sheet, file, rtNames, currentRow);
+                currentRow = processFileBlock(styles, sheet, file, summaries.get(file), rtNames, currentRow);
 
             } catch (Exception e) {
                 log.warn("⚠️ Ошибка при обработке файла {}: {}", file.getName(), e.getMessage());
@@ -307,22 +364,22 @@ public class SummaryTableCreator implements TableCreator {
      */
     private String getRowDebugInfo(Row row) {
         if (row == null) return "null";
+        DataFormatter formatter = new DataFormatter();
         StringBuilder info = new StringBuilder();
         for (int i = 0; i < Math.min(5, row.getLastCellNum()); i++) {
             Cell cell = row.getCell(i);
             if (cell != null) {
-                info.append("[").append(i).append(":").append(getCellStringValue(cell)).append("] ");
+                info.append("[").append(i).append(":").append(formatter.formatCellValue(cell)).append("] ");
             }
         }
         return info.toString();
     }
-    /**
-     * Обрабатывает блок данных из одного файла (3 строки)
-     */
+
     /**
      * Обрабатывает блок данных из одного файла (3 строки С ДАННЫМИ)
      */
-    private int processFileBlock(Workbook workbook, Sheet sheet, File file, List<String> rtNames, int startRow) {
+    private int processFileBlock(StyleRegistry styles, Sheet sheet, File file, FileSummary summary,
+                                 List<String> rtNames, int startRow) {
         String fileName = file.getName();
         String shkNumber = extractShkNumber(fileName);
         FileType fileType = FileType.fromFileName(fileName);
@@ -346,13 +403,10 @@ public class SummaryTableCreator implements TableCreator {
         pduRow.createCell(0).setCellValue("ПДУ");
         excessRow.createCell(0).setCellValue("Превышение");
 
-        // Извлекаем данные из файла
-        try (FileInputStream fis = new FileInputStream(file);
-             Workbook fileWorkbook = WorkbookFactory.create(fis)) {
-
-            Sheet fileSheet = fileWorkbook.getSheet("ЛИСТ2");
-            if (fileSheet != null) {
-                Map<String, FileData> fileData = extractFileData(fileSheet, rtNames);
+        // Данные файла собраны заранее (null - файл не прочитан)
+        try {
+            if (summary != null) {
+                Map<String, FileData> fileData = summary.fileData;
 
                 // ЗАПОЛНЯЕМ ДАННЫЕ В ТЕ ЖЕ САМЫЕ СТРОКИ
                 for (int i = 0; i < rtNames.size(); i++) {
@@ -384,114 +438,96 @@ public class SummaryTableCreator implements TableCreator {
         }
 
         // Применяем стили к блоку
-        applyBlockStyles(workbook, sheet, startRow, startRow + 2, rtNames.size() + 1);
+        applyBlockStyles(styles, sheet, startRow, startRow + 2, rtNames.size() + 1);
 
         return startRow + 3; // Переходим к следующему блоку
     }
     /**
-     * Извлекает данные из файла с учетом группировки по РТ через пустые строки
+     * Собирает за один проход РТ файла и их значения с учетом группировки по РТ через пустые строки.
+     * Условия по подписи B проверяются один раз на подпись словаря, а не на каждую строку.
      */
-    private Map<String, FileData> extractFileData(Sheet sheet, List<String> rtNames) {
-        Map<String, FileData> fileData = new HashMap<>();
-        String currentRt = null;
-
-        for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row == null) continue;
-
-            Cell cellA = row.getCell(0); // Столбец A - наименование РТ
-            Cell cellB = row.getCell(1); // Столбец B - тип данных
-            Cell cellL = row.getCell(11); // Столбец L - значение
-
-            // Проверяем, является ли строка началом новой группы РТ
-            if (isNewRtGroup(cellA, cellB)) {
-                currentRt = getCellStringValue(cellA).trim();
-
-                // Если это новая РТ из нашего списка, создаем для нее запись
-                if (rtNames.contains(currentRt)) {
-                    fileData.putIfAbsent(currentRt, new FileData());
-                } else {
-                    currentRt = null; // Пропускаем РТ не из списка
+    private FileSummary summarize(NoiseTable table) {
+        FileSummary summary = new FileSummary();
+        LabelDictionary labels = table.getLabels();
+        boolean[] noiseLabels = labels.matching(label -> label.contains("УЗД"));
+        boolean[] pduLabels = labels.matching(label -> label.contains("ПДУ"));
+        boolean[] excessLabels = labels.matching(label -> label.contains("превышение"));
+
+        FileData currentData = null;
+        // Строку заголовка листа NoiseTable не содержит: первая строка таблицы - вторая строка листа
+        for (int row = 0; row < table.size(); row++) {
+            int labelId = table.getLabelId(row);
+            if (labelId == LabelDictionary.NO_LABEL) continue;
+
+            String rtName = table.getRtName(row);
+            if (rtName != null && RT_NAME_PATTERN.matcher(rtName).matches()) {
+                // Строка РТ (A - наименование, B - тип данных)
+                if (noiseLabels[labelId] || pduLabels[labelId] || excessLabels[labelId]) {
+                    summary.rtNames.add(rtName);
+                }
+                // Новая группа РТ: есть название РТ в столбце A и "УЗД" в столбце B
+                if (noiseLabels[labelId]) {
+                    currentData = summary.fileData.computeIfAbsent(rtName, name -> new FileData());
                 }
             }
 
-            // Если мы внутри группы РТ, обрабатываем данные
-            if (currentRt != null && cellB != null) {
-                processDataRow(fileData.get(currentRt), cellB, cellL);
+            // Если мы внутри группы РТ, обрабатываем данные (B - тип данных, L - значение)
+            if (currentData != null) {
+                double value = table.getValue(FrequencyBand.LEKV, row);
+                processDataRow(currentData, noiseLabels[labelId], pduLabels[labelId], excessLabels[labelId],
+                        Double.isNaN(value) ? null : value);
             }
         }
+        return summary;
+    }
 
-        return fileData;
+    /**
+     * Создает накопитель, собирающий данные сводной таблицы из файлов во время их основной обработки
+     */
+    public SummaryAccumulator newAccumulator() {
+        return new SummaryAccumulator();
     }
 
     /**
-     * Проверяет, является ли строка началом новой группы РТ
+     * Данные сводной таблицы по файлам, прочитанным при обработке; потокобезопасен для параллельной обработки
      */
-    private boolean isNewRtGroup(Cell cellA, Cell cellB) {
-        if (cellA == null || cellB == null) return false;
+    public class SummaryAccumulator implements SheetDataSink {
+        private final Map<Path, FileSummary> summaries = new ConcurrentHashMap<>();
 
-        String valueA = getCellStringValue(cellA).trim();
-        String valueB = getCellStringValue(cellB).trim();
+        private SummaryAccumulator() {
+        }
 
-        // Новая группа РТ: есть название РТ в столбце A и "УЗД" в столбце B
-        boolean isRtFormat = valueA.matches("РТ-?\\d+.*");
-        boolean isUzdType = valueB.contains("УЗД");
+        @Override
+        public void accept(File file, NoiseTable table) {
+            summaries.put(SheetDataSink.keyOf(file), summarize(table));
+        }
 
-        return isRtFormat && isUzdType;
+        private FileSummary get(File file) {
+            return summaries.get(SheetDataSink.keyOf(file));
+        }
     }
 
     /**
      * Обрабатывает строку данных внутри группы РТ
      */
-    private void processDataRow(FileData data, Cell cellB, Cell cellL) {
-        String dataType = getCellStringValue(cellB).trim();
-        Double value = getNumericValue(cellL);
-
-        if (dataType.contains("УЗД")) {
+    private void processDataRow(FileData data, boolean isNoise, boolean isPdu, boolean isExcess, Double value) {
+        if (isNoise) {
             // УЗД днём/ночью - основное значение шума
             data.noiseLevel = value;
-        } else if (dataType.contains("ПДУ")) {
+        } else if (isPdu) {
             // ПДУ или ПДУ пом. - допустимый уровень
             data.pduValue = value;
-        } else if (dataType.contains("превышение")) {
+        } else if (isExcess) {
             // Превышение - текстовое значение (+/-)
             data.excessValue = value != null ? (value > 0 ? "+" : "-") : "";
         }
     }
 
-    /**
-     * Заполняет данные блока
-     */
-    private void fillBlockData(Row noiseRow, Row pduRow, Row excessRow, Map<String, FileData> fileData, List<String> rtNames) {
-        for (int i = 0; i < rtNames.size(); i++) {
-            String rtName = rtNames.get(i);
-            FileData data = fileData.get(rtName);
-            int colIndex = i + 1;
-
-            if (data != null) {
-                // УЗД данные
-                if (data.noiseLevel != null) {
-                    noiseRow.createCell(colIndex).setCellValue(data.noiseLevel);
-                }
-
-                // ПДУ значения
-                if (data.pduValue != null) {
-                    pduRow.createCell(colIndex).setCellValue(data.pduValue);
-                }
-
-                // Превышения
-                if (data.excessValue != null) {
-                    excessRow.createCell(colIndex).setCellValue(data.excessValue);
-                }
-            }
-        }
-    }
-
     /**
      * Применяет стили к блоку данных
      */
-    private void applyBlockStyles(Workbook workbook, Sheet sheet, int startRow, int endRow, int numColumns) {
-        CellStyle dataStyle = createDataStyle(workbook);
+    private void applyBlockStyles(StyleRegistry styles, Sheet sheet, int startRow, int endRow, int numColumns) {
+        CellStyle dataStyle = createDataStyle(styles);
 
         for (int rowNum = startRow; rowNum <= endRow; rowNum++) {
             Row row = sheet.getRow(rowNum);
@@ -509,78 +545,28 @@ public class SummaryTableCreator implements TableCreator {
     /**
      * Создает стиль для заголовков
      */
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        style.setWrapText(true);
-
-        Font font = workbook.createFont();
-        font.setBold(true);
-        font.setFontHeightInPoints((short) 11);
-        style.setFont(font);
-
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        return style;
+    private CellStyle createHeaderStyle(StyleRegistry styles) {
+        return styles.get(HEADER_SPEC);
     }
 
     /**
      * Создает стиль для данных
      */
-    private CellStyle createDataStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        style.setWrapText(true);
-
-        Font font = workbook.createFont();
-        font.setFontHeightInPoints((short) 10);
-        style.setFont(font);
-
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-
-        return style;
+    private CellStyle createDataStyle(StyleRegistry styles) {
+        return styles.get(DATA_SPEC);
     }
 
     // Остальные методы без изменений (findAllSourceFiles, createOutputFolder, createOutputFile, etc.)
-    private List<File> findAllSourceFiles(String rootPath) {
-        try {
-            List<File> sourceFiles = new ArrayList<>();
-            FileType[] allTypes = FileType.values();
-
-            Files.walk(Paths.get(rootPath))
-                    .filter(Files::isRegularFile)
-                    .filter(path -> {
-                        String fileName = path.getFileName().toString();
-                        String lowerFileName = fileName.toLowerCase();
-                        return (fileName.endsWith(".xlsx") || fileName.endsWith(".xls")) &&
-                                FileType.isSupportedFile(fileName) &&
-                                !lowerFileName.contains("в записку"); // ← исключаем
-                    })
-                    .forEach(path -> sourceFiles.add(path.toFile()));
-
-            log.info("Найдено файлов для сводной таблицы: {}", sourceFiles.size());
-            return sourceFiles;
-
-        } catch (IOException e) {
-            log.error("Ошибка при поиске файлов: {}", e.getMessage());
-            return Collections.emptyList();
-        }
+    private List<CatalogEntry> findAllSourceFiles(FileCatalog catalog) {
+        // Выходные файлы "В записку" в каталог не попадают
+        List<CatalogEntry> sourceFiles = catalog.findSupported();
+        log.info("Найдено файлов для сводной таблицы: {}", sourceFiles.size());
+        return sourceFiles;
     }
 
     private File createOutputFolder(String rootPath) {
         File rootDir = new File(rootPath);
-        String folderName = rootDir.getName() + "_Сводная таблица УЗД в расчетных точках, в дБА";
+        String folderName = rootDir.getName() + FileCatalog.SUMMARY_FOLDER_SUFFIX;
         File outputFolder = new File(rootDir, folderName);
 
         if (!outputFolder.exists()) {
@@ -599,48 +585,12 @@ public class SummaryTableCreator implements TableCreator {
         return new File(outputFolder, fileName);
     }
 
-    private boolean isRtRow(Cell cellA, Cell cellB) {
-        if (cellA == null || cellB == null) return false;
-        String valueA = getCellStringValue(cellA).trim();
-        String valueB = getCellStringValue(cellB).trim();
-        boolean isRtFormat = valueA.matches("РТ-?\\d+.*");
-        boolean isValidType = valueB.contains("УЗД") || valueB.contains("ПДУ") || valueB.contains("превышение");
-        return isRtFormat && isValidType;
-    }
-
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return "";
-        try {
-            switch (cell.getCellType()) {
-                case STRING: return cell.getStringCellValue();
-                case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(cell)) {
-                        return cell.getDateCellValue().toString();
-                    } else {
-                        double value = cell.getNumericCellValue();
-                        return value == Math.floor(value) ? String.valueOf((int) value) : String.valueOf(value);
-                    }
-                case BOOLEAN: return String.valueOf(cell.getBooleanCellValue());
-                case FORMULA:
-                    try { return cell.getStringCellValue(); }
-                    catch (Exception e) {
-                        try { return String.valueOf(cell.getNumericCellValue()); }
-                        catch (Exception ex) { return cell.getCellFormula(); }
-                    }
-                default: return "";
-            }
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
-    private Double getNumericValue(Cell cell) {
-        if (cell == null || cell.getCellType() != CellType.NUMERIC) return null;
-        try {
-            return cell.getNumericCellValue();
-        } catch (Exception e) {
-            return null;
-        }
+    /**
+     * РТ одного файла и их значения
+     */
+    private static class FileSummary {
+        final Set<String> rtNames = new HashSet<>();
+        final Map<String, FileData> fileData = new HashMap<>();
     }
 
     /**
@@ -656,4 +606,13 @@ public class SummaryTableCreator implements TableCreator {
     public boolean createSummaryTable(String rootPath, boolean createSummaryTable) {
         return createTable(rootPath, createSummaryTable);
     }
+
+    public boolean createSummaryTable(FileCatalog catalog, boolean createSummaryTable) {
+        return createTable(catalog, createSummaryTable);
+    }
+
+    public boolean createSummaryTable(FileCatalog catalog, SummaryAccumulator accumulator, boolean createSummaryTable,
+                                      RunContext run) {
+        return createTable(catalog, accumulator, createSummaryTable, run);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.tsb.noise.service.operations.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.*;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.util.Arrays;
+
+/**
+ * Переносит ссылки формул вслед за строками плана.
+ * Раньше это делал Sheet.shiftRows при каждой вставке и удалении: ссылка на строку,
+ * которая сместилась, указывала на ее новое место, а ссылка на удаленную строку становилась #REF!.
+ */
+@Slf4j
+class FormulaRowRemapper {
+
+    private static final int DELETED = -1;
+
+    private final XSSFEvaluationWorkbook evaluationWorkbook;
+    private final int sheetIndex;
+    private final int[] finalRowByInitialRow;
+    private final boolean identity;
+
+    private FormulaRowRemapper(XSSFEvaluationWorkbook evaluationWorkbook, int sheetIndex,
+                               int[] finalRowByInitialRow, boolean identity) {
+        this.evaluationWorkbook = evaluationWorkbook;
+        this.sheetIndex = sheetIndex;
+        this.finalRowByInitialRow = finalRowByInitialRow;
+        this.identity = identity;
+    }
+
+    /**
+     * Строит соответствие "исходная строка листа -> итоговая строка листа" по плану
+     */
+    static FormulaRowRemapper forPlan(RowPlan plan, XSSFWorkbook workbook, int sheetIndex) {
+        int maxInitialRow = RowPlan.FIRST_SHEET_ROW - 1;
+        for (PlanRow row : plan.getRows()) {
+            maxInitialRow = Math.max(maxInitialRow, row.getInitialSheetRow());
+        }
+
+        int[] finalRows = new int[maxInitialRow + 1];
+        Arrays.fill(finalRows, DELETED);
+        for (int row = 0; row < RowPlan.FIRST_SHEET_ROW && row < finalRows.length; row++) {
+            finalRows[row] = row; // Шапка таблицы не сдвигается
+        }
+
+        boolean identity = true;
+        for (int index = 0; index < plan.size(); index++) {
+            int initialRow = plan.get(index).getInitialSheetRow();
+            if (initialRow < 0) {
+                identity = false;
+                continue;
+            }
+            int finalRow = plan.toSheetRow(index);
+            finalRows[initialRow] = finalRow;
+            identity &= initialRow == finalRow;
+        }
+        for (int row = RowPlan.FIRST_SHEET_ROW; row < finalRows.length; row++) {
+            identity &= finalRows[row] != DELETED;
+        }
+
+        return new FormulaRowRemapper(XSSFEvaluationWorkbook.create(workbook), sheetIndex, finalRows, identity);
+    }
+
+    /**
+     * Возвращает формулу со ссылками, перенесенными на итоговые строки
+     */
+    String remap(String formula) {
+        if (identity) {
+            return formula;
+        }
+
+        try {
+            Ptg[] ptgs = FormulaParser.parse(formula, evaluationWorkbook, FormulaType.CELL, sheetIndex);
+            boolean changed = false;
+            for (int i = 0; i < ptgs.length; i++) {
+                Ptg remapped = remapPtg(ptgs[i]);
+                if (remapped != ptgs[i]) {
+                    ptgs[i] = remapped;
+                    changed = true;
+                }
+            }
+            return changed ? FormulaRenderer.toFormulaString(evaluationWorkbook, ptgs) : formula;
+        } catch (Exception e) {
+            log.debug("Не удалось перенести ссылки формулы '{}': {}", formula, e.getMessage());
+            return formula;
+        }
+    }
+
+    private Ptg remapPtg(Ptg ptg) {
+        if (ptg instanceof RefPtg ref) {
+            int finalRow = finalRow(ref.getRow());
+            if (finalRow == DELETED) {
+                return new RefErrorPtg();
+            }
+            if (finalRow == ref.getRow()) {
+                return ptg;
+            }
+            RefPtg copy = ref.copy();
+            copy.setRow(finalRow);
+            return copy;
+        }
+        if (ptg instanceof AreaPtg area) {
+            int firstRow = finalRow(area.getFirstRow());
+            int lastRow = finalRow(area.getLastRow());
+            if (firstRow == DELETED || lastRow == DELETED) {
+                return new AreaErrPtg();
+            }
+            if (firstRow == area.getFirstRow() && lastRow == area.getLastRow()) {
+                return ptg;
+            }
+            AreaPtg copy = area.copy();
+            copy.setFirstRow(firstRow);
+            copy.setLastRow(lastRow);
+            return copy;
+        }
+        return ptg;
+    }
+
+    /**
+     * Строки за пределами плана (ниже последней исходной строки) не сдвигались
+     */
+    private int finalRow(int initialRow) {
+        return initialRow < finalRowByInitialRow.length ? finalRowByInitialRow[initialRow] : initialRow;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tsb.noise.service.operations.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Отложенная регистрация объединенных областей. Во время записи плана запоминаются позиции строк плана,
+ * а в лист области добавляются одной пачкой, когда раскладка строк окончательна. Пересечения проверяются
+ * один раз сортировкой, после чего области добавляются без проверки POI, которая при каждом
+ * addMergedRegion сравнивает новую область со всеми уже существующими.
+ */
+@Slf4j
+final class MergedRegionRegistry {
+
+    private final List<PendingRegion> pending = new ArrayList<>();
+
+    /**
+     * Область на одной строке плана
+     */
+    private record PendingRegion(int planIndex, int firstColumn, int lastColumn) {
+    }
+
+    /**
+     * Запоминает объединение колонок firstColumn..lastColumn в строке плана planIndex
+     */
+    void register(int planIndex, int firstColumn, int lastColumn) {
+        pending.add(new PendingRegion(planIndex, firstColumn, lastColumn));
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Переводит позиции плана в строки листа, проверяет пересечения с уже существующими областями
+     * и между собой и добавляет все области в лист
+     * @return количество добавленных областей
+     * @throws IllegalStateException если области пересекаются
+     */
+    int commit(RowPlan plan, Sheet sheet) {
+        if (pending.isEmpty()) return 0;
+
+        List<CellRangeAddress> regions = new ArrayList<>(pending.size());
+        for (PendingRegion region : pending) {
+            int sheetRow = plan.toSheetRow(region.planIndex());
+            regions.add(new CellRangeAddress(sheetRow, sheetRow, region.firstColumn(), region.lastColumn()));
+        }
+
+        List<CellRangeAddress> all = new ArrayList<>(sheet.getMergedRegions());
+        all.addAll(regions);
+        checkNoOverlaps(all);
+
+        for (CellRangeAddress region : regions) {
+            sheet.addMergedRegionUnsafe(region);
+        }
+        pending.clear();
+
+        log.debug("🔗 Добавлено объединенных областей: {}", regions.size());
+        return regions.size();
+    }
+
+    /**
+     * Проверка пересечений проходом по областям, отсортированным по первой строке
+     */
+    private static void checkNoOverlaps(List<CellRangeAddress> regions) {
+        List<CellRangeAddress> sorted = new ArrayList<>(regions);
+        sorted.sort(Comparator.comparingInt(CellRangeAddress::getFirstRow)
+                .thenComparingInt(CellRangeAddress::getFirstColumn));
+
+        List<CellRangeAddress> active = new ArrayList<>();
+        for (CellRangeAddress region : sorted) {
+            active.removeIf(open -> open.getLastRow() < region.getFirstRow());
+            for (CellRangeAddress open : active) {
+                if (open.intersects(region)) {
+                    throw new IllegalStateException("Объединенные области пересекаются: "
+                            + open.formatAsString() + " и " + region.formatAsString());
+                }
+            }
+            active.add(region);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.tsb.noise.service.operations.plan;
+
+import com.tsb.noise.service.reader.SheetCell;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Arrays;
+
+/**
+ * Строка плана выходного листа: значения ячеек и признаки оформления.
+ * Строки плана материализуются в лист только один раз - в RowPlanWriter.
+ */
+public final class PlanRow {
+
+    /**
+     * Вид строки определяет оформление при записи в лист
+     */
+    public enum Kind {
+        DATA,       // Данные (включая строки поправки)
+        RT_HEADER   // Заголовок РТ: объединение B-M и выделенный стиль
+    }
+
+    private static final int LABEL_COLUMN = 1; // Колонка B
+
+    @Getter
+    private final Kind kind;
+    private SheetCell[] cells;
+
+    /**
+     * Перенос текста в подписи строки (колонка B)
+     */
+    @Getter
+    @Setter
+    private boolean labelWrapped;
+
+    /**
+     * Строка листа, которую строка занимала при заполнении плана (-1 для вставленных строк).
+     * Нужна для переноса ссылок формул на итоговое место строки.
+     */
+    @Getter
+    private int initialSheetRow = -1;
+
+    /**
+     * Подпись B, вычисленная при первом запросе; сбрасывается при изменении колонки B
+     */
+    private String label;
+
+    private PlanRow(Kind kind, SheetCell[] cells) {
+        this.kind = kind;
+        this.cells = cells;
+    }
+
+    /**
+     * Строка данных; массив ячеек передается строке плана во владение
+     */
+    public static PlanRow data(SheetCell[] cells) {
+        return new PlanRow(Kind.DATA, cells != null ? cells : new SheetCell[0]);
+    }
+
+    public static PlanRow empty() {
+        return new PlanRow(Kind.DATA, new SheetCell[0]);
+    }
+
+    public static PlanRow rtHeader(String headerText) {
+        PlanRow row = new PlanRow(Kind.RT_HEADER, new SheetCell[0]);
+        row.setCell(SheetCell.ofString(LABEL_COLUMN, headerText));
+        return row;
+    }
+
+    void setInitialSheetRow(int initialSheetRow) {
+        this.initialSheetRow = initialSheetRow;
+    }
+
+    public SheetCell getCell(int columnIndex) {
+        return columnIndex >= 0 && columnIndex < cells.length ? cells[columnIndex] : null;
+    }
+
+    /**
+     * Устанавливает ячейку в колонку, указанную в самой ячейке
+     */
+    public void setCell(SheetCell cell) {
+        int columnIndex = cell.getColumnIndex();
+        if (columnIndex >= cells.length) {
+            cells = Arrays.copyOf(cells, columnIndex + 1);
+        }
+        cells[columnIndex] = cell;
+        if (columnIndex == LABEL_COLUMN) {
+            label = null;
+        }
+    }
+
+    public int getLastCellNum() {
+        return cells.length;
+    }
+
+    public String getString(int columnIndex) {
+        SheetCell cell = getCell(columnIndex);
+        return cell != null ? cell.getStringValue() : "";
+    }
+
+    /**
+     * Подпись строки - текст колонки B без пробелов по краям
+     */
+    public String getLabel() {
+        if (label == null) {
+            label = getString(LABEL_COLUMN).trim();
+        }
+        return label;
+    }
+
+    /**
+     * Строка пуста, если в колонках A-M (кроме скрытой C) нет значений
+     */
+    public boolean isEmpty() {
+        for (int colIndex = 0; colIndex <= 12 && colIndex < cells.length; colIndex++) {
+            if (colIndex == 2) continue; // Пропускаем скрытую колонку C
+            SheetCell cell = cells[colIndex];
+            if (cell == null) continue;
+            if (cell.getFormula() != null || !cell.getStringValue().trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tsb.noise.service.operations.plan;
+
+import com.tsb.noise.service.operations.core.BorderMode;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Настройки записи плана в лист
+ */
+@Value
+@With
+@AllArgsConstructor
+public class PlanWriteOptions {
+
+    /**
+     * Высота строк 8мм, объединенные заголовки РТ, границы ячейками, без оптимизации
+     */
+    public static final PlanWriteOptions DEFAULT = new PlanWriteOptions(8.0, RtHeaderLayout.MERGED_CELLS,
+            BorderMode.CELLS, false);
+
+    double rowHeightMm;
+    RtHeaderLayout rtHeaderLayout;
+    BorderMode borderMode;
+
+    /**
+     * Не записывать избыточную разметку: высоту строк, равную высоте по умолчанию листа,
+     * и ячейки с пустой строкой или пустые ячейки без значения (их оформляет сетка границ)
+     */
+    boolean optimizeOutput;
+}
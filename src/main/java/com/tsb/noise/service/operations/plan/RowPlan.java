@@ -0,0 +1,135 @@
+package com.tsb.noise.service.operations.plan;
+
+import java.util.*;
+
+/**
+ * План выходного листа: итоговая последовательность строк, начиная с пустой строки после шапки.
+ * Операции не сдвигают строки листа, а накапливают правки (Edits), которые применяются
+ * к плану одним линейным проходом. Лист заполняется один раз по готовому плану.
+ */
+public class RowPlan {
+
+    /**
+     * Строка листа, с которой начинается план (строки 0-1 - шапка таблицы)
+     */
+    public static final int FIRST_SHEET_ROW = 2;
+
+    /**
+     * Индекс первой строки данных в плане (строка листа 3)
+     */
+    public static final int FIRST_DATA_INDEX = 1;
+
+    private List<PlanRow> rows = new ArrayList<>();
+
+    /**
+     * Добавляет строку в конец плана при его заполнении (до применения правок)
+     */
+    public void addRow(PlanRow row) {
+        row.setInitialSheetRow(toSheetRow(rows.size()));
+        rows.add(row);
+    }
+
+    public PlanRow get(int index) {
+        return rows.get(index);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public List<PlanRow> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Номер строки листа, в которую будет записана строка плана
+     */
+    public int toSheetRow(int index) {
+        return index + FIRST_SHEET_ROW;
+    }
+
+    /**
+     * Заменяет строки плана результатом прохода конвейера операций (RowPipeline)
+     */
+    public void replaceRows(List<PlanRow> newRows) {
+        rows = new ArrayList<>(newRows);
+    }
+
+    public Edits newEdits() {
+        return new Edits();
+    }
+
+    /**
+     * Применяет накопленные правки за один проход по плану
+     * @return количество строк плана после применения
+     */
+    public int apply(Edits edits) {
+        if (edits.isEmpty()) {
+            return rows.size();
+        }
+
+        List<PlanRow> result = new ArrayList<>(rows.size() + edits.insertedCount);
+        for (int index = 0; index <= rows.size(); index++) {
+            List<PlanRow> before = edits.rowsBefore.get(index);
+            if (before != null) {
+                result.addAll(before);
+            }
+            if (index < rows.size() && !edits.removed.get(index)) {
+                result.add(rows.get(index));
+            }
+        }
+        rows = result;
+        return rows.size();
+    }
+
+    /**
+     * Набор правок плана. Индексы относятся к плану на момент создания правок.
+     */
+    public class Edits {
+        private final Map<Integer, List<PlanRow>> rowsBefore = new HashMap<>();
+        private final BitSet removed = new BitSet();
+        private int insertedCount;
+
+        private Edits() {
+        }
+
+        /**
+         * Удаляет строку
+         */
+        public void drop(int index) {
+            checkIndex(index);
+            removed.set(index);
+        }
+
+        /**
+         * Вставляет новую строку перед строкой index (index == size() - в конец плана)
+         */
+        public void insertBefore(int index, PlanRow row) {
+            if (index < 0 || index > rows.size()) {
+                throw new IndexOutOfBoundsException("Позиция вставки вне плана: " + index);
+            }
+            rowsBefore.computeIfAbsent(index, key -> new ArrayList<>()).add(row);
+            insertedCount++;
+        }
+
+        /**
+         * Переносит строку index на позицию перед строкой anchorIndex
+         */
+        public void moveBefore(int index, int anchorIndex) {
+            checkIndex(index);
+            checkIndex(anchorIndex);
+            removed.set(index);
+            rowsBefore.computeIfAbsent(anchorIndex, key -> new ArrayList<>()).add(rows.get(index));
+        }
+
+        public boolean isEmpty() {
+            return rowsBefore.isEmpty() && removed.isEmpty();
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= rows.size()) {
+                throw new IndexOutOfBoundsException("Строка вне плана: " + index);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.tsb.noise.service.operations.plan;
+
+import com.tsb.noise.service.operations.core.BorderMode;
+import com.tsb.noise.service.operations.core.StyleApplier;
+import com.tsb.noise.service.operations.core.StyleRegistry;
+import com.tsb.noise.service.reader.SheetCell;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Материализует готовый план в выходной лист за один проход, без сдвига строк.
+ * Строки пишутся строго сверху вниз и оформляются границами сразу при записи,
+ * поэтому лист может быть потоковым (SXSSF) - уже записанные строки к листу больше не нужны.
+ * Объединения заголовков РТ добавляются в лист одной пачкой после записи всех строк.
+ */
+@Slf4j
+public class RowPlanWriter {
+
+    private static final int RT_HEADER_FIRST_COLUMN = 1;  // Колонка B
+    private static final int RT_HEADER_LAST_COLUMN = 12;  // Колонка M
+
+    private final StyleApplier styleApplier;
+
+    public RowPlanWriter(StyleApplier styleApplier) {
+        this.styleApplier = styleApplier;
+    }
+
+    /**
+     * Записывает строки плана в лист начиная с RowPlan.FIRST_SHEET_ROW, с тонкими границами A-M
+     * и объединенными ячейками в заголовках РТ
+     * @param styles реестр стилей книги, которой принадлежит лист
+     * @return количество записанных строк
+     */
+    public int write(RowPlan plan, Sheet sheet, StyleRegistry styles, double rowHeightMm) {
+        return write(plan, sheet, styles, PlanWriteOptions.DEFAULT.withRowHeightMm(rowHeightMm));
+    }
+
+    /**
+     * Записывает строки плана в лист, оформляя заголовки РТ и сетку границ указанными способами.
+     * В режиме BorderMode.RANGE_RULE пустые позиции строк данных не создаются, а сетка задается
+     * одним правилом на диапазон плана; строки заголовков РТ оформляются ячейками всегда,
+     * так как от ячеек зависят границы объединенной области.
+     * @param styles реестр стилей книги, которой принадлежит лист
+     * @return количество записанных строк
+     */
+    public int write(RowPlan plan, Sheet sheet, StyleRegistry styles, PlanWriteOptions options) {
+        float rowHeight = mmToPoints(options.getRowHeightMm());
+        boolean optimize = options.isOptimizeOutput();
+        // Высота, равная высоте по умолчанию листа, при оптимизации не записывается в каждую строку
+        boolean writeRowHeight = !optimize || rowHeight != sheet.getDefaultRowHeightInPoints();
+        FormulaRowRemapper formulaRemapper = createFormulaRemapper(plan, sheet);
+        MergedRegionRegistry mergedRegions = new MergedRegionRegistry();
+        int skippedCells = 0;
+
+        for (int index = 0; index < plan.size(); index++) {
+            PlanRow planRow = plan.get(index);
+            int sheetRowIndex = plan.toSheetRow(index);
+
+            Row row = sheet.createRow(sheetRowIndex);
+            if (writeRowHeight) {
+                row.setHeightInPoints(rowHeight);
+            }
+
+            if (planRow.getKind() == PlanRow.Kind.RT_HEADER) {
+                writeRtHeader(row, planRow, index, styles, options.getRtHeaderLayout(), mergedRegions);
+            } else {
+                skippedCells += writeDataRow(row, planRow, styles, formulaRemapper, optimize);
+                if (options.getBorderMode() == BorderMode.RANGE_RULE) {
+                    styleApplier.applyExistingCellBorders(row, styles);
+                } else {
+                    styleApplier.applyRowBorders(row, styles);
+                }
+            }
+        }
+
+        if (options.getBorderMode() == BorderMode.RANGE_RULE && plan.size() > 0) {
+            styleApplier.applyRangeBorders(sheet, plan.toSheetRow(0), plan.toSheetRow(plan.size() - 1));
+        }
+
+        int mergedCount = mergedRegions.commit(plan, sheet);
+
+        log.info("📝 План записан в лист: {} строк, объединено заголовков РТ: {}", plan.size(), mergedCount);
+        if (optimize) {
+            log.info("🗜️ Оптимизация разметки: высот строк не записано {}, пустых ячеек не записано {}",
+                    writeRowHeight ? 0 : plan.size(), skippedCells);
+        }
+        return plan.size();
+    }
+
+    private FormulaRowRemapper createFormulaRemapper(RowPlan plan, Sheet sheet) {
+        Workbook workbook = sheet.getWorkbook();
+        int sheetIndex = workbook.getSheetIndex(sheet);
+        if (workbook instanceof SXSSFWorkbook) {
+            return FormulaRowRemapper.forPlan(plan, ((SXSSFWorkbook) workbook).getXSSFWorkbook(), sheetIndex);
+        }
+        if (workbook instanceof XSSFWorkbook) {
+            return FormulaRowRemapper.forPlan(plan, (XSSFWorkbook) workbook, sheetIndex);
+        }
+        return null;
+    }
+
+    /**
+     * @return количество пропущенных избыточных ячеек
+     */
+    private int writeDataRow(Row row, PlanRow planRow, StyleRegistry styles, FormulaRowRemapper formulaRemapper,
+                             boolean optimize) {
+        int skippedCells = 0;
+        for (int colIndex = 0; colIndex < planRow.getLastCellNum(); colIndex++) {
+            SheetCell sourceCell = planRow.getCell(colIndex);
+            if (sourceCell == null) continue;
+            if (optimize && isRedundantCell(sourceCell)) {
+                skippedCells++;
+                continue;
+            }
+
+            Cell targetCell = row.createCell(colIndex);
+            writeCellValue(sourceCell, targetCell, formulaRemapper);
+            styleApplier.applyCellStyleWithFont(targetCell, styles, colIndex == 1 && planRow.isLabelWrapped());
+        }
+        return skippedCells;
+    }
+
+    /**
+     * Пустая ячейка или ячейка с пустой строкой (не формула): выглядит так же, как незаписанная позиция,
+     * которую оформляет сетка границ
+     */
+    private boolean isRedundantCell(SheetCell cell) {
+        return switch (cell.getCellType()) {
+            case BLANK -> true;
+            case STRING -> cell.getText() == null || cell.getText().isEmpty();
+            default -> false;
+        };
+    }
+
+    private void writeRtHeader(Row row, PlanRow planRow, int planIndex, StyleRegistry styles,
+                               RtHeaderLayout headerLayout, MergedRegionRegistry mergedRegions) {
+        Cell headerCell = row.createCell(RT_HEADER_FIRST_COLUMN);
+        headerCell.setCellValue(planRow.getString(RT_HEADER_FIRST_COLUMN));
+
+        if (headerLayout == RtHeaderLayout.CENTER_ACROSS_SELECTION) {
+            // Границы A-M, затем B-M - одной полосой по центру выделения
+            styleApplier.applyRowBorders(row, styles);
+            styleApplier.applyRtHeaderAcrossSelection(row, styles, RT_HEADER_FIRST_COLUMN, RT_HEADER_LAST_COLUMN);
+            return;
+        }
+
+        // Объединение B-M добавляется в лист после записи всех строк
+        mergedRegions.register(planIndex, RT_HEADER_FIRST_COLUMN, RT_HEADER_LAST_COLUMN);
+        styleApplier.applyRtHeaderStyle(headerCell, styles);
+        styleApplier.applyRowBorders(row, styles);
+    }
+
+    private void writeCellValue(SheetCell sourceCell, Cell targetCell, FormulaRowRemapper formulaRemapper) {
+        switch (sourceCell.getCellType()) {
+            case FORMULA:
+                if (sourceCell.getFormula() != null) {
+                    String formula = sourceCell.getFormula();
+                    targetCell.setCellFormula(formulaRemapper != null ? formulaRemapper.remap(formula) : formula);
+                } else {
+                    // Ведомая ячейка общей формулы - переносим кэшированное значение
+                    writeResultValue(sourceCell, targetCell);
+                }
+                break;
+            case BLANK:
+                targetCell.setBlank();
+                break;
+            default:
+                writeResultValue(sourceCell, targetCell);
+        }
+    }
+
+    private void writeResultValue(SheetCell sourceCell, Cell targetCell) {
+        switch (sourceCell.getResultType()) {
+            case STRING:
+                targetCell.setCellValue(sourceCell.getText());
+                break;
+            case NUMERIC:
+                if (sourceCell.isDateFormatted()) {
+                    targetCell.setCellValue(DateUtil.getJavaDate(sourceCell.getNumber(), sourceCell.isDate1904()));
+                } else {
+                    targetCell.setCellValue(sourceCell.getNumber());
+                }
+                break;
+            case BOOLEAN:
+                targetCell.setCellValue(sourceCell.getBooleanValue());
+                break;
+            case BLANK:
+                targetCell.setBlank();
+                break;
+            default:
+                targetCell.setCellValue("");
+        }
+    }
+
+    private short mmToPoints(double mm) {
+        return (short) (mm / 25.4 * 72);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tsb.noise.service.operations.plan;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Способ оформления заголовка РТ на колонки B-M
+ */
+@Slf4j
+@Getter
+public enum RtHeaderLayout {
+    /**
+     * Объединенные ячейки B-M
+     */
+    MERGED_CELLS("объединение ячеек"),
+
+    /**
+     * Выравнивание "по центру выделения" B-M: выглядит так же, но без объединенных областей в листе
+     */
+    CENTER_ACROSS_SELECTION("по центру выделения");
+
+    private static final String LAYOUT_PROPERTY = "noise.rt.header.layout";
+
+    private final String displayName;
+
+    RtHeaderLayout(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Способ, заданный свойством noise.rt.header.layout (merged | center); по умолчанию - объединение ячеек
+     */
+    public static RtHeaderLayout configured() {
+        String value = System.getProperty(LAYOUT_PROPERTY, "merged").trim();
+        return switch (value.toLowerCase()) {
+            case "merged", "merged_cells" -> MERGED_CELLS;
+            case "center", "center_across_selection" -> CENTER_ACROSS_SELECTION;
+            default -> {
+                log.warn("⚠️ Неизвестный способ оформления заголовков РТ '{}', используется объединение ячеек", value);
+                yield MERGED_CELLS;
+            }
+        };
+    }
+}
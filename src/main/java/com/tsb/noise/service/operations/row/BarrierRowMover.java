@@ -1,230 +1,103 @@
 package com.tsb.noise.service.operations.row;
 
 import com.tsb.noise.service.operations.core.RowOperation;
+import com.tsb.noise.service.operations.core.RowStage;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 
 @Slf4j
 public class BarrierRowMover implements RowOperation {
 
     private static final String TARGET_TEXT = "Звукоизоляция преградой";
-    private static final int TARGET_COLUMN = 1; // Колонка B
     private static final int MOVE_OFFSET = 3; // На 3 строки выше
 
     @Override
-    public int execute(Sheet sheet) {
+    public RowStage createStage() {
         log.info("🔍 Поиск строк с '{}' для перемещения...", TARGET_TEXT);
-
-        List<BarrierRowInfo> barrierRows = findTargetRows(sheet);
-
-        if (barrierRows.isEmpty()) {
-            log.info("❌ Строки с '{}' не найдены", TARGET_TEXT);
-            return 0;
-        }
-
-        log.info("✅ Найдено строк: {}", barrierRows.size());
-        barrierRows.sort(Comparator.comparingInt(BarrierRowInfo::getOriginalIndex).reversed());
-
-        int movedCount = 0;
-
-        for (BarrierRowInfo barrierRow : barrierRows) {
-            try {
-                if (moveBarrierRow(sheet, barrierRow)) {
-                    movedCount++;
-                }
-            } catch (Exception e) {
-                log.error("❌ Ошибка при перемещении строки {}: {}",
-                        barrierRow.getOriginalIndex() + 1, e.getMessage(), e);
-            }
-        }
-
-        log.info("🎯 Перемещено строк '{}': {}", TARGET_TEXT, movedCount);
-        return movedCount;
-    }
-
-    @Override
-    public String getOperationName() {
-        return "Перемещение строк 'Звукоизоляция преградой'";
+        return new MoveStage();
     }
 
     /**
-     * Перемещает одну строку
+     * Позиция входа стадии: строка (null, если она перенесена выше) и строки, перенесенные перед ней
      */
-    private boolean moveBarrierRow(Sheet sheet, BarrierRowInfo barrierRow) {
-        int sourceIndex = barrierRow.getOriginalIndex();
-        int targetIndex = barrierRow.getTargetIndex();
-
-        log.debug("🔄 Перемещение из {} в {}", sourceIndex + 1, targetIndex + 1);
+    private static final class Slot {
+        private final PlanRow row;
+        private List<PlanRow> movedBefore;
 
-        try {
-            // Сохраняем данные исходной строки
-            List<CellData> sourceRowData = saveRowData(barrierRow.getRow());
-
-            // Вставляем пустую строку в целевую позицию
-            insertEmptyRow(sheet, targetIndex);
-
-            // Копируем данные в новую строку
-            Row newRow = sheet.getRow(targetIndex);
-            restoreRowData(newRow, sourceRowData);
-
-            // Удаляем исходную строку (учитывая что мы вставили строку выше)
-            removeRow(sheet, sourceIndex + 1);
-
-            log.debug("✅ Успешно перемещено: исходная строка {} удалена, данные скопированы в {}",
-                    sourceIndex + 1, targetIndex + 1);
-            return true;
-
-        } catch (Exception e) {
-            log.error("❌ Критическая ошибка при перемещении строки из {} в {}: {}",
-                    sourceIndex + 1, targetIndex + 1, e.getMessage(), e);
-            return false;
+        private Slot(PlanRow row) {
+            this.row = row;
         }
-    }
-
-    /**
-     * Находит строки с целевым текстом
-     */
-    private List<BarrierRowInfo> findTargetRows(Sheet sheet) {
-        List<BarrierRowInfo> barrierRows = new ArrayList<>();
 
-        for (int rowIndex = 3; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
+        private void emit(RowStage.Sink downstream) {
+            if (movedBefore != null) {
+                movedBefore.forEach(downstream::emit);
+            }
             if (row != null) {
-                Cell cell = row.getCell(TARGET_COLUMN);
-                if (cell != null) {
-                    String cellValue = getCellStringValue(cell).trim();
-                    if (TARGET_TEXT.equals(cellValue)) {
-                        int targetIndex = rowIndex - MOVE_OFFSET;
-                        if (targetIndex >= 3) { // Не выше шапки
-                            barrierRows.add(new BarrierRowInfo(rowIndex, targetIndex, cellValue, row));
-                        }
-                    }
-                }
+                downstream.emit(row);
             }
         }
-        return barrierRows;
-    }
-
-    /**
-     * Вспомогательные классы для хранения данных
-     */
-    private static class BarrierRowInfo {
-        private final int originalIndex;
-        private final int targetIndex;
-        private final String cellValue;
-        private final Row row;
-
-        public BarrierRowInfo(int originalIndex, int targetIndex, String cellValue, Row row) {
-            this.originalIndex = originalIndex;
-            this.targetIndex = targetIndex;
-            this.cellValue = cellValue;
-            this.row = row;
-        }
-
-        public int getOriginalIndex() { return originalIndex; }
-        public int getTargetIndex() { return targetIndex; }
-        public String getCellValue() { return cellValue; }
-        public Row getRow() { return row; }
-    }
-
-    private static class CellData {
-        private final int columnIndex;
-        private final String value;
-        private final CellStyle style;
-
-        public CellData(int columnIndex, String value, CellStyle style) {
-            this.columnIndex = columnIndex;
-            this.value = value;
-            this.style = style;
-        }
     }
 
     /**
-     * Сохраняет данные строки
+     * Задерживает последние MOVE_OFFSET позиций: найденная строка встает перед строкой,
+     * которая была на MOVE_OFFSET позиций выше, и позиции переносимых строк сохраняются
      */
-    private List<CellData> saveRowData(Row row) {
-        List<CellData> rowData = new ArrayList<>();
-        for (int colIndex = 0; colIndex <= 13; colIndex++) {
-            Cell cell = row.getCell(colIndex);
-            if (cell != null) {
-                String value = getCellStringValue(cell);
-                rowData.add(new CellData(colIndex, value, cell.getCellStyle()));
+    private static final class MoveStage implements RowStage {
+        private final Deque<Slot> window = new ArrayDeque<>(MOVE_OFFSET + 1);
+        private int movedCount;
+
+        @Override
+        public void accept(PlanRow row, int position, Sink downstream) {
+            int targetPosition = position - MOVE_OFFSET;
+            boolean move = position >= RowPlan.FIRST_DATA_INDEX
+                    && targetPosition >= RowPlan.FIRST_DATA_INDEX // Не выше шапки
+                    && TARGET_TEXT.equals(row.getLabel());
+
+            if (move) {
+                // Строка встает перед строкой, которая была на 3 позиции выше (первая в окне)
+                Slot target = window.peekFirst();
+                if (target.movedBefore == null) {
+                    target.movedBefore = new ArrayList<>(1);
+                }
+                target.movedBefore.add(row);
+                movedCount++;
+                log.debug("🔄 Перемещение из {} в {}", position + RowPlan.FIRST_SHEET_ROW + 1,
+                        targetPosition + RowPlan.FIRST_SHEET_ROW + 1);
             }
-        }
-        return rowData;
-    }
 
-    /**
-     * Восстанавливает данные строки
-     */
-    private void restoreRowData(Row row, List<CellData> rowData) {
-        for (CellData cellData : rowData) {
-            Cell cell = row.createCell(cellData.columnIndex);
-            cell.setCellValue(cellData.value);
-            if (cellData.style != null) {
-                cell.setCellStyle(cellData.style);
+            window.addLast(new Slot(move ? null : row));
+            if (window.size() > MOVE_OFFSET) {
+                window.removeFirst().emit(downstream);
             }
         }
-        // Сохраняем высоту строки
-        if (!rowData.isEmpty()) {
-            row.setHeightInPoints((short) (8.0 / 25.4 * 72)); // 8mm в points
-        }
-    }
-
-    /**
-     * Вставляет пустую строку
-     */
-    private void insertEmptyRow(Sheet sheet, int targetRowIndex) {
-        if (targetRowIndex <= sheet.getLastRowNum()) {
-            sheet.shiftRows(targetRowIndex, sheet.getLastRowNum(), 1, true, false);
-        }
 
-        Row newRow = sheet.createRow(targetRowIndex);
-        newRow.setHeightInPoints((short) (8.0 / 25.4 * 72));
-
-        for (int colIndex = 0; colIndex <= 13; colIndex++) {
-            Cell cell = newRow.createCell(colIndex);
-            cell.setCellValue("");
-        }
-    }
+        @Override
+        public void finish(Sink downstream) {
+            while (!window.isEmpty()) {
+                window.removeFirst().emit(downstream);
+            }
 
-    /**
-     * Удаляет строку
-     */
-    private void removeRow(Sheet sheet, int rowIndex) {
-        if (rowIndex >= 0 && rowIndex <= sheet.getLastRowNum()) {
-            if (rowIndex < sheet.getLastRowNum()) {
-                sheet.shiftRows(rowIndex + 1, sheet.getLastRowNum(), -1);
+            if (movedCount == 0) {
+                log.info("❌ Строки с '{}' не найдены", TARGET_TEXT);
             } else {
-                Row row = sheet.getRow(rowIndex);
-                if (row != null) {
-                    sheet.removeRow(row);
-                }
+                log.info("🎯 Перемещено строк '{}': {}", TARGET_TEXT, movedCount);
             }
         }
-    }
 
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return "";
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    return cell.getCellFormula();
-                }
-            default:
-                return "";
+        @Override
+        public int getProcessedCount() {
+            return movedCount;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getOperationName() {
+        return "Перемещение строк 'Звукоизоляция преградой'";
+    }
+}
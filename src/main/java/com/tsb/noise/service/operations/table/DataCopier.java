@@ -1,82 +1,44 @@
 package com.tsb.noise.service.operations.table;
 
-import com.tsb.noise.service.operations.core.StyleApplier;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import com.tsb.noise.service.reader.SheetRow;
+import com.tsb.noise.service.reader.SheetRowHandler;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
 
 @Slf4j
 public class DataCopier {
 
-    private final StyleApplier styleApplier;
-
-    public DataCopier(StyleApplier styleApplier) {
-        this.styleApplier = styleApplier;
+    /**
+     * Создает обработчик потокового чтения, переносящий строки исходного листа
+     * (начиная со второй) в план выходного листа
+     */
+    public RowCopier createRowCopier(RowPlan plan) {
+        return new RowCopier(plan);
     }
 
-    public void copyDataFromSource(Sheet sourceSheet, Sheet targetSheet, double rowHeightMm) {
-        int targetRowIndex = 3; // Начинаем с четвертой строки
-
-        for (int sourceRowIndex = 1; sourceRowIndex <= sourceSheet.getLastRowNum(); sourceRowIndex++) {
-            Row sourceRow = sourceSheet.getRow(sourceRowIndex);
-            if (sourceRow == null) continue;
+    /**
+     * Копировщик строк: получает строки от StreamingSheetReader по одной
+     */
+    public static class RowCopier implements SheetRowHandler {
+        private final RowPlan plan;
+        private int copiedRows;
 
-            // Создаем строку с фиксированной высотой
-            Row targetRow = createRowWithFixedHeight(targetSheet, targetRowIndex, rowHeightMm);
-
-            // Копируем данные включая колонку C
-            copyRowWithAllColumns(sourceRow, targetRow);
-
-            targetRowIndex++;
+        private RowCopier(RowPlan plan) {
+            this.plan = plan;
         }
 
-        log.info("Скопировано {} строк данных с высотой 8мм", targetRowIndex - 3);
-    }
-
-    private void copyRowWithAllColumns(Row sourceRow, Row targetRow) {
-        for (int sourceColIndex = 0; sourceColIndex < sourceRow.getLastCellNum(); sourceColIndex++) {
-            Cell sourceCell = sourceRow.getCell(sourceColIndex);
-            if (sourceCell == null) continue;
+        @Override
+        public void handleRow(SheetRow sourceRow) {
+            if (sourceRow.getRowIndex() < 1) return; // Строка заголовка исходного листа не копируется
 
-            // Копируем в те же колонки (включая C)
-            Cell targetCell = targetRow.createCell(sourceColIndex);
-            copyCellValue(sourceCell, targetCell);
-            styleApplier.applyCellStyleWithFont(targetCell);
+            // Копируем данные включая колонку C
+            plan.addRow(PlanRow.data(sourceRow.toCellArray()));
+            copiedRows++;
         }
-    }
 
-    private void copyCellValue(Cell sourceCell, Cell targetCell) {
-        switch (sourceCell.getCellType()) {
-            case STRING:
-                targetCell.setCellValue(sourceCell.getStringCellValue());
-                break;
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(sourceCell)) {
-                    targetCell.setCellValue(sourceCell.getDateCellValue());
-                } else {
-                    targetCell.setCellValue(sourceCell.getNumericCellValue());
-                }
-                break;
-            case BOOLEAN:
-                targetCell.setCellValue(sourceCell.getBooleanCellValue());
-                break;
-            case FORMULA:
-                targetCell.setCellFormula(sourceCell.getCellFormula());
-                break;
-            case BLANK:
-                targetCell.setBlank();
-                break;
-            default:
-                targetCell.setCellValue("");
+        public int getCopiedRows() {
+            return copiedRows;
         }
     }
-
-    private Row createRowWithFixedHeight(Sheet sheet, int rowIndex, double rowHeightMm) {
-        Row row = sheet.createRow(rowIndex);
-        row.setHeightInPoints(mmToPoints(rowHeightMm));
-        return row;
-    }
-
-    private short mmToPoints(double mm) {
-        return (short) (mm / 25.4 * 72);
-    }
-}
\ No newline at end of file
+}
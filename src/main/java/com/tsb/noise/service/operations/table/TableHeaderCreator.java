@@ -2,6 +2,7 @@ package com.tsb.noise.service.operations.table;
 
 import com.tsb.noise.model.FrequencyBand;
 import com.tsb.noise.service.operations.core.StyleApplier;
+import com.tsb.noise.service.operations.core.StyleRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
@@ -18,7 +19,7 @@ public class TableHeaderCreator {
         this.styleApplier = styleApplier;
     }
 
-    public void createTableHeader(Sheet sheet, double rowHeightMm) {
+    public void createTableHeader(Sheet sheet, StyleRegistry styles, double rowHeightMm) {
         // Создаем строки с фиксированной высотой
         Row headerRow1 = createRowWithFixedHeight(sheet, 0, rowHeightMm);
         Row headerRow2 = createRowWithFixedHeight(sheet, 1, rowHeightMm);
@@ -55,7 +56,7 @@ public class TableHeaderCreator {
             colIndex++;
         }
 
-        styleApplier.applyHeaderStyle(sheet.getWorkbook(), headerRow1, headerRow2);
+        styleApplier.applyHeaderStyle(styles, headerRow1, headerRow2);
         log.debug("Создана шапка таблицы со всеми колонками включая C с '31,5'");
     }
 
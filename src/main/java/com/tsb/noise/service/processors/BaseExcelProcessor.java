@@ -1,24 +1,41 @@
 package com.tsb.noise.service.processors;
 
 import com.tsb.noise.model.ProcessConfig;
-import com.tsb.noise.service.operations.*;
+import com.tsb.noise.model.RtData;
+import com.tsb.noise.service.operations.core.RowOperation;
+import com.tsb.noise.service.operations.core.RowPipeline;
 import com.tsb.noise.service.operations.core.StyleApplier;
+import com.tsb.noise.service.operations.core.StyleRegistry;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import com.tsb.noise.service.operations.plan.RowPlanWriter;
+import com.tsb.noise.service.operations.row.BarrierRowMover;
+import com.tsb.noise.service.operations.row.SoundIsolationRemover;
 import com.tsb.noise.service.operations.table.ColumnHider;
+import com.tsb.noise.service.reader.NoiseTable;
+import com.tsb.noise.service.reader.SheetRow;
+import com.tsb.noise.service.reader.SheetRowHandler;
+import com.tsb.noise.service.reader.StreamingSheetReader;
+import com.tsb.noise.service.utils.RtDataProcessor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 public abstract class BaseExcelProcessor {
-    protected final RowMover rowMover;
-    protected final RowRemover rowRemover;
+    protected final RowOperation barrierRowMover;
+    protected final RowOperation soundIsolationRemover;
     protected final ColumnHider columnHider;
     protected final StyleApplier styleApplier;
+    protected final RtDataProcessor rtDataProcessor;
+    protected final StreamingSheetReader sheetReader;
+    protected final RowPlanWriter planWriter;
 
     // Константы для размеров
     protected static final double ROW_HEIGHT_MM = 8.0;
@@ -28,10 +45,13 @@ public abstract class BaseExcelProcessor {
     protected static final String FONT_NAME = "Arial Narrow";
 
     public BaseExcelProcessor() {
-        this.rowMover = new RowMover();
-        this.rowRemover = new RowRemover();
+        this.barrierRowMover = new BarrierRowMover();
+        this.soundIsolationRemover = new SoundIsolationRemover();
         this.columnHider = new ColumnHider();
         this.styleApplier = new StyleApplier();
+        this.rtDataProcessor = new RtDataProcessor();
+        this.sheetReader = new StreamingSheetReader();
+        this.planWriter = new RowPlanWriter(styleApplier);
     }
 
     /**
@@ -40,32 +60,40 @@ public abstract class BaseExcelProcessor {
     public boolean process(File inputFile, File outputFile, ProcessConfig config) {
         log.info("Обработка файла: {} (тип: {})", inputFile.getName(), config.getFileType());
 
-        try (FileInputStream fis = new FileInputStream(inputFile);
-             Workbook sourceWorkbook = WorkbookFactory.create(fis);
-             Workbook outputWorkbook = new XSSFWorkbook()) {
-
-            Sheet sourceSheet = getSourceSheet(sourceWorkbook);
-            if (sourceSheet == null) {
-                log.error("Исходный лист не найден в файле: {}", inputFile.getName());
-                return false;
-            }
+        try (Workbook outputWorkbook = new XSSFWorkbook()) {
 
             Sheet outputSheet = outputWorkbook.createSheet("Данные");
+            StyleRegistry styles = new StyleRegistry(outputWorkbook);
 
             // Общие шаги обработки
             setupSheetLayout(outputSheet);
             createTableHeader(outputSheet);
-            createEmptyRowAfterHeader(outputSheet);
-            copyDataFromSource(sourceSheet, outputSheet);
-            processSpecificData(sourceSheet, outputSheet, config);
+            styleApplier.applyTableBorders(outputSheet, styles); // Строки плана оформляются при записи
+
+            // Строки таблицы собираются в план и записываются в лист один раз
+            RowPlan plan = new RowPlan();
+            createEmptyRowAfterHeader(plan);
+
+            // Исходный лист читается потоково: копирование и разбор в таблицу за один проход
+            NoiseTable.Builder tableBuilder = NoiseTable.builder();
+            SheetRowHandler rowCopier = row -> copyDataFromSource(row, plan);
+            String sourceSheetName = sheetReader.readFirstSheet(inputFile, getSourceSheetNames(),
+                    rowCopier.andThen(tableBuilder));
+            if (sourceSheetName == null) {
+                log.error("Исходный лист не найден в файле: {}", inputFile.getName());
+                return false;
+            }
+            List<RtData> rtDataList = rtDataProcessor.findRtData(tableBuilder.build());
+
+            processSpecificData(rtDataList, plan, config);
 
             // Операции по конфигурации
-            applyConfigurationOperations(outputSheet, config);
+            applyConfigurationOperations(plan, config);
 
             // Финальные шаги
+            removeEmptyRows(plan);
+            planWriter.write(plan, outputSheet, styles, ROW_HEIGHT_MM);
             columnHider.hideColumnC(outputSheet);
-            removeEmptyRows(outputSheet);
-            styleApplier.applyTableBorders(outputSheet);
 
             // Сохранение
             outputFile.getParentFile().mkdirs();
@@ -85,25 +113,29 @@ public abstract class BaseExcelProcessor {
     /**
      * Абстрактные методы для реализации в конкретных процессорах
      */
-    protected abstract Sheet getSourceSheet(Workbook workbook);
-    protected abstract void processSpecificData(Sheet sourceSheet, Sheet targetSheet, ProcessConfig config);
+    protected abstract List<String> getSourceSheetNames();
+    protected abstract void processSpecificData(List<RtData> rtDataList, RowPlan plan, ProcessConfig config);
 
     /**
      * Общие методы которые могут быть переопределены при необходимости
      */
-    protected void applyConfigurationOperations(Sheet sheet, ProcessConfig config) {
+    protected void applyConfigurationOperations(RowPlan plan, ProcessConfig config) {
+        List<RowOperation> operations = new ArrayList<>();
         if (config.isRemoveSoundIsolation()) {
-            rowRemover.removeSoundIsolationRows(sheet);
+            operations.add(soundIsolationRemover);
         }
         if (config.isMoveSoundIsolation()) {
-            rowMover.moveSoundIsolationBarrierRows(sheet);
+            operations.add(barrierRowMover);
+        }
+        if (!operations.isEmpty()) {
+            RowPipeline.of(operations).run(plan); // Операции выполняются за один проход
         }
     }
 
     // Общие методы для всех процессоров
     protected void setupSheetLayout(Sheet sheet) {
         short rowHeightInPoints = mmToPoints(ROW_HEIGHT_MM);
-        sheet.setDefaultRowHeight(rowHeightInPoints);
+        sheet.setDefaultRowHeightInPoints(rowHeightInPoints); // setDefaultRowHeight ждет twips (1/20 pt)
 
         sheet.setColumnWidth(0, cmToUnits(1.5));
         sheet.setColumnWidth(1, cmToUnits(COLUMN_WIDTH_B_CM));
@@ -121,15 +153,15 @@ public abstract class BaseExcelProcessor {
         // (перенесена из старого ExcelProcessor)
     }
 
-    protected void createEmptyRowAfterHeader(Sheet sheet) {
-        createRowWithFixedHeight(sheet, 2);
+    protected void createEmptyRowAfterHeader(RowPlan plan) {
+        plan.addRow(PlanRow.empty());
     }
 
-    protected void copyDataFromSource(Sheet sourceSheet, Sheet targetSheet) {
+    protected void copyDataFromSource(SheetRow sourceRow, RowPlan plan) {
         // Реализация копирования данных...
     }
 
-    protected void removeEmptyRows(Sheet sheet) {
+    protected void removeEmptyRows(RowPlan plan) {
         // Реализация удаления пустых строк...
     }
 
@@ -0,0 +1,133 @@
+package com.tsb.noise.service.processors;
+
+import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.ProcessingConfig;
+import com.tsb.noise.service.catalog.ProcessingManifest;
+import com.tsb.noise.service.operations.core.BorderMode;
+import com.tsb.noise.service.operations.core.RowOperation;
+import com.tsb.noise.service.operations.core.RowPipeline;
+import com.tsb.noise.service.operations.plan.RtHeaderLayout;
+import com.tsb.noise.service.operations.row.BarrierRowMover;
+import com.tsb.noise.service.operations.row.CorrectionOperation;
+import com.tsb.noise.service.operations.row.EmptyRowCleaner;
+import com.tsb.noise.service.operations.row.SoundIsolationRemover;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Обработка одного типа файлов, собранная один раз на весь запуск: проверенные настройки,
+ * имя исходного листа, цепочка операций над строками, оформление заголовков РТ и границ,
+ * способ записи выходного файла и отпечаток настроек для манифеста.
+ * Неизменяем; операции не хранят состояния между файлами (состояние прохода - в стадиях),
+ * поэтому один экземпляр используется всеми потоками параллельной обработки.
+ */
+@Getter
+public final class CompiledPipeline {
+
+    // Операции без настроек общие для всех конвейеров
+    private static final RowOperation OV_CORRECTION = new OvDataProcessor();
+    private static final RowOperation SOUND_ISOLATION_REMOVER = new SoundIsolationRemover();
+    private static final RowOperation BARRIER_ROW_MOVER = new BarrierRowMover();
+    private static final RowOperation EMPTY_ROW_CLEANER = new EmptyRowCleaner();
+
+    private final FileType fileType;
+    private final String sheetName;
+    private final boolean removeSoundIsolation;
+    private final boolean moveBarrierIsolation;
+    private final Double correctionValue;
+    private final RtHeaderLayout rtHeaderLayout;
+    private final BorderMode borderMode;
+    private final boolean streamingOutput;
+    private final boolean optimizeOutput;
+    private final RowPipeline rowPipeline;
+    private final String optionsFingerprint;
+    private final String description;
+
+    private CompiledPipeline(FileType fileType, boolean removeSoundIsolation, boolean moveBarrierIsolation,
+                             Double correctionValue, RtHeaderLayout rtHeaderLayout, BorderMode borderMode,
+                             boolean streamingOutput, boolean optimizeOutput) {
+        this.fileType = fileType;
+        this.sheetName = fileType.getSheetName();
+        this.removeSoundIsolation = removeSoundIsolation;
+        this.moveBarrierIsolation = moveBarrierIsolation;
+        this.correctionValue = correctionValue;
+        this.rtHeaderLayout = rtHeaderLayout;
+        this.borderMode = borderMode;
+        this.streamingOutput = streamingOutput;
+        this.optimizeOutput = optimizeOutput;
+        this.rowPipeline = RowPipeline.of(createOperations());
+        this.optionsFingerprint = ProcessingManifest.optionsFingerprint(fileType,
+                removeSoundIsolation, moveBarrierIsolation, correctionValue, rtHeaderLayout, borderMode,
+                optimizeOutput);
+        this.description = rowPipeline.getOperations().stream()
+                .map(RowOperation::getOperationName)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Проверяет настройки и собирает обработку для типа файлов
+     * @throws IllegalArgumentException если тип не задан или значение поправки некорректно
+     */
+    public static CompiledPipeline compile(ProcessingConfig config, FileType fileType) {
+        if (fileType == null) {
+            throw new IllegalArgumentException("Не указан тип файла");
+        }
+
+        Double correctionValue = null;
+        if (config.isApplyCorrection()) {
+            correctionValue = config.getCorrectionValue();
+            if (correctionValue == null || !Double.isFinite(correctionValue)) {
+                throw new IllegalArgumentException("Некорректное значение поправки: " + correctionValue);
+            }
+        }
+
+        return new CompiledPipeline(fileType, config.isRemoveSoundIsolation(),
+                config.isMoveBarrierIsolation(), correctionValue,
+                config.getRtHeaderLayout() != null ? config.getRtHeaderLayout() : RtHeaderLayout.MERGED_CELLS,
+                config.getBorderMode() != null ? config.getBorderMode() : BorderMode.CELLS,
+                config.isStreamingOutput(), config.isOptimizeOutput());
+    }
+
+    /**
+     * Собирает обработку для каждого из типов файлов с одними настройками
+     */
+    public static Map<FileType, CompiledPipeline> compileAll(ProcessingConfig config, Collection<FileType> fileTypes) {
+        Map<FileType, CompiledPipeline> pipelines = new EnumMap<>(FileType.class);
+        for (FileType fileType : fileTypes) {
+            pipelines.put(fileType, compile(config, fileType));
+        }
+        return Collections.unmodifiableMap(pipelines);
+    }
+
+    /**
+     * Операции в порядке выполнения; очистка пустых строк - всегда последняя
+     */
+    private List<RowOperation> createOperations() {
+        List<RowOperation> operations = new ArrayList<>();
+
+        // СПЕЦИАЛЬНАЯ ЛОГИКА ДЛЯ ФАЙЛОВ ОВ - добавляем поправку к ПДУ
+        if (isOvFileType()) {
+            operations.add(OV_CORRECTION);
+        }
+        if (removeSoundIsolation) {
+            operations.add(SOUND_ISOLATION_REMOVER);
+        }
+        if (moveBarrierIsolation) {
+            operations.add(BARRIER_ROW_MOVER);
+        }
+        if (correctionValue != null) {
+            operations.add(new CorrectionOperation(correctionValue));
+        }
+        operations.add(EMPTY_ROW_CLEANER);
+        return operations;
+    }
+
+    /**
+     * Проверяет, является ли тип файла ОВ (Отопление и Вентиляция)
+     */
+    public boolean isOvFileType() {
+        return fileType == FileType.OV_DAY || fileType == FileType.OV_NIGHT;
+    }
+}
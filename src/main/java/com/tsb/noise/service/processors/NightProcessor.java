@@ -1,25 +1,23 @@
 package com.tsb.noise.service.processors;
 
 import com.tsb.noise.model.ProcessConfig;
+import com.tsb.noise.model.RtData;
+import com.tsb.noise.service.operations.plan.RowPlan;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.List;
 
 @Slf4j
 public class NightProcessor extends BaseExcelProcessor {
 
     @Override
-    protected Sheet getSourceSheet(Workbook workbook) {
-        // Для ночных файлов может быть другой лист
-        Sheet sheet = workbook.getSheet("ЛИСТ2");
-        if (sheet == null) {
-            sheet = workbook.getSheet("ЛИСТ3"); // Резервный вариант
-        }
-        return sheet;
+    protected List<String> getSourceSheetNames() {
+        // Для ночных файлов может быть другой лист, ЛИСТ3 - резервный вариант
+        return List.of("ЛИСТ2", "ЛИСТ3");
     }
 
     @Override
-    protected void processSpecificData(Sheet sourceSheet, Sheet targetSheet, ProcessConfig config) {
+    protected void processSpecificData(List<RtData> rtDataList, RowPlan plan, ProcessConfig config) {
         log.info("Обработка ночных данных...");
         // Специфичная логика для ночных файлов
         // Например, другой обработчик РТ данных
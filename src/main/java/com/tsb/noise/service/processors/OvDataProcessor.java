@@ -1,115 +1,65 @@
 package com.tsb.noise.service.processors;
 
+import com.tsb.noise.service.operations.core.RowOperation;
+import com.tsb.noise.service.operations.core.RowStage;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import com.tsb.noise.service.reader.SheetCell;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
+
+import java.util.Set;
 
 @Slf4j
-public class OvDataProcessor {
+public class OvDataProcessor implements RowOperation {
 
-    private static final String[] TARGET_TEXTS = {"ПДУ", "ПДУ пом."};
+    private static final Set<String> TARGET_TEXTS = Set.of("ПДУ", "ПДУ пом.");
     private static final int TARGET_COLUMN = 1; // Колонка B
     private static final String CORRECTION_SUFFIX = " c учётом поправки -5 дБ";
 
     /**
      * Обрабатывает данные для файлов ОВ - добавляет поправку к ПДУ
      */
-    public void processOvData(Sheet sheet) {
+    public void processOvData(RowPlan plan) {
+        execute(plan);
+    }
+
+    @Override
+    public RowStage createStage() {
         log.info("🔍 Поиск ячеек с ПДУ для добавления поправки -5 дБ...");
 
-        int processedCells = 0;
+        return new RowStage() {
+            private int processedCells;
 
-        for (int rowIndex = 3; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row != null) {
-                Cell cell = row.getCell(TARGET_COLUMN);
-                if (cell != null && isTargetCell(cell)) {
-                    try {
-                        addCorrectionToCell(cell);
-                        processedCells++;
-                        log.debug("✅ Добавлена поправка к ПДУ в строке {}", rowIndex + 1);
-                    } catch (Exception e) {
-                        log.error("❌ Ошибка при добавлении поправки к ячейке в строке {}: {}",
-                                rowIndex + 1, e.getMessage(), e);
-                    }
+            @Override
+            public void accept(PlanRow row, int position, Sink downstream) {
+                String originalValue = row.getLabel();
+                if (position >= RowPlan.FIRST_DATA_INDEX && TARGET_TEXTS.contains(originalValue)) {
+                    String newValue = originalValue + CORRECTION_SUFFIX;
+                    row.setCell(SheetCell.ofString(TARGET_COLUMN, newValue));
+                    // Устанавливаем перенос текста для длинного текста
+                    row.setLabelWrapped(true);
+                    processedCells++;
+
+                    log.debug("🔄 Обновлена ячейка в строке {}: '{}' -> '{}'",
+                            position + RowPlan.FIRST_SHEET_ROW + 1, originalValue, newValue);
                 }
+                downstream.emit(row);
             }
-        }
-
-        log.info("🎯 Добавлена поправка -5 дБ к {} ячейкам с ПДУ", processedCells);
-    }
 
-    /**
-     * Проверяет, является ли ячейка целевой (содержит ПДУ или ПДУ пом.)
-     */
-    private boolean isTargetCell(Cell cell) {
-        String cellValue = getCellStringValue(cell).trim();
-        for (String targetText : TARGET_TEXTS) {
-            if (targetText.equals(cellValue)) {
-                return true;
+            @Override
+            public void finish(Sink downstream) {
+                log.info("🎯 Добавлена поправка -5 дБ к {} ячейкам с ПДУ", processedCells);
             }
-        }
-        return false;
-    }
 
-    /**
-     * Добавляет поправку к ячейке
-     */
-    private void addCorrectionToCell(Cell cell) {
-        String originalValue = getCellStringValue(cell).trim();
-        String newValue = originalValue + CORRECTION_SUFFIX;
-
-        cell.setCellValue(newValue);
-
-        // Сохраняем стиль ячейки
-        try {
-            Workbook workbook = cell.getSheet().getWorkbook();
-            CellStyle newStyle = workbook.createCellStyle();
-            newStyle.cloneStyleFrom(cell.getCellStyle());
-
-            // Устанавливаем перенос текста для длинного текста
-            newStyle.setWrapText(true);
-            cell.setCellStyle(newStyle);
-
-            log.debug("🔄 Обновлена ячейка: '{}' -> '{}'", originalValue, newValue);
-        } catch (Exception e) {
-            log.warn("⚠️ Не удалось сохранить стиль ячейки: {}", e.getMessage());
-        }
+            @Override
+            public int getProcessedCount() {
+                return processedCells;
+            }
+        };
     }
 
-    /**
-     * Вспомогательный метод для получения строкового значения ячейки
-     */
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return "";
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    double value = cell.getNumericCellValue();
-                    if (value == Math.floor(value) && !Double.isInfinite(value)) {
-                        return String.valueOf((int) value);
-                    } else {
-                        return String.valueOf(value);
-                    }
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    try {
-                        return String.valueOf(cell.getNumericCellValue());
-                    } catch (Exception ex) {
-                        return cell.getCellFormula();
-                    }
-                }
-            default:
-                return "";
-        }
+    @Override
+    public String getOperationName() {
+        return "Поправка -5 дБ к ПДУ для файлов ОВ";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.tsb.noise.service.reader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Словарь подписей колонки B: каждая различная подпись хранится один раз,
+ * строки таблицы ссылаются на нее по номеру
+ */
+public final class LabelDictionary {
+
+    public static final int NO_LABEL = -1;
+
+    private final List<String> labels = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Номер подписи, новая подпись добавляется в словарь
+     */
+    int intern(String label) {
+        Integer id = ids.get(label);
+        if (id == null) {
+            id = labels.size();
+            labels.add(label);
+            ids.put(label, id);
+        }
+        return id;
+    }
+
+    /**
+     * Номер подписи или NO_LABEL, если такой подписи в листе нет
+     */
+    public int idOf(String label) {
+        return ids.getOrDefault(label, NO_LABEL);
+    }
+
+    public String get(int id) {
+        return id == NO_LABEL ? "" : labels.get(id);
+    }
+
+    public int size() {
+        return labels.size();
+    }
+
+    /**
+     * Проверяет условие один раз для каждой различной подписи; результат индексируется номером подписи
+     */
+    public boolean[] matching(Predicate<String> predicate) {
+        boolean[] result = new boolean[labels.size()];
+        for (int id = 0; id < result.length; id++) {
+            result[id] = predicate.test(labels.get(id));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,203 @@
+package com.tsb.noise.service.reader;
+
+import com.tsb.noise.model.FrequencyBand;
+
+import java.util.Arrays;
+
+/**
+ * Разобранный лист ЛИСТ2 в колоночном виде: номер строки листа, подпись B (по словарю),
+ * наименование РТ из A, координаты N и описание O строк РТ и по массиву double на каждую
+ * частотную полосу (NaN - пусто, текст или формула). Строится один раз при чтении листа
+ * и дальше читается без создания объектов на каждую ячейку. Строки каждой подписи B
+ * хранятся подряд, так что поиск по подписи не перебирает весь лист.
+ */
+public final class NoiseTable {
+
+    private static final int NAME_COLUMN = 0;          // Колонка A
+    private static final int LABEL_COLUMN = 1;         // Колонка B
+    private static final int COORDINATES_COLUMN = 13;  // Колонка N
+    private static final int DESCRIPTION_COLUMN = 14;  // Колонка O
+    private static final FrequencyBand[] BANDS = FrequencyBand.values();
+
+    private final int size;
+    private final int[] sourceRows;
+    private final LabelDictionary labels;
+    private final int[] labelIds;
+    private final String[] rtNames;
+    private final String[] coordinates;
+    private final String[] descriptions;
+    private final double[][] bandValues;
+    private final int[] labelRowOffsets; // Строки подписи id: rowsByLabel[labelRowOffsets[id] .. labelRowOffsets[id + 1])
+    private final int[] rowsByLabel;
+
+    NoiseTable(int size, int[] sourceRows, LabelDictionary labels, int[] labelIds, String[] rtNames,
+               String[] coordinates, String[] descriptions, double[][] bandValues) {
+        this.size = size;
+        this.sourceRows = sourceRows;
+        this.labels = labels;
+        this.labelIds = labelIds;
+        this.rtNames = rtNames;
+        this.coordinates = coordinates;
+        this.descriptions = descriptions;
+        this.bandValues = bandValues;
+
+        // Раскладка строк по подписям подсчетом: строки каждой подписи идут по возрастанию
+        this.labelRowOffsets = new int[labels.size() + 1];
+        for (int row = 0; row < size; row++) {
+            if (labelIds[row] != LabelDictionary.NO_LABEL) {
+                labelRowOffsets[labelIds[row] + 1]++;
+            }
+        }
+        for (int id = 0; id < labels.size(); id++) {
+            labelRowOffsets[id + 1] += labelRowOffsets[id];
+        }
+        this.rowsByLabel = new int[labelRowOffsets[labels.size()]];
+        int[] next = Arrays.copyOf(labelRowOffsets, labels.size());
+        for (int row = 0; row < size; row++) {
+            if (labelIds[row] != LabelDictionary.NO_LABEL) {
+                rowsByLabel[next[labelIds[row]]++] = row;
+            }
+        }
+    }
+
+    /**
+     * Число строк таблицы (строки данных листа, начиная со второй)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Номер строки исходного листа (с нуля)
+     */
+    public int getSourceRow(int row) {
+        return sourceRows[row];
+    }
+
+    public LabelDictionary getLabels() {
+        return labels;
+    }
+
+    /**
+     * Номер подписи B в словаре или LabelDictionary.NO_LABEL
+     */
+    public int getLabelId(int row) {
+        return labelIds[row];
+    }
+
+    /**
+     * Строки с подписью id по возрастанию (копия); для NO_LABEL - пустой массив
+     */
+    public int[] getRowsWithLabel(int labelId) {
+        if (labelId == LabelDictionary.NO_LABEL) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(rowsByLabel, labelRowOffsets[labelId], labelRowOffsets[labelId + 1]);
+    }
+
+    /**
+     * Подпись B без пробелов по краям, пустая строка если подписи нет
+     */
+    public String getLabel(int row) {
+        return labels.get(labelIds[row]);
+    }
+
+    /**
+     * Текст колонки A без пробелов по краям или null, если колонка пуста
+     */
+    public String getRtName(int row) {
+        return rtNames[row];
+    }
+
+    /**
+     * Координаты (N) строки с заполненной колонкой A, иначе пустая строка
+     */
+    public String getCoordinates(int row) {
+        return coordinates[row] != null ? coordinates[row] : "";
+    }
+
+    /**
+     * Описание (O) строки с заполненной колонкой A, иначе пустая строка
+     */
+    public String getDescription(int row) {
+        return descriptions[row] != null ? descriptions[row] : "";
+    }
+
+    /**
+     * Числовое значение полосы или NaN
+     */
+    public double getValue(FrequencyBand band, int row) {
+        return bandValues[band.ordinal()][row];
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Собирает таблицу из строк потокового чтения листа
+     */
+    public static final class Builder implements SheetRowHandler {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final LabelDictionary labels = new LabelDictionary();
+        private int size;
+        private int[] sourceRows = new int[INITIAL_CAPACITY];
+        private int[] labelIds = new int[INITIAL_CAPACITY];
+        private String[] rtNames = new String[INITIAL_CAPACITY];
+        private String[] coordinates = new String[INITIAL_CAPACITY];
+        private String[] descriptions = new String[INITIAL_CAPACITY];
+        private final double[][] bandValues = new double[BANDS.length][INITIAL_CAPACITY];
+
+        private Builder() {
+        }
+
+        @Override
+        public void handleRow(SheetRow row) {
+            if (row.getRowIndex() < 1) return; // Строка заголовка листа
+
+            ensureCapacity(size + 1);
+            sourceRows[size] = row.getRowIndex();
+
+            String label = row.getString(LABEL_COLUMN).trim();
+            labelIds[size] = label.isEmpty() ? LabelDictionary.NO_LABEL : labels.intern(label);
+
+            String rtName = row.getString(NAME_COLUMN).trim();
+            if (!rtName.isEmpty()) {
+                rtNames[size] = rtName;
+                coordinates[size] = row.getString(COORDINATES_COLUMN).trim();
+                descriptions[size] = row.getString(DESCRIPTION_COLUMN).trim();
+            }
+
+            for (FrequencyBand band : BANDS) {
+                SheetCell cell = row.getCell(band.getColumnIndex());
+                bandValues[band.ordinal()][size] = cell != null && cell.isNumeric() ? cell.getNumber() : Double.NaN;
+            }
+            size++;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= sourceRows.length) return;
+
+            int newCapacity = Math.max(capacity, sourceRows.length * 2);
+            sourceRows = Arrays.copyOf(sourceRows, newCapacity);
+            labelIds = Arrays.copyOf(labelIds, newCapacity);
+            rtNames = Arrays.copyOf(rtNames, newCapacity);
+            coordinates = Arrays.copyOf(coordinates, newCapacity);
+            descriptions = Arrays.copyOf(descriptions, newCapacity);
+            for (int band = 0; band < bandValues.length; band++) {
+                bandValues[band] = Arrays.copyOf(bandValues[band], newCapacity);
+            }
+        }
+
+        public NoiseTable build() {
+            double[][] values = new double[bandValues.length][];
+            for (int band = 0; band < bandValues.length; band++) {
+                values[band] = Arrays.copyOf(bandValues[band], size);
+            }
+            return new NoiseTable(size, Arrays.copyOf(sourceRows, size), labels, Arrays.copyOf(labelIds, size),
+                    Arrays.copyOf(rtNames, size), Arrays.copyOf(coordinates, size),
+                    Arrays.copyOf(descriptions, size), values);
+        }
+    }
+}
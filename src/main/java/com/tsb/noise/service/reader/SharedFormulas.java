@@ -0,0 +1,153 @@
+package com.tsb.noise.service.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.AreaPtgBase;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefPtgBase;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Общие формулы листа (f t="shared"): текст формулы хранится только в ведущей ячейке диапазона,
+ * у ведомых ячеек элемент f пустой. Формула ведомой ячейки получается сдвигом относительных ссылок
+ * формулы ведущей ячейки - так же, как XSSFCell.getCellFormula при загрузке всей книги.
+ * Сдвиг выполняется здесь, а не через SharedFormula из POI: та превращает ссылки на другие листы
+ * (Лист1!B1) в ссылки на текущий лист.
+ */
+@Slf4j
+final class SharedFormulas {
+
+    private static final int LAST_ROW = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+    private static final int LAST_COLUMN = SpreadsheetVersion.EXCEL2007.getLastColumnIndex();
+
+    private final Map<Integer, Anchor> anchors = new HashMap<>();
+    private final Set<Integer> reportedFailures = new HashSet<>();
+    private XSSFEvaluationWorkbook parsingWorkbook;
+
+    /**
+     * Ведущая ячейка: формула и начало диапазона общей формулы; разобранная формула кэшируется
+     */
+    private static final class Anchor {
+        private final String formula;
+        private final int firstRow;
+        private final int firstColumn;
+        private Ptg[] ptgs;
+
+        private Anchor(String formula, int firstRow, int firstColumn) {
+            this.formula = formula;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+        }
+    }
+
+    /**
+     * Запоминает формулу ведущей ячейки
+     * @param rangeRef диапазон общей формулы (атрибут ref); null - диапазон начинается с самой ячейки
+     */
+    void register(int sharedIndex, String formula, String rangeRef, int row, int column) {
+        int firstRow = row;
+        int firstColumn = column;
+        if (rangeRef != null) {
+            try {
+                CellRangeAddress range = CellRangeAddress.valueOf(rangeRef);
+                firstRow = range.getFirstRow();
+                firstColumn = range.getFirstColumn();
+            } catch (IllegalArgumentException e) {
+                log.debug("Некорректный диапазон общей формулы '{}': {}", rangeRef, e.getMessage());
+            }
+        }
+        anchors.put(sharedIndex, new Anchor(formula, firstRow, firstColumn));
+    }
+
+    /**
+     * Формула ведомой ячейки
+     * @return формула или null, если ее не удалось получить: тогда в ячейке остается кэшированное значение
+     */
+    String translate(int sharedIndex, int row, int column) {
+        Anchor anchor = anchors.get(sharedIndex);
+        if (anchor == null) {
+            reportFailure(sharedIndex, row, column, "нет ведущей ячейки");
+            return null;
+        }
+
+        try {
+            XSSFEvaluationWorkbook workbook = parsingWorkbook();
+            if (anchor.ptgs == null) {
+                anchor.ptgs = FormulaParser.parse(anchor.formula, workbook, FormulaType.CELL, 0, anchor.firstRow);
+            }
+            Ptg[] shifted = shift(anchor.ptgs, row - anchor.firstRow, column - anchor.firstColumn);
+            return FormulaRenderer.toFormulaString(workbook, shifted);
+        } catch (RuntimeException e) {
+            reportFailure(sharedIndex, row, column, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Копия формулы с относительными ссылками, сдвинутыми на rowOffset строк и columnOffset столбцов;
+     * разобранная формула ведущей ячейки не меняется
+     */
+    private static Ptg[] shift(Ptg[] ptgs, int rowOffset, int columnOffset) {
+        Ptg[] shifted = ptgs.clone();
+        for (int i = 0; i < shifted.length; i++) {
+            if (shifted[i] instanceof RefPtgBase ref) {
+                RefPtgBase copy = (RefPtgBase) ref.copy();
+                if (copy.isRowRelative()) copy.setRow(shiftRow(copy.getRow(), rowOffset));
+                if (copy.isColRelative()) copy.setColumn(shiftColumn(copy.getColumn(), columnOffset));
+                shifted[i] = copy;
+            } else if (shifted[i] instanceof AreaPtgBase area) {
+                AreaPtgBase copy = (AreaPtgBase) area.copy();
+                if (copy.isFirstRowRelative()) copy.setFirstRow(shiftRow(copy.getFirstRow(), rowOffset));
+                if (copy.isLastRowRelative()) copy.setLastRow(shiftRow(copy.getLastRow(), rowOffset));
+                if (copy.isFirstColRelative()) copy.setFirstColumn(shiftColumn(copy.getFirstColumn(), columnOffset));
+                if (copy.isLastColRelative()) copy.setLastColumn(shiftColumn(copy.getLastColumn(), columnOffset));
+                shifted[i] = copy;
+            }
+        }
+        return shifted;
+    }
+
+    /**
+     * Как в Excel, ссылка за краем листа продолжается с его начала
+     */
+    private static int shiftRow(int row, int offset) {
+        return (row + offset) & LAST_ROW;
+    }
+
+    private static int shiftColumn(int column, int offset) {
+        return (column + offset) & LAST_COLUMN;
+    }
+
+    /**
+     * Книга-заготовка для разбора формул: создается только для листов с общими формулами
+     */
+    private XSSFEvaluationWorkbook parsingWorkbook() {
+        if (parsingWorkbook == null) {
+            XSSFWorkbook workbook = new XSSFWorkbook();
+            workbook.createSheet();
+            parsingWorkbook = XSSFEvaluationWorkbook.create(workbook);
+        }
+        return parsingWorkbook;
+    }
+
+    /**
+     * Предупреждение пишется один раз на общую формулу, а не на каждую ячейку ее диапазона
+     */
+    private void reportFailure(int sharedIndex, int row, int column, String reason) {
+        if (reportedFailures.add(sharedIndex)) {
+            log.warn("⚠️ Общая формула #{} не перенесена в ячейку {} ({}): в ячейках диапазона остаются значения",
+                    sharedIndex, new CellReference(row, column).formatAsString(), reason);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tsb.noise.service.reader;
+
+import lombok.Getter;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * Значение ячейки исходного листа, прочитанное без загрузки модели книги
+ */
+@Getter
+public final class SheetCell {
+
+    private final int columnIndex;
+    private final CellType cellType;
+    private final CellType resultType;
+    private final String text;
+    private final double number;
+    private final boolean dateFormatted;
+    private final boolean date1904;
+    private final String formula;
+
+    private SheetCell(int columnIndex, CellType cellType, CellType resultType, String text,
+                      double number, boolean dateFormatted, boolean date1904, String formula) {
+        this.columnIndex = columnIndex;
+        this.cellType = cellType;
+        this.resultType = resultType;
+        this.text = text;
+        this.number = number;
+        this.dateFormatted = dateFormatted;
+        this.date1904 = date1904;
+        this.formula = formula;
+    }
+
+    public static SheetCell ofString(int columnIndex, String text) {
+        return new SheetCell(columnIndex, CellType.STRING, CellType.STRING, text, 0, false, false, null);
+    }
+
+    public static SheetCell ofNumber(int columnIndex, double number) {
+        return new SheetCell(columnIndex, CellType.NUMERIC, CellType.NUMERIC, null, number, false, false, null);
+    }
+
+    public static SheetCell ofDate(int columnIndex, double number, boolean date1904) {
+        return new SheetCell(columnIndex, CellType.NUMERIC, CellType.NUMERIC, null, number, true, date1904, null);
+    }
+
+    public static SheetCell ofBoolean(int columnIndex, boolean value) {
+        return new SheetCell(columnIndex, CellType.BOOLEAN, CellType.BOOLEAN, null, value ? 1 : 0, false, false, null);
+    }
+
+    public static SheetCell ofBlank(int columnIndex) {
+        return new SheetCell(columnIndex, CellType.BLANK, CellType.BLANK, null, 0, false, false, null);
+    }
+
+    public static SheetCell ofError(int columnIndex, String text) {
+        return new SheetCell(columnIndex, CellType.ERROR, CellType.ERROR, text, 0, false, false, null);
+    }
+
+    /**
+     * Ячейка с формулой и её кэшированным результатом
+     */
+    public static SheetCell ofFormula(int columnIndex, String formula, SheetCell cachedResult) {
+        return new SheetCell(columnIndex, CellType.FORMULA, cachedResult.getCellType(), cachedResult.getText(),
+                cachedResult.getNumber(), cachedResult.isDateFormatted(), cachedResult.isDate1904(), formula);
+    }
+
+    public boolean isNumeric() {
+        return cellType == CellType.NUMERIC;
+    }
+
+    public boolean getBooleanValue() {
+        return number != 0;
+    }
+
+    /**
+     * Строковое представление значения ячейки (целые числа без дробной части)
+     */
+    public String getStringValue() {
+        switch (resultType) {
+            case STRING:
+                return text != null ? text : "";
+            case NUMERIC:
+                if (dateFormatted) {
+                    return DateUtil.getJavaDate(number, date1904).toString();
+                }
+                if (number == Math.floor(number) && !Double.isInfinite(number)) {
+                    return String.valueOf((int) number);
+                }
+                return String.valueOf(number);
+            case BOOLEAN:
+                return String.valueOf(getBooleanValue());
+            default:
+                return "";
+        }
+    }
+}
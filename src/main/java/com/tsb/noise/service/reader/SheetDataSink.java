@@ -0,0 +1,34 @@
+package com.tsb.noise.service.reader;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Накопитель данных листа, который получает таблицу, разобранную при основной обработке файла,
+ * чтобы перечень РТ и сводная таблица не открывали тот же файл повторно
+ */
+@FunctionalInterface
+public interface SheetDataSink {
+
+    /**
+     * Принимает таблицу полностью прочитанного листа файла
+     */
+    void accept(File file, NoiseTable table);
+
+    /**
+     * Передает таблицу сразу всем накопителям
+     */
+    static SheetDataSink all(Collection<? extends SheetDataSink> sinks) {
+        List<SheetDataSink> targets = List.copyOf(sinks);
+        return (file, table) -> targets.forEach(sink -> sink.accept(file, table));
+    }
+
+    /**
+     * Ключ файла для накопителей: один и тот же файл из каталога и из обработки дает один ключ
+     */
+    static Path keyOf(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tsb.noise.service.reader;
+
+import lombok.Getter;
+
+/**
+ * Строка исходного листа: индекс и ячейки по номеру колонки
+ */
+public final class SheetRow {
+
+    private static final SheetCell[] NO_CELLS = new SheetCell[0];
+
+    @Getter
+    private final int rowIndex;
+    private final SheetCell[] cells;
+
+    public SheetRow(int rowIndex, SheetCell[] cells) {
+        this.rowIndex = rowIndex;
+        this.cells = cells != null ? cells : NO_CELLS;
+    }
+
+    /**
+     * Возвращает ячейку или null, если ячейки нет
+     */
+    public SheetCell getCell(int columnIndex) {
+        return columnIndex >= 0 && columnIndex < cells.length ? cells[columnIndex] : null;
+    }
+
+    /**
+     * Номер последней ячейки + 1 (аналог Row.getLastCellNum)
+     */
+    public int getLastCellNum() {
+        return cells.length;
+    }
+
+    /**
+     * Копия массива ячеек (индекс = номер колонки, null - ячейки нет)
+     */
+    public SheetCell[] toCellArray() {
+        return cells.clone();
+    }
+
+    /**
+     * Строковое значение ячейки, пустая строка если ячейки нет
+     */
+    public String getString(int columnIndex) {
+        SheetCell cell = getCell(columnIndex);
+        return cell != null ? cell.getStringValue() : "";
+    }
+
+    /**
+     * Числовое значение ячейки или null, если ячейка не числовая
+     */
+    public Double getNumber(int columnIndex) {
+        SheetCell cell = getCell(columnIndex);
+        return cell != null && cell.isNumeric() ? cell.getNumber() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tsb.noise.service.reader;
+
+/**
+ * Получатель строк потокового чтения листа
+ */
+@FunctionalInterface
+public interface SheetRowHandler {
+
+    /**
+     * Вызывается для каждой строки листа в порядке следования
+     */
+    void handleRow(SheetRow row);
+
+    /**
+     * Передает строку сначала этому обработчику, затем следующему
+     */
+    default SheetRowHandler andThen(SheetRowHandler next) {
+        return row -> {
+            handleRow(row);
+            next.handleRow(row);
+        };
+    }
+}
@@ -0,0 +1,394 @@
+package com.tsb.noise.service.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Потоковое чтение одного листа книги Excel (XSSFReader + SAX).
+ * Разбирается только часть нужного листа, строки передаются обработчику по одной,
+ * поэтому расход памяти не зависит от размера листа.
+ */
+@Slf4j
+public class StreamingSheetReader {
+
+    /**
+     * Проверяет наличие листа без разбора его содержимого
+     */
+    public boolean hasSheet(File file, String sheetName) {
+        try {
+            if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+                try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+                    return workbook.getSheet(sheetName) != null;
+                }
+            }
+            try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+                return findSheetParts(new XSSFReader(pkg)).containsKey(sheetName);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Ошибка при проверке листа '{}' в файле {}: {}", sheetName, file.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Читает лист с указанным именем
+     * @return false если лист не найден
+     */
+    public boolean readSheet(File file, String sheetName, SheetRowHandler handler) throws IOException {
+        return readFirstSheet(file, List.of(sheetName), handler) != null;
+    }
+
+    /**
+     * Читает первый найденный лист из списка имен (по приоритету)
+     * @return имя прочитанного листа или null, если ни один лист не найден
+     */
+    public String readFirstSheet(File file, List<String> sheetNames, SheetRowHandler handler) throws IOException {
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+            return readLegacyWorkbook(file, sheetNames, handler);
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Map<String, PackagePart> sheetParts = findSheetParts(reader);
+
+            for (String sheetName : sheetNames) {
+                PackagePart part = sheetParts.get(sheetName);
+                if (part == null) continue;
+
+                SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+                RowSaxHandler saxHandler = new RowSaxHandler(sharedStrings, reader.getStylesTable(),
+                        isDate1904(reader), handler);
+
+                try (InputStream sheetData = part.getInputStream()) {
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    xmlReader.setContentHandler(saxHandler);
+                    xmlReader.parse(new InputSource(sheetData));
+                }
+
+                log.debug("Потоково прочитан лист '{}' файла {}: {} строк",
+                        sheetName, file.getName(), saxHandler.getRowsRead());
+                return sheetName;
+            }
+            return null;
+
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Не удалось прочитать файл " + file.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Сопоставляет имена листов с частями пакета без чтения данных листов
+     */
+    private Map<String, PackagePart> findSheetParts(XSSFReader reader) throws IOException, OpenXML4JException {
+        Map<String, PackagePart> parts = new HashMap<>();
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (sheets.hasNext()) {
+            // Данные листа не читаются: поток открывается итератором и сразу закрывается
+            InputStream sheetData = sheets.next();
+            sheetData.close();
+            parts.putIfAbsent(sheets.getSheetName(), sheets.getSheetPart());
+        }
+        return parts;
+    }
+
+    /**
+     * Определяет систему дат книги (1900/1904) по workbook.xml
+     */
+    private boolean isDate1904(XSSFReader reader) throws IOException, OpenXML4JException,
+            SAXException, ParserConfigurationException {
+        boolean[] date1904 = {false};
+        try (InputStream workbookData = reader.getWorkbookData()) {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    }
+                }
+            });
+            xmlReader.parse(new InputSource(workbookData));
+        }
+        return date1904[0];
+    }
+
+    /**
+     * Резервный путь для файлов .xls (HSSF): формат ограничен 65536 строками,
+     * поэтому лист читается обычной моделью и передается обработчику построчно
+     */
+    private String readLegacyWorkbook(File file, List<String> sheetNames, SheetRowHandler handler) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file);
+             Workbook workbook = WorkbookFactory.create(fis)) {
+
+            for (String sheetName : sheetNames) {
+                Sheet sheet = workbook.getSheet(sheetName);
+                if (sheet == null) continue;
+
+                for (Row row : sheet) {
+                    SheetCell[] cells = new SheetCell[Math.max(row.getLastCellNum(), 0)];
+                    for (Cell cell : row) {
+                        cells[cell.getColumnIndex()] = convertCell(cell);
+                    }
+                    handler.handleRow(new SheetRow(row.getRowNum(), cells));
+                }
+                return sheetName;
+            }
+            return null;
+        }
+    }
+
+    private SheetCell convertCell(Cell cell) {
+        int column = cell.getColumnIndex();
+        if (cell.getCellType() == CellType.FORMULA) {
+            return SheetCell.ofFormula(column, cell.getCellFormula(),
+                    convertValue(cell, cell.getCachedFormulaResultType()));
+        }
+        return convertValue(cell, cell.getCellType());
+    }
+
+    private SheetCell convertValue(Cell cell, CellType type) {
+        int column = cell.getColumnIndex();
+        switch (type) {
+            case STRING:
+                return SheetCell.ofString(column, cell.getStringCellValue());
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return SheetCell.ofDate(column, DateUtil.getExcelDate(cell.getDateCellValue()), false);
+                }
+                return SheetCell.ofNumber(column, cell.getNumericCellValue());
+            case BOOLEAN:
+                return SheetCell.ofBoolean(column, cell.getBooleanCellValue());
+            case ERROR:
+                return SheetCell.ofError(column, "");
+            default:
+                return SheetCell.ofBlank(column);
+        }
+    }
+
+    /**
+     * SAX-обработчик части листа: собирает ячейки строки и отдает строку целиком
+     */
+    private static final class RowSaxHandler extends DefaultHandler {
+        private static final int NO_SHARED_FORMULA = -1;
+
+        private final SharedStrings sharedStrings;
+        private final StylesTable styles;
+        private final boolean date1904;
+        private final SheetRowHandler rowHandler;
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+        private final SharedFormulas sharedFormulas = new SharedFormulas();
+
+        private final List<SheetCell> rowCells = new ArrayList<>();
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+
+        private int currentRow = -1;
+        private int nextColumn;
+        private int cellColumn;
+        private String cellTypeAttr;
+        private int cellStyle;
+        private int sharedFormulaIndex;
+        private String sharedFormulaRange;
+        private boolean hasValue;
+        private boolean hasFormula;
+        private boolean collectingValue;
+        private boolean collectingFormula;
+        private boolean insideInlineString;
+        private int rowsRead;
+
+        RowSaxHandler(SharedStrings sharedStrings, StylesTable styles, boolean date1904, SheetRowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.date1904 = date1904;
+            this.rowHandler = rowHandler;
+        }
+
+        int getRowsRead() {
+            return rowsRead;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String rowRef = attributes.getValue("r");
+                    currentRow = rowRef != null ? Integer.parseInt(rowRef) - 1 : currentRow + 1;
+                    rowCells.clear();
+                    nextColumn = 0;
+                    break;
+                case "c":
+                    String cellRef = attributes.getValue("r");
+                    cellColumn = cellRef != null ? columnIndexOf(cellRef) : nextColumn;
+                    cellTypeAttr = attributes.getValue("t");
+                    String styleRef = attributes.getValue("s");
+                    cellStyle = styleRef != null ? Integer.parseInt(styleRef) : 0;
+                    value.setLength(0);
+                    formula.setLength(0);
+                    hasValue = false;
+                    hasFormula = false;
+                    sharedFormulaIndex = NO_SHARED_FORMULA;
+                    sharedFormulaRange = null;
+                    break;
+                case "v":
+                    collectingValue = true;
+                    hasValue = true;
+                    break;
+                case "f":
+                    collectingFormula = true;
+                    hasFormula = true;
+                    String sharedIndex = attributes.getValue("si");
+                    if ("shared".equals(attributes.getValue("t")) && sharedIndex != null) {
+                        sharedFormulaIndex = Integer.parseInt(sharedIndex);
+                        sharedFormulaRange = attributes.getValue("ref");
+                    }
+                    break;
+                case "is":
+                    insideInlineString = true;
+                    hasValue = true;
+                    break;
+                case "t":
+                    if (insideInlineString) collectingValue = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingValue) {
+                value.append(ch, start, length);
+            } else if (collectingFormula) {
+                formula.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    collectingValue = false;
+                    break;
+                case "f":
+                    collectingFormula = false;
+                    break;
+                case "is":
+                    insideInlineString = false;
+                    break;
+                case "c":
+                    rowCells.add(buildCell());
+                    nextColumn = cellColumn + 1;
+                    break;
+                case "row":
+                    emitRow();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void emitRow() {
+            int width = rowCells.isEmpty() ? 0 : rowCells.get(rowCells.size() - 1).getColumnIndex() + 1;
+            SheetCell[] cells = new SheetCell[width];
+            for (SheetCell cell : rowCells) {
+                if (cell.getColumnIndex() >= cells.length) {
+                    cells = Arrays.copyOf(cells, cell.getColumnIndex() + 1);
+                }
+                cells[cell.getColumnIndex()] = cell;
+            }
+            rowHandler.handleRow(new SheetRow(currentRow, cells));
+            rowsRead++;
+        }
+
+        private SheetCell buildCell() {
+            SheetCell cellValue = buildValue();
+            if (hasFormula) {
+                String formulaText = formula.length() > 0 ? formula.toString() : null;
+                if (sharedFormulaIndex != NO_SHARED_FORMULA) {
+                    // Текст общей формулы есть только у ведущей ячейки, ведомым он переносится со сдвигом ссылок
+                    if (formulaText != null) {
+                        sharedFormulas.register(sharedFormulaIndex, formulaText, sharedFormulaRange,
+                                currentRow, cellColumn);
+                    } else {
+                        formulaText = sharedFormulas.translate(sharedFormulaIndex, currentRow, cellColumn);
+                    }
+                }
+                return SheetCell.ofFormula(cellColumn, formulaText, cellValue);
+            }
+            return cellValue;
+        }
+
+        private SheetCell buildValue() {
+            if (!hasValue) {
+                return SheetCell.ofBlank(cellColumn);
+            }
+            String raw = value.toString();
+            if (cellTypeAttr == null || "n".equals(cellTypeAttr)) {
+                if (raw.isEmpty()) {
+                    return SheetCell.ofBlank(cellColumn);
+                }
+                double number = Double.parseDouble(raw);
+                return isDateStyle(cellStyle)
+                        ? SheetCell.ofDate(cellColumn, number, date1904)
+                        : SheetCell.ofNumber(cellColumn, number);
+            }
+            switch (cellTypeAttr) {
+                case "s":
+                    return SheetCell.ofString(cellColumn,
+                            sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString());
+                case "b":
+                    return SheetCell.ofBoolean(cellColumn, "1".equals(raw.trim()));
+                case "e":
+                    return SheetCell.ofError(cellColumn, raw);
+                default:
+                    // inlineStr, str (строковый результат формулы), d (ISO-дата)
+                    return SheetCell.ofString(cellColumn, raw);
+            }
+        }
+
+        private boolean isDateStyle(int styleIndex) {
+            if (styles == null || styleIndex < 0 || styleIndex >= styles.getNumCellStyles()) {
+                return false;
+            }
+            return dateStyles.computeIfAbsent(styleIndex, index -> {
+                XSSFCellStyle style = styles.getStyleAt(index);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        private static int columnIndexOf(String cellRef) {
+            int column = 0;
+            for (int i = 0; i < cellRef.length(); i++) {
+                char ch = cellRef.charAt(i);
+                if (ch < 'A' || ch > 'Z') break;
+                column = column * 26 + (ch - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
@@ -1,56 +1,63 @@
 package com.tsb.noise.service.utils;
 
 import com.tsb.noise.model.FileType;
-import com.tsb.noise.service.processors.OvDataProcessor;
-import com.tsb.noise.service.operations.core.RowOperation;
+import com.tsb.noise.model.RtData;
+import com.tsb.noise.service.ProcessingConfig;
+import com.tsb.noise.service.RunContext;
+import com.tsb.noise.service.metrics.FileMetrics;
+import com.tsb.noise.service.metrics.Stage;
+import com.tsb.noise.service.metrics.StageRecorder;
+import com.tsb.noise.service.processors.CompiledPipeline;
+import com.tsb.noise.service.operations.core.RowPipeline;
 import com.tsb.noise.service.operations.core.SheetLayoutManager;
 import com.tsb.noise.service.operations.core.StyleApplier;
-import com.tsb.noise.service.operations.row.BarrierRowMover;
-import com.tsb.noise.service.operations.row.CorrectionOperation;
-import com.tsb.noise.service.operations.row.EmptyRowCleaner;
-import com.tsb.noise.service.operations.row.SoundIsolationRemover;
+import com.tsb.noise.service.operations.core.StyleRegistry;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import com.tsb.noise.service.operations.plan.PlanWriteOptions;
+import com.tsb.noise.service.operations.plan.RowPlanWriter;
 import com.tsb.noise.service.operations.table.ColumnHider;
 import com.tsb.noise.service.operations.table.DataCopier;
 import com.tsb.noise.service.operations.table.TableHeaderCreator;
+import com.tsb.noise.service.reader.NoiseTable;
+import com.tsb.noise.service.reader.SheetDataSink;
+import com.tsb.noise.service.reader.SheetRowHandler;
+import com.tsb.noise.service.reader.StreamingSheetReader;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 @Slf4j
 public class ExcelProcessor {
     private final RtDataProcessor rtDataProcessor;
-    private final OvDataProcessor ovDataProcessor;
-    private final RowOperation soundIsolationRemover;
-    private final RowOperation barrierRowMover;
     private final SheetLayoutManager layoutManager;
     private final TableHeaderCreator headerCreator;
     private final DataCopier dataCopier;
-    private final EmptyRowCleaner emptyRowCleaner;
     private final StyleApplier styleApplier;
     private final ColumnHider columnHider;
+    private final StreamingSheetReader sheetReader;
+    private final RowPlanWriter planWriter;
 
     // Константы
     private static final double ROW_HEIGHT_MM = 8.0;
+    private static final int STREAMING_ROW_WINDOW = 200; // Строк выходного листа в памяти при потоковой записи
 
     public ExcelProcessor() {
         this.rtDataProcessor = new RtDataProcessor();
-        this.ovDataProcessor = new OvDataProcessor();
-        this.soundIsolationRemover = new SoundIsolationRemover();
-        this.barrierRowMover = new BarrierRowMover();
         this.styleApplier = new StyleApplier();
         this.layoutManager = new SheetLayoutManager();
         this.headerCreator = new TableHeaderCreator(styleApplier);
-        this.dataCopier = new DataCopier(styleApplier);
-        this.emptyRowCleaner = new EmptyRowCleaner();
+        this.dataCopier = new DataCopier();
         this.columnHider = new ColumnHider();
+        this.sheetReader = new StreamingSheetReader();
+        this.planWriter = new RowPlanWriter(styleApplier);
     }
 
     /**
@@ -60,6 +67,19 @@ public class ExcelProcessor {
                                     boolean removeSoundIsolation,
                                     boolean moveSoundIsolation,
                                     Double correctionValue) {
+        return processExcelFile(inputFile, outputFile, removeSoundIsolation, moveSoundIsolation,
+                correctionValue, null);
+    }
+
+    /**
+     * Обработка файла с передачей разобранной таблицы исходного листа накопителю
+     * (перечень РТ и сводная таблица), чтобы файл читался один раз
+     */
+    public boolean processExcelFile(File inputFile, File outputFile,
+                                    boolean removeSoundIsolation,
+                                    boolean moveSoundIsolation,
+                                    Double correctionValue,
+                                    SheetDataSink tableSink) {
         // Определяем тип файла
         FileType fileType = FileType.fromFileName(inputFile.getName());
         if (fileType == null) {
@@ -67,87 +87,170 @@ public class ExcelProcessor {
             return false;
         }
 
-        log.info("Начало обработки файла: {} (тип: {}, удаление: {}, перемещение: {}, поправка: {})",
-                inputFile.getName(), fileType.getDisplayName(), removeSoundIsolation,
-                moveSoundIsolation, correctionValue != null ? correctionValue : "нет");
+        ProcessingConfig config = new ProcessingConfig();
+        config.setRemoveSoundIsolation(removeSoundIsolation);
+        config.setMoveBarrierIsolation(moveSoundIsolation);
+        config.setApplyCorrection(correctionValue != null);
+        config.setCorrectionValue(correctionValue);
+        config.setStreamingOutput(ProcessingConfig.configuredStreamingOutput());
+        config.setOptimizeOutput(ProcessingConfig.configuredOptimizeOutput());
 
-        try (FileInputStream fis = new FileInputStream(inputFile);
-             Workbook sourceWorkbook = WorkbookFactory.create(fis);
-             Workbook outputWorkbook = new XSSFWorkbook()) {
+        CompiledPipeline pipeline;
+        try {
+            pipeline = CompiledPipeline.compile(config, fileType);
+        } catch (IllegalArgumentException e) {
+            log.error("Некорректные настройки обработки {}: {}", inputFile.getName(), e.getMessage());
+            return false;
+        }
+        return processExcelFile(inputFile, outputFile, pipeline, tableSink, RunContext.NONE);
+    }
 
-            // Используем имя листа из типа файла
-            Sheet sourceSheet = sourceWorkbook.getSheet(fileType.getSheetName());
-            if (sourceSheet == null) {
-                log.error("Лист '{}' не найден в файле: {}", fileType.getSheetName(), inputFile.getName());
-                return false;
-            }
+    /**
+     * Обработка файла готовым конвейером: конвейер собирается один раз на запуск для типа файла
+     * и используется всеми потоками
+     * @param run кэш листов и замеры запуска, которому принадлежит файл
+     */
+    public boolean processExcelFile(File inputFile, File outputFile, CompiledPipeline pipeline,
+                                    SheetDataSink tableSink, RunContext run) {
+        FileType fileType = pipeline.getFileType();
+        if (FileType.fromFileName(inputFile.getName()) != fileType) {
+            log.error("Файл {} не относится к типу {}", inputFile.getName(), fileType.getDisplayName());
+            return false;
+        }
+
+        log.info("Начало обработки файла: {} (тип: {}, удаление: {}, перемещение: {}, поправка: {}, заголовки РТ: {}, границы: {})",
+                inputFile.getName(), fileType.getDisplayName(), pipeline.isRemoveSoundIsolation(),
+                pipeline.isMoveBarrierIsolation(),
+                pipeline.getCorrectionValue() != null ? pipeline.getCorrectionValue() : "нет",
+                pipeline.getRtHeaderLayout().getDisplayName(), pipeline.getBorderMode().getDisplayName());
 
+        String fileName = run.relativePath(inputFile);
+        StageRecorder recorder = new StageRecorder(fileName, fileType);
+        boolean success = false;
+        Workbook outputWorkbook = createOutputWorkbook(pipeline);
+        try {
+            recorder.start(Stage.LAYOUT);
             Sheet outputSheet = outputWorkbook.createSheet("Данные");
+            StyleRegistry styles = new StyleRegistry(outputWorkbook);
 
             // Настраиваем размеры и стили
             layoutManager.setupSheetLayout(outputSheet);
-            headerCreator.createTableHeader(outputSheet, ROW_HEIGHT_MM);
-            createEmptyRowAfterHeader(outputSheet);
+            headerCreator.createTableHeader(outputSheet, styles, ROW_HEIGHT_MM);
 
-            // Копируем данные
-            dataCopier.copyDataFromSource(sourceSheet, outputSheet, ROW_HEIGHT_MM);
+            // Шапка оформляется сразу: в потоковом режиме к записанным строкам не вернуться
+            columnHider.hideColumnC(outputSheet);
+            recorder.finish();
+            recorder.start(Stage.HEADER_BORDERS);
+            styleApplier.applyTableBorders(outputSheet, styles);
+            recorder.finish();
 
-            // Обрабатываем данные РТ (для всех типов файлов)
-            log.info("Начинаем обработку данных РТ для {}...", fileType.getDisplayName());
-            rtDataProcessor.processRtData(sourceSheet, outputSheet);
+            // Строки таблицы собираются в план и записываются в лист один раз в конце
+            RowPlan plan = new RowPlan();
+            createEmptyRowAfterHeader(plan);
 
-            // СПЕЦИАЛЬНАЯ ЛОГИКА ДЛЯ ФАЙЛОВ ОВ - добавляем поправку к ПДУ
-            if (isOvFileType(fileType)) {
-                log.info("🔧 Применение специальной логики для файлов ОВ...");
-                ovDataProcessor.processOvData(outputSheet);
+            // Потоково читаем исходный лист за один проход: копируем строки в план и собираем колоночную таблицу
+            recorder.start(Stage.READ);
+            DataCopier.RowCopier rowCopier = dataCopier.createRowCopier(plan);
+            NoiseTable.Builder tableBuilder = NoiseTable.builder();
+            SheetRowHandler sourceHandler = rowCopier.andThen(tableBuilder);
+            boolean sheetFound = run.readSheet(sheetReader, inputFile, pipeline.getSheetName(), sourceHandler);
+            if (!sheetFound) {
+                log.error("Лист '{}' не найден в файле: {}", pipeline.getSheetName(), inputFile.getName());
+                return false;
             }
+            log.info("Скопировано {} строк данных с высотой 8мм", rowCopier.getCopiedRows());
 
-            // ВЫПОЛНЯЕМ ОПЕРАЦИИ (общие для всех типов файлов)
-            if (removeSoundIsolation) {
-                log.info("🚀 Выполнение операции удаления для {}", fileType.getDisplayName());
-                int removedCount = soundIsolationRemover.execute(outputSheet);
-                log.info("✅ Удаление для {}: обработано {} строк", fileType.getDisplayName(), removedCount);
+            NoiseTable table = tableBuilder.build();
+            if (tableSink != null) {
+                tableSink.accept(inputFile, table);
             }
+            recorder.finish(rowCopier.getCopiedRows(), plan.size());
 
-            if (moveSoundIsolation) {
-                log.info("🚀 Выполнение операции перемещения для {}", fileType.getDisplayName());
-                int movedCount = barrierRowMover.execute(outputSheet);
-                log.info("✅ Перемещение для {}: обработано {} строк", fileType.getDisplayName(), movedCount);
-            }
+            recorder.start(Stage.RT_DATA);
+            int rowsBefore = plan.size();
+            List<RtData> rtDataList = rtDataProcessor.findRtData(table);
+
+            // Обрабатываем данные РТ (для всех типов файлов)
+            log.info("Начинаем обработку данных РТ для {}...", fileType.getDisplayName());
+            rtDataProcessor.processRtData(rtDataList, plan);
+            recorder.finish(rowsBefore, plan.size());
 
-            // Применяем поправку если указана (общая для всех типов файлов)
-            if (correctionValue != null) {
-                RowOperation correctionOperation = new CorrectionOperation(correctionValue, styleApplier);
-                log.info("🚀 Выполнение операции поправки для {}", fileType.getDisplayName());
-                int correctedCount = correctionOperation.execute(outputSheet);
-                log.info("✅ Поправка для {}: обработано {} строк", fileType.getDisplayName(), correctedCount);
+            // Операции по настройкам выполняются за один проход по плану
+            log.info("🚀 Операции за один проход: {}", pipeline.getDescription());
+            recorder.start(Stage.ROW_OPERATIONS);
+            rowsBefore = plan.size();
+            RowPipeline rowPipeline = pipeline.getRowPipeline();
+            int[] processedCounts = rowPipeline.run(plan, fileName, fileType);
+            recorder.finish(rowsBefore, plan.size());
+            for (int index = 0; index < processedCounts.length; index++) {
+                log.info("✅ {} для {}: обработано {} строк", rowPipeline.getOperations().get(index).getOperationName(),
+                        fileType.getDisplayName(), processedCounts[index]);
             }
 
-            // Финальные операции (общие для всех типов файлов)
-            columnHider.hideColumnC(outputSheet);
-            emptyRowCleaner.removeEmptyRows(outputSheet);
-            styleApplier.applyTableBorders(outputSheet);
+            recorder.start(Stage.PLAN_WRITE);
+            planWriter.write(plan, outputSheet, styles, new PlanWriteOptions(ROW_HEIGHT_MM, pipeline.getRtHeaderLayout(),
+                    pipeline.getBorderMode(), pipeline.isOptimizeOutput()));
+            recorder.finish(plan.size(), outputSheet.getLastRowNum() + 1);
+            recorder.setRows(rowCopier.getCopiedRows(), plan.size());
+            recorder.setStylesCreated(outputWorkbook.getNumCellStyles());
 
             // Сохраняем файл
+            recorder.start(Stage.SAVE);
             outputFile.getParentFile().mkdirs();
+            long previousFileSize = outputFile.isFile() ? outputFile.length() : -1;
             try (FileOutputStream fos = new FileOutputStream(outputFile)) {
                 outputWorkbook.write(fos);
             }
+            recorder.finish();
+            logOutputSize(outputFile, previousFileSize);
 
             log.info("Файл {} успешно создан: {}", fileType.getDisplayName(), outputFile.getAbsolutePath());
+            success = true;
             return true;
 
         } catch (IOException e) {
             log.error("Ошибка при обработке файла {}: {}", inputFile.getName(), e.getMessage(), e);
             return false;
+        } finally {
+            closeOutputWorkbook(outputWorkbook);
+            publishMetrics(recorder.toMetrics(outputFile, success), run);
         }
     }
 
+    private void publishMetrics(FileMetrics fileMetrics, RunContext run) {
+        log.info("⏱️ {}: {}", fileMetrics.getName(), fileMetrics.describe());
+        run.addFile(fileMetrics);
+    }
+
     /**
-     * Проверяет, является ли тип файла ОВ (Отопление и Вентиляция)
+     * Создает выходную книгу: потоковую (SXSSF) со скользящим окном строк или обычную XSSF
      */
-    private boolean isOvFileType(FileType fileType) {
-        return fileType == FileType.OV_DAY || fileType == FileType.OV_NIGHT;
+    private Workbook createOutputWorkbook(CompiledPipeline pipeline) {
+        if (!pipeline.isStreamingOutput()) {
+            return new XSSFWorkbook();
+        }
+        // Без оптимизации строки пишутся в лист как inline-строки, с ней - один раз в sharedStrings.xml
+        return new SXSSFWorkbook(null, STREAMING_ROW_WINDOW, true, pipeline.isOptimizeOutput());
+    }
+
+    private void logOutputSize(File outputFile, long previousFileSize) {
+        try {
+            log.info("📦 Размер {}: {}", outputFile.getName(), OutputSizeReport.of(outputFile).describe(previousFileSize));
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось определить размеры частей {}: {}", outputFile.getName(), e.getMessage());
+        }
+    }
+
+    private void closeOutputWorkbook(Workbook workbook) {
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось закрыть выходную книгу: {}", e.getMessage());
+        }
+        if (workbook instanceof SXSSFWorkbook) {
+            // Удаляем временные файлы потоковой записи
+            ((SXSSFWorkbook) workbook).dispose();
+        }
     }
 
     /**
@@ -169,9 +272,8 @@ public class ExcelProcessor {
     /**
      * Создает пустую строку сразу после шапки таблицы
      */
-    private void createEmptyRowAfterHeader(Sheet sheet) {
-        Row row = sheet.createRow(2);
-        row.setHeightInPoints((short) (ROW_HEIGHT_MM / 25.4 * 72));
-        log.debug("Создана пустая строка после шапки таблицы (строка 2)");
+    private void createEmptyRowAfterHeader(RowPlan plan) {
+        plan.addRow(PlanRow.empty());
+        log.debug("Создана пустая строка после шапки таблицы (строка {})", RowPlan.FIRST_SHEET_ROW);
     }
 }
\ No newline at end of file
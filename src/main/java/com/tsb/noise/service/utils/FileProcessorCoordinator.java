@@ -2,12 +2,15 @@ package com.tsb.noise.service.utils;
 
 import com.tsb.noise.model.FileType;
 import com.tsb.noise.model.ProcessConfig;
+import com.tsb.noise.service.ProcessingResult;
 import com.tsb.noise.service.processors.BaseExcelProcessor;
 import com.tsb.noise.service.processors.ProcessorFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -30,54 +33,34 @@ public class FileProcessorCoordinator {
             messageCallback.accept("✅ Найдено файлов: " + targetFiles.size());
             progressCallback.accept(10.0);
 
-            int processed = 0;
-            int totalFiles = targetFiles.size();
-            int successful = 0;
-            int failed = 0;
-
-            for (File inputFile : targetFiles) {
-                String currentFileName = inputFile.getName();
-                messageCallback.accept("Обработка " + (processed + 1) + "/" + totalFiles + ": " + currentFileName);
-
-                try {
-                    FileType fileType = FileType.fromFileName(currentFileName);
-                    BaseExcelProcessor processor = ProcessorFactory.createProcessor(fileType);
-
-                    ProcessConfig fileConfig = new ProcessConfig(
-                            config.isRemoveSoundIsolation(),
-                            config.isMoveSoundIsolation(),
-                            fileType
-                    );
-
-                    String outputFileName = FileUtils.generateOutputFileName(currentFileName);
-                    File outputFile = new File(inputFile.getParent(), outputFileName);
-
-                    boolean success = processor.process(inputFile, outputFile, fileConfig);
-
-                    if (success) {
-                        successful++;
-                        log.info("✅ Успешно обработан: {}", outputFile.getName());
-                    } else {
-                        failed++;
-                        log.error("❌ Ошибка при обработке: {}", inputFile.getName());
-                    }
-
-                } catch (Exception e) {
-                    failed++;
-                    log.error("❌ Критическая ошибка при обработке {}: {}", currentFileName, e.getMessage(), e);
-                }
-
-                processed++;
-                double progress = 10.0 + (processed * 90.0 / totalFiles);
-                progressCallback.accept(progress);
-
-                try {
-                    Thread.sleep(50);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
+            // Обработчики и настройки собираются один раз на тип файла и разделяются потоками
+            Map<FileType, FileJob> jobs = createJobs(targetFiles, config);
+
+            Thread callerThread = Thread.currentThread();
+            ProcessingResult result = new ParallelFileProcessor(ParallelFileProcessor.defaultParallelism()).processFiles(
+                    targetFiles,
+                    inputFile -> new File(inputFile.getParent(), FileUtils.generateOutputFileName(inputFile.getName())),
+                    (inputFile, outputFile) -> jobs.get(FileType.fromFileName(inputFile.getName()))
+                            .process(inputFile, outputFile),
+                    new ParallelFileProcessor.ProgressListener() {
+                        @Override
+                        public void fileCompleted(ParallelFileProcessor.FileOutcome outcome, int total) {
+                            if (outcome.isSuccess()) {
+                                log.info("✅ Успешно обработан: {}", outcome.getOutputFile().getName());
+                            } else {
+                                log.error("❌ Ошибка при обработке: {}", outcome.getInputFile().getName());
+                            }
+                        }
+
+                        @Override
+                        public void progress(int completed, int total) {
+                            messageCallback.accept("Обработано " + completed + "/" + total);
+                            progressCallback.accept(10.0 + (completed * 90.0 / total));
+                        }
+                    },
+                    callerThread::isInterrupted);
+            int successful = result.getProcessedFiles();
+            int failed = result.getFailedFiles();
 
             String resultMessage = String.format("🎉 Обработка завершена! Успешно: %d, Ошибок: %d", successful, failed);
             if (config.isRemoveSoundIsolation() || config.isMoveSoundIsolation()) {
@@ -97,6 +80,27 @@ public class FileProcessorCoordinator {
         return null;
     }
 
+    /**
+     * Обработчик и настройки одного типа файлов; обработчики не хранят состояния между файлами
+     */
+    private record FileJob(BaseExcelProcessor processor, ProcessConfig config) {
+        boolean process(File inputFile, File outputFile) {
+            return processor.process(inputFile, outputFile, config);
+        }
+    }
+
+    private Map<FileType, FileJob> createJobs(List<File> targetFiles, ProcessConfig config) {
+        // HashMap: файлы без распознанного типа идут под ключом null
+        Map<FileType, FileJob> jobs = new HashMap<>();
+        for (File file : targetFiles) {
+            FileType fileType = FileType.fromFileName(file.getName());
+            jobs.computeIfAbsent(fileType, type -> new FileJob(
+                    ProcessorFactory.createProcessor(type),
+                    new ProcessConfig(config.isRemoveSoundIsolation(), config.isMoveSoundIsolation(), type)));
+        }
+        return jobs;
+    }
+
     private String getOperationsSummary(ProcessConfig config) {
         StringBuilder summary = new StringBuilder(" (");
 
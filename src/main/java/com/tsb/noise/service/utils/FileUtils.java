@@ -1,18 +1,14 @@
 package com.tsb.noise.service.utils;
 
 import com.tsb.noise.model.FileType;
+import com.tsb.noise.service.catalog.CatalogEntry;
+import com.tsb.noise.service.catalog.FileCatalog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class FileUtils {
     private static final Logger log = LoggerFactory.getLogger(FileUtils.class);
@@ -25,65 +21,20 @@ public class FileUtils {
      * Находит все поддерживаемые Excel файлы УЗД
      */
     public static List<File> findTargetExcelFiles(String rootPath) throws IOException {
-        if (rootPath == null || rootPath.trim().isEmpty()) {
-            log.warn("Путь для поиска файлов не указан");
-            return Collections.emptyList();
-        }
-
-        Path start = Paths.get(rootPath);
-
-        if (!Files.exists(start)) {
-            log.error("Путь не существует: {}", rootPath);
-            throw new IllegalArgumentException("Путь не существует: " + rootPath);
-        }
-
-        if (!Files.isDirectory(start)) {
-            log.error("Указанный путь не является директорией: {}", rootPath);
-            throw new IllegalArgumentException("Указанный путь не является директорией: " + rootPath);
-        }
-
-        try (Stream<Path> stream = Files.walk(start)) {
-            List<File> foundFiles = stream
-                    .filter(FileUtils::isSupportedExcelFile)
-                    .map(Path::toFile)
-                    .collect(Collectors.toList());
-
-            log.info("Найдено поддерживаемых файлов УЗД: {}", foundFiles.size());
-
-            // Логируем типы найденных файлов
-            foundFiles.forEach(file -> {
-                FileType fileType = FileType.fromFileName(file.getName());
-                if (fileType != null) {
-                    log.debug("Найден файл типа {}: {}", fileType.getDisplayName(), file.getName());
-                }
-            });
-
-            return foundFiles;
-        } catch (IOException e) {
-            log.error("Ошибка при поиске файлов в директории {}: {}", rootPath, e.getMessage(), e);
-            throw e;
-        }
+        return findTargetExcelFiles(FileCatalog.scan(rootPath));
     }
 
     /**
-     * Проверяет является ли файл поддерживаемым Excel файлом УЗД
+     * Находит все поддерживаемые Excel файлы УЗД в готовом каталоге
      */
-    private static boolean isSupportedExcelFile(Path path) {
-        if (!Files.isRegularFile(path)) {
-            return false;
-        }
-
-        String fileName = path.getFileName().toString();
+    public static List<File> findTargetExcelFiles(FileCatalog catalog) {
+        List<CatalogEntry> entries = catalog.findSupported();
 
-        // Проверяем что файл Excel и соответствует одному из шаблонов
-        boolean isExcel = fileName.endsWith(".xlsx") || fileName.endsWith(".xls");
-        boolean isSupported = FileType.isSupportedFile(fileName);
-
-        if (isSupported && isExcel) {
-            log.debug("Найден поддерживаемый файл: {}", fileName);
-        }
+        log.info("Найдено поддерживаемых файлов УЗД: {}", entries.size());
+        entries.forEach(entry ->
+                log.debug("Найден файл типа {}: {}", entry.getFileType().getDisplayName(), entry.getFileName()));
 
-        return isSupported && isExcel;
+        return FileCatalog.toFiles(entries);
     }
 
     /**
@@ -0,0 +1,124 @@
+package com.tsb.noise.service.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * Минимальная запись JSON без сторонних библиотек - для машиночитаемых отчетов.
+ * Объекты и массивы открываются и закрываются парно, запятые расставляются автоматически.
+ */
+public final class JsonWriter {
+
+    private final StringBuilder out = new StringBuilder();
+    private final Deque<Boolean> hasElements = new ArrayDeque<>();
+    private boolean afterName;
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        out.append('{');
+        hasElements.push(false);
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        hasElements.pop();
+        out.append('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        out.append('[');
+        hasElements.push(false);
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        hasElements.pop();
+        out.append(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        beforeValue();
+        appendString(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            out.append("null");
+        } else {
+            appendString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        beforeValue();
+        if (Double.isFinite(value)) {
+            out.append(String.format(Locale.ROOT, "%.3f", value));
+        } else {
+            out.append("null");
+        }
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!hasElements.isEmpty()) {
+            if (hasElements.peek()) {
+                out.append(',');
+            } else {
+                hasElements.pop();
+                hasElements.push(true);
+            }
+        }
+    }
+
+    private void appendString(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.tsb.noise.service.utils;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Размеры сохраненной книги: файл целиком и основные части пакета (XML листов, styles.xml,
+ * sharedStrings.xml) - в распакованном виде, как их разбирает Excel при открытии
+ */
+@Getter
+public final class OutputSizeReport {
+
+    private static final String WORKSHEET_PREFIX = "xl/worksheets/";
+    private static final String STYLES_PART = "xl/styles.xml";
+    private static final String SHARED_STRINGS_PART = "xl/sharedStrings.xml";
+
+    private final long fileSize;
+    private final long sheetXmlSize;
+    private final long stylesSize;
+    private final long sharedStringsSize;
+
+    private OutputSizeReport(long fileSize, long sheetXmlSize, long stylesSize, long sharedStringsSize) {
+        this.fileSize = fileSize;
+        this.sheetXmlSize = sheetXmlSize;
+        this.stylesSize = stylesSize;
+        this.sharedStringsSize = sharedStringsSize;
+    }
+
+    /**
+     * Читает оглавление zip-пакета книги; содержимое частей не распаковывается
+     */
+    public static OutputSizeReport of(File workbookFile) throws IOException {
+        long sheetXmlSize = 0;
+        long stylesSize = 0;
+        long sharedStringsSize = 0;
+
+        try (ZipFile zip = new ZipFile(workbookFile)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                long size = Math.max(entry.getSize(), 0);
+                String name = entry.getName();
+                if (name.startsWith(WORKSHEET_PREFIX) && name.endsWith(".xml")) {
+                    sheetXmlSize += size;
+                } else if (name.equals(STYLES_PART)) {
+                    stylesSize = size;
+                } else if (name.equals(SHARED_STRINGS_PART)) {
+                    sharedStringsSize = size;
+                }
+            }
+        }
+        return new OutputSizeReport(workbookFile.length(), sheetXmlSize, stylesSize, sharedStringsSize);
+    }
+
+    /**
+     * Строка для журнала; previousFileSize - размер заменяемого файла или -1, если его не было
+     */
+    public String describe(long previousFileSize) {
+        StringBuilder description = new StringBuilder()
+                .append("файл ").append(formatBytes(fileSize));
+        if (previousFileSize >= 0) {
+            long saved = previousFileSize - fileSize;
+            description.append(" (был ").append(formatBytes(previousFileSize))
+                    .append(saved >= 0 ? ", сэкономлено " : ", больше на ")
+                    .append(formatBytes(Math.abs(saved))).append(")");
+        }
+        return description
+                .append("; лист XML ").append(formatBytes(sheetXmlSize))
+                .append(", styles.xml ").append(formatBytes(stylesSize))
+                .append(", sharedStrings.xml ").append(formatBytes(sharedStringsSize))
+                .toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " Б";
+        }
+        return String.format("%.1f КБ", bytes / 1024.0);
+    }
+}
@@ -0,0 +1,287 @@
+package com.tsb.noise.service.utils;
+
+import com.tsb.noise.service.ProcessingResult;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Обработка набора файлов на ограниченном пуле потоков.
+ * Размер пула зависит от числа ядер и объема кучи. Результаты по файлам выдаются
+ * слушателю в исходном порядке файлов, а счетчик прогресса обновляется сразу по завершении файла.
+ */
+@Slf4j
+public class ParallelFileProcessor {
+
+    /**
+     * Системное свойство для явного задания числа потоков (1 - последовательная обработка)
+     */
+    public static final String PARALLELISM_PROPERTY = "noise.parallelism";
+
+    // Оценка пикового объема кучи на один обрабатываемый файл
+    private static final long HEAP_PER_WORKER_BYTES = 192L * 1024 * 1024;
+
+    private final int parallelism;
+
+    public ParallelFileProcessor(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Обработка одного файла: возвращает true при успехе
+     */
+    @FunctionalInterface
+    public interface FileJob {
+        boolean process(File inputFile, File outputFile) throws Exception;
+    }
+
+    /**
+     * Слушатель хода обработки. Вызовы синхронизированы между собой.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Файл начал обрабатываться (порядок вызовов зависит от потоков)
+         */
+        default void fileStarted(int index, int total, File inputFile) {
+        }
+
+        /**
+         * Результат по файлу - строго в порядке исходного списка
+         */
+        void fileCompleted(FileOutcome outcome, int total);
+
+        /**
+         * Количество завершенных файлов - сразу по завершении любого файла
+         */
+        void progress(int completed, int total);
+    }
+
+    /**
+     * Результат обработки одного файла
+     */
+    @Value
+    public static class FileOutcome {
+        int index;
+        File inputFile;
+        File outputFile;
+        boolean success;
+        String errorMessage;
+    }
+
+    /**
+     * Число потоков по умолчанию: ядра процессора, но не больше, чем позволяет куча
+     */
+    public static int defaultParallelism() {
+        String configured = System.getProperty(PARALLELISM_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            try {
+                return Math.max(1, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("⚠️ Некорректное значение {}: {}", PARALLELISM_PROPERTY, configured);
+            }
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        long heapLimited = Runtime.getRuntime().maxMemory() / HEAP_PER_WORKER_BYTES;
+        return (int) Math.max(1, Math.min(cores, heapLimited));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Обрабатывает файлы и возвращает сводный результат
+     * @param outputResolver выходной файл для входного
+     * @param cancelled проверка отмены: файлы, не начатые до отмены, пропускаются
+     */
+    public ProcessingResult processFiles(List<File> files,
+                                         Function<File, File> outputResolver,
+                                         FileJob job,
+                                         ProgressListener listener,
+                                         BooleanSupplier cancelled) {
+        int total = files.size();
+        OrderedReporter reporter = new OrderedReporter(total, listener);
+        int threads = Math.min(parallelism, Math.max(1, total));
+
+        log.info("⚙️ Обработка {} файлов, потоков: {}", total, threads);
+
+        if (threads == 1) {
+            // Последовательный режим - в текущем потоке
+            for (int index = 0; index < total; index++) {
+                if (cancelled.getAsBoolean()) break;
+                reporter.report(runJob(index, files.get(index), outputResolver, job, reporter));
+            }
+            return reporter.toResult(cancelled.getAsBoolean());
+        }
+
+        ExecutorService executor = createExecutor(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (int index = 0; index < total; index++) {
+                int fileIndex = index;
+                File inputFile = files.get(index);
+                futures.add(executor.submit(() -> {
+                    if (cancelled.getAsBoolean()) return;
+                    reporter.report(runJob(fileIndex, inputFile, outputResolver, job, reporter));
+                }));
+            }
+
+            for (int index = 0; index < total; index++) {
+                awaitCompletion(index, files.get(index), reporter, futures, cancelled);
+            }
+        } finally {
+            // Уже начатые файлы дописываются до конца, чтобы не оставлять поврежденных выходных файлов
+            shutdownAndAwait(executor);
+        }
+
+        return reporter.toResult(cancelled.getAsBoolean());
+    }
+
+    private FileOutcome runJob(int index, File inputFile, Function<File, File> outputResolver,
+                               FileJob job, OrderedReporter reporter) {
+        File outputFile = null;
+        try {
+            outputFile = outputResolver.apply(inputFile);
+            reporter.started(index, inputFile);
+            boolean success = job.process(inputFile, outputFile);
+            return new FileOutcome(index, inputFile, outputFile, success, success ? null : "Файл не обработан");
+        } catch (Throwable e) {
+            // Error тоже дает результат по файлу: иначе упорядоченная выдача задержала бы все следующие файлы
+            log.error("❌ Критическая ошибка при обработке {}: {}", inputFile.getName(), describe(e), e);
+            return new FileOutcome(index, inputFile, outputFile, false, describe(e));
+        }
+    }
+
+    private void awaitCompletion(int index, File inputFile, OrderedReporter reporter,
+                                 List<Future<?>> futures, BooleanSupplier cancelled) {
+        Future<?> future = futures.get(index);
+        while (true) {
+            try {
+                future.get(200, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                if (cancelled.getAsBoolean()) {
+                    // Файлы в очереди не запускаются, текущие дорабатывают
+                    futures.forEach(f -> f.cancel(false));
+                }
+            } catch (CancellationException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(false));
+                return;
+            } catch (ExecutionException e) {
+                log.error("❌ Ошибка в потоке обработки: {}", describe(e.getCause()), e.getCause());
+                // Задача завершилась без результата по файлу - файл считается необработанным
+                reporter.reportIfMissing(new FileOutcome(index, inputFile, null, false, describe(e.getCause())));
+                return;
+            }
+        }
+    }
+
+    private static String describe(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    private void shutdownAndAwait(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                log.debug("Ожидание завершения обрабатываемых файлов...");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ExecutorService createExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "noise-worker-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * Собирает результаты из потоков и выдает их слушателю в исходном порядке файлов
+     */
+    private static class OrderedReporter {
+        private final int total;
+        private final ProgressListener listener;
+        private final FileOutcome[] outcomes;
+        private int nextToReport;
+        private int completed;
+
+        OrderedReporter(int total, ProgressListener listener) {
+            this.total = total;
+            this.listener = listener;
+            this.outcomes = new FileOutcome[total];
+        }
+
+        synchronized void started(int index, File inputFile) {
+            listener.fileStarted(index, total, inputFile);
+        }
+
+        synchronized void report(FileOutcome outcome) {
+            outcomes[outcome.getIndex()] = outcome;
+            completed++;
+            listener.progress(completed, total);
+
+            while (nextToReport < total && outcomes[nextToReport] != null) {
+                listener.fileCompleted(outcomes[nextToReport], total);
+                nextToReport++;
+            }
+        }
+
+        synchronized void reportIfMissing(FileOutcome outcome) {
+            if (outcomes[outcome.getIndex()] == null) {
+                report(outcome);
+            }
+        }
+
+        synchronized ProcessingResult toResult(boolean cancelled) {
+            // Если обработка прервана, выдаем оставшиеся результаты после пропусков
+            for (int index = nextToReport; index < total; index++) {
+                if (outcomes[index] != null) {
+                    listener.fileCompleted(outcomes[index], total);
+                }
+            }
+            nextToReport = total;
+
+            List<String> processedFileNames = new ArrayList<>();
+            List<String> errorMessages = new ArrayList<>();
+            for (FileOutcome outcome : outcomes) {
+                if (outcome == null) continue;
+                if (outcome.isSuccess()) {
+                    processedFileNames.add(outcome.getInputFile().getName());
+                } else {
+                    errorMessages.add(outcome.getInputFile().getName() + ": " + outcome.getErrorMessage());
+                }
+            }
+
+            ProcessingResult result = new ProcessingResult();
+            result.setTotalFiles(total);
+            result.setProcessedFiles(processedFileNames.size());
+            result.setFailedFiles(errorMessages.size());
+            result.setProcessedFileNames(processedFileNames);
+            result.setErrorMessages(errorMessages);
+            result.setSuccess(errorMessages.isEmpty() && !cancelled);
+            result.setCancelled(cancelled);
+            result.setSummary(String.format("Успешно: %d, Ошибок: %d%s", processedFileNames.size(),
+                    errorMessages.size(), cancelled ? ", отменено" : ""));
+            return result;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.tsb.noise.service.utils;
 
 import com.tsb.noise.model.RtData;
+import com.tsb.noise.service.operations.plan.PlanRow;
+import com.tsb.noise.service.operations.plan.RowPlan;
+import com.tsb.noise.service.reader.LabelDictionary;
+import com.tsb.noise.service.reader.NoiseTable;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.CellRangeAddress;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -14,31 +16,15 @@ import java.util.regex.Pattern;
 @Slf4j
 public class RtDataProcessor {
 
+    private static final Pattern RT_NAME_PATTERN = Pattern.compile("РТ-?\\d+.*");
     private static final Pattern COORDINATES_PATTERN = Pattern.compile(":[^:]*:([^,]*)");
     private static final Pattern ELEVATION_PATTERN = Pattern.compile("(-?\\d+\\.?\\d*)");
 
-    // Константа для высоты строк 8мм
-    private static final double ROW_HEIGHT_MM = 8.0;
-
     /**
-     * Конвертирует мм в points для высоты строк
+     * Вставляет заголовки найденных РТ в план выходного листа
      */
-    private short mmToPoints(double mm) {
-        return (short) (mm / 25.4 * 72);
-    }
-
-    /**
-     * Создает строку с фиксированной высотой 8мм
-     */
-    private Row createRowWithFixedHeight(Sheet sheet, int rowIndex) {
-        Row row = sheet.createRow(rowIndex);
-        row.setHeightInPoints(mmToPoints(ROW_HEIGHT_MM));
-        return row;
-    }
-
-    public void processRtData(Sheet sourceSheet, Sheet targetSheet) {
+    public void processRtData(List<RtData> rtDataList, RowPlan plan) {
         try {
-            List<RtData> rtDataList = findRtData(sourceSheet);
             log.info("Найдено РТ для обработки: {}", rtDataList.size());
 
             if (rtDataList.isEmpty()) {
@@ -46,15 +32,17 @@ public class RtDataProcessor {
                 return;
             }
 
-            // Сортируем по убыванию индекса строки (идем с конца)
-            rtDataList.sort(Comparator.comparingInt(RtData::getRowIndex).reversed());
-
-            // Обрабатываем все найденные РТ с конца
+            // Все заголовки вставляются в план одним проходом
+            RowPlan.Edits edits = plan.newEdits();
+            int addedCount = 0;
             for (RtData rtData : rtDataList) {
-                createRtHeaderBeforeData(targetSheet, rtData);
+                if (createRtHeaderBeforeData(plan, edits, rtData)) {
+                    addedCount++;
+                }
             }
+            plan.apply(edits);
 
-            log.info("Обработка РТ завершена. Добавлено описаний: {}", rtDataList.size());
+            log.info("Обработка РТ завершена. Добавлено описаний: {}", addedCount);
 
         } catch (Exception e) {
             log.error("Ошибка при обработке данных РТ: {}", e.getMessage(), e);
@@ -63,144 +51,76 @@ public class RtDataProcessor {
     }
 
     /**
-     * Создает заголовок РТ непосредственно перед его данными с высотой 8мм
+     * Создает заголовок РТ непосредственно перед его данными
      */
-    private void createRtHeaderBeforeData(Sheet sheet, RtData rtData) {
+    private boolean createRtHeaderBeforeData(RowPlan plan, RowPlan.Edits edits, RtData rtData) {
         try {
-            int targetRowIndex = rtData.getRowIndex() + 1;
-
-            if (targetRowIndex < 1 || targetRowIndex > sheet.getLastRowNum() + 1) {
-                log.warn("Некорректный индекс строки для РТ {}: {}. LastRowNum: {}",
-                        rtData.getName(), targetRowIndex, sheet.getLastRowNum());
-                return;
-            }
-
-            // Сдвигаем строки вниз начиная с целевой позиции
-            int lastRowNum = sheet.getLastRowNum();
-            if (targetRowIndex <= lastRowNum) {
-                sheet.shiftRows(targetRowIndex, lastRowNum, 1, true, false);
+            // Строка исходного листа i копируется в строку листа i + 2,
+            // заголовок встает перед строкой листа i + 1
+            int targetSheetRow = rtData.getRowIndex() + 1;
+            int targetIndex = targetSheetRow - RowPlan.FIRST_SHEET_ROW;
+
+            if (targetIndex < 0 || targetIndex > plan.size()) {
+                log.warn("Некорректный индекс строки для РТ {}: {}. Строк в плане: {}",
+                        rtData.getName(), targetSheetRow, plan.size());
+                return false;
             }
 
-            // Создаем строку с фиксированной высотой 8мм
-            Row headerRow = createRowWithFixedHeight(sheet, targetRowIndex);
-
-            // Создаем ячейку B с объединенным текстом
-            Cell headerCell = headerRow.createCell(1);
             String headerText = buildHeaderText(rtData);
-            headerCell.setCellValue(headerText);
-
-            // Объединяем ячейки B-M
-            CellRangeAddress mergedRegion = new CellRangeAddress(targetRowIndex, targetRowIndex, 1, 12);
-            sheet.addMergedRegion(mergedRegion);
-
-            // Применяем стиль
-            applyRtHeaderStyle(headerCell);
+            edits.insertBefore(targetIndex, PlanRow.rtHeader(headerText));
 
-            log.debug("✅ Создано описание РТ '{}' в строке {} с высотой 8мм", headerText, targetRowIndex + 1);
+            log.debug("✅ Создано описание РТ '{}' перед строкой {}", headerText, targetSheetRow + 1);
+            return true;
 
         } catch (Exception e) {
             log.error("Ошибка при создании описания РТ {}: {}", rtData.getName(), e.getMessage(), e);
+            return false;
         }
     }
 
     /**
-     * Применяет стиль к заголовку РТ с ВЫРАВНИВАНИЕМ ПО ЦЕНТРУ БЕЗ автопереноса
+     * Находит строки РТ разобранного листа: наименование РТ в A и "УЗД днём"/"УЗД ночью" в B
      */
-    private void applyRtHeaderStyle(Cell cell) {
-        try {
-            Workbook workbook = cell.getSheet().getWorkbook();
-            CellStyle style = workbook.createCellStyle();
-
-            // ВЫРАВНИВАНИЕ ПО ЦЕНТРУ И ПО ВЕРТИКАЛИ
-            style.setAlignment(HorizontalAlignment.CENTER);
-            style.setVerticalAlignment(VerticalAlignment.CENTER);
-            style.setWrapText(false); // УБРАН автоперенос
-
-            // Шрифт Arial Narrow
-            Font font = workbook.createFont();
-            font.setFontName("Arial Narrow");
-            font.setBold(true);
-            font.setFontHeightInPoints((short) 11);
-            style.setFont(font);
-
-            // Настраиваем границы
-            style.setBorderBottom(BorderStyle.THIN);
-            style.setBorderTop(BorderStyle.THIN);
-            style.setBorderLeft(BorderStyle.THIN);
-            style.setBorderRight(BorderStyle.THIN);
-
-            // Заливка
-            style.setFillForegroundColor(IndexedColors.LIGHT_YELLOW.getIndex());
-            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            cell.setCellStyle(style);
-        } catch (Exception e) {
-            log.warn("Не удалось применить стиль к заголовку РТ: {}", e.getMessage());
-        }
-    }
-
-    /**
-     * Находит данные РТ в исходном листе
-     */
-    private List<RtData> findRtData(Sheet sheet) {
+    public List<RtData> findRtData(NoiseTable table) {
         List<RtData> rtDataList = new ArrayList<>();
+        int dayLabel = table.getLabels().idOf("УЗД днём");
+        int nightLabel = table.getLabels().idOf("УЗД ночью");
+        if (dayLabel == LabelDictionary.NO_LABEL && nightLabel == LabelDictionary.NO_LABEL) {
+            return rtDataList;
+        }
 
-        for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row == null) continue;
+        // Только строки с нужными подписями, в порядке листа
+        int[] dayRows = table.getRowsWithLabel(dayLabel);
+        int[] nightRows = table.getRowsWithLabel(nightLabel);
+        int[] candidateRows = Arrays.copyOf(dayRows, dayRows.length + nightRows.length);
+        System.arraycopy(nightRows, 0, candidateRows, dayRows.length, nightRows.length);
+        Arrays.sort(candidateRows);
 
-            Cell cellA = row.getCell(0);
-            Cell cellB = row.getCell(1);
-            Cell cellO = row.getCell(14);
-            Cell cellN = row.getCell(13);
+        for (int row : candidateRows) {
+            String name = table.getRtName(row);
+            if (name == null || !RT_NAME_PATTERN.matcher(name).matches()) continue;
 
-            if (isRtRow(cellA, cellB)) {
-                RtData rtData = extractRtData(cellA, cellO, cellN, rowIndex);
-                if (rtData != null) {
-                    rtDataList.add(rtData);
-                    log.debug("Найдено РТ: {} в строке {}", rtData.getName(), rowIndex + 1);
-                }
-            }
+            RtData rtData = extractRtData(table, row);
+            rtDataList.add(rtData);
+            log.debug("Найдено РТ: {} в строке {}", rtData.getName(), rtData.getRowIndex() + 1);
         }
         return rtDataList;
     }
 
     /**
-     * Проверяет, является ли строка строкой РТ
-     * Теперь учитывает как "УЗД днём", так и "УЗД ночью"
-     */
-    private boolean isRtRow(Cell cellA, Cell cellB) {
-        if (cellA == null || cellB == null) return false;
-
-        String valueA = getCellStringValue(cellA).trim();
-        String valueB = getCellStringValue(cellB).trim();
-
-        // Проверяем формат названия РТ и наличие УЗД днём/ночью
-        boolean isRtFormat = valueA.matches("РТ-?\\d+.*");
-        boolean isUzdDayOrNight = "УЗД днём".equals(valueB) || "УЗД ночью".equals(valueB);
-
-        return isRtFormat && isUzdDayOrNight;
-    }
-
-    /**
-     * Извлекает данные РТ из ячеек
+     * Извлекает данные РТ из колонок A (имя), O (описание) и N (координаты)
      */
-    private RtData extractRtData(Cell cellA, Cell cellO, Cell cellN, int rowIndex) {
-        try {
-            String name = getCellStringValue(cellA).trim();
-            String description = cellO != null ? getCellStringValue(cellO).trim() : "";
-            String coordinates = cellN != null ? getCellStringValue(cellN).trim() : "";
-            Double elevation = extractElevation(coordinates);
+    private RtData extractRtData(NoiseTable table, int row) {
+        String name = table.getRtName(row);
+        String description = table.getDescription(row);
+        String coordinates = table.getCoordinates(row);
+        Double elevation = extractElevation(coordinates);
 
-            // Логируем для отладки
-            log.debug("Извлечение РТ: name={}, description={}, coordinates={}, elevation={}",
-                    name, description, coordinates, elevation);
+        // Логируем для отладки
+        log.debug("Извлечение РТ: name={}, description={}, coordinates={}, elevation={}",
+                name, description, coordinates, elevation);
 
-            return new RtData(name, description, coordinates, elevation, rowIndex);
-        } catch (Exception e) {
-            log.warn("Не удалось извлечь данные РТ из строки {}: {}", rowIndex + 1, e.getMessage());
-            return null;
-        }
+        return new RtData(name, description, coordinates, elevation, table.getSourceRow(row));
     }
 
     /**
@@ -240,44 +160,4 @@ public class RtDataProcessor {
         log.debug("Построен заголовок РТ: {}", result);
         return result;
     }
-
-    /**
-     * Получает строковое значение ячейки
-     */
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return "";
-        try {
-            switch (cell.getCellType()) {
-                case STRING:
-                    return cell.getStringCellValue();
-                case NUMERIC:
-                    if (DateUtil.isCellDateFormatted(cell)) {
-                        return cell.getDateCellValue().toString();
-                    } else {
-                        double value = cell.getNumericCellValue();
-                        if (value == Math.floor(value) && !Double.isInfinite(value)) {
-                            return String.valueOf((int) value);
-                        } else {
-                            return String.valueOf(value);
-                        }
-                    }
-                case BOOLEAN:
-                    return String.valueOf(cell.getBooleanCellValue());
-                case FORMULA:
-                    try {
-                        return cell.getStringCellValue();
-                    } catch (Exception e) {
-                        try {
-                            return String.valueOf(cell.getNumericCellValue());
-                        } catch (Exception ex) {
-                            return cell.getCellFormula();
-                        }
-                    }
-                default:
-                    return "";
-            }
-        } catch (Exception e) {
-            return "";
-        }
-    }
-}
\ No newline at end of file
+}
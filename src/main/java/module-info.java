@@ -7,7 +7,11 @@ module com.tsb.noise {
     requires org.apache.poi.ooxml;
     requires org.apache.poi.poi;
     requires java.prefs;
+    requires java.xml;
     requires org.slf4j;
+    requires java.management;
+    requires jdk.management;
+    requires jdk.jfr;
 
     // Открываем пакеты для JavaFX FXML
     opens com.tsb.noise to javafx.fxml;
@@ -20,11 +24,14 @@ module com.tsb.noise {
     opens com.tsb.noise.service to javafx.base;
     opens com.tsb.noise.service.utils to javafx.base;
     opens com.tsb.noise.service.processors to javafx.base;
-    opens com.tsb.noise.service.operations to javafx.base;
     opens com.tsb.noise.service.operations.core to javafx.base;
     opens com.tsb.noise.service.operations.row to javafx.base;
     opens com.tsb.noise.service.operations.table to javafx.base;
     opens com.tsb.noise.service.operations.export to javafx.base;
+    opens com.tsb.noise.service.operations.plan to javafx.base;
+    opens com.tsb.noise.service.reader to javafx.base;
+    opens com.tsb.noise.service.catalog to javafx.base;
+    opens com.tsb.noise.service.metrics to javafx.base;
 
     // Экспортируем публичные API
     exports com.tsb.noise;
@@ -33,9 +40,13 @@ module com.tsb.noise {
     exports com.tsb.noise.service;
     exports com.tsb.noise.service.utils;
     exports com.tsb.noise.service.processors;
-    exports com.tsb.noise.service.operations;
     exports com.tsb.noise.service.operations.core;
     exports com.tsb.noise.service.operations.row;
     exports com.tsb.noise.service.operations.table;
     exports com.tsb.noise.service.operations.export;
+    exports com.tsb.noise.service.operations.plan;
+    exports com.tsb.noise.service.reader;
+    exports com.tsb.noise.service.catalog;
+    exports com.tsb.noise.service.metrics;
+    exports com.tsb.noise.cli;
 }
\ No newline at end of file